@@ -2,6 +2,7 @@ package com.example.contentservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Content Service - Main Application
@@ -16,6 +17,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * Port: 8082
  */
 @SpringBootApplication
+@EnableScheduling
 public class ContentServiceApplication {
     
     public static void main(String[] args) {
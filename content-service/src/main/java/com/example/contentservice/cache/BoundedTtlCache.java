@@ -0,0 +1,162 @@
+package com.example.contentservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache with per-entry TTL and LRU eviction.
+ *
+ * - Size bound: least recently used entry is evicted once maxSize is exceeded
+ * - TTL: expired entries are treated as misses and dropped on access
+ * - Invalidation: generation counters prevent a load that started before an
+ *   invalidation from re-inserting a stale value afterwards. Keys hash onto 64
+ *   stripes with a counter each, so invalidating one key only discards in-flight
+ *   loads of keys on its stripe (about 1 in 64), not every load in progress
+ *
+ * Loaders run outside the lock, so two concurrent misses on the same key may both
+ * hit the database; the second result simply overwrites the first.
+ *
+ * Metrics (tagged with cache=name):
+ * - content.cache.requests{result=hit|miss}
+ * - content.cache.evictions{cause=size|expired|explicit}
+ * - content.cache.size
+ */
+public class BoundedTtlCache<K, V> {
+    
+    private static final int GENERATION_STRIPES = 64;
+    
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final long[] generations = new long[GENERATION_STRIPES];
+    
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter explicitEvictions;
+    
+    public BoundedTtlCache(String name, int maxSize, long ttlMillis, MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        
+        this.hits = requestCounter(meterRegistry, name, "hit");
+        this.misses = requestCounter(meterRegistry, name, "miss");
+        this.sizeEvictions = evictionCounter(meterRegistry, name, "size");
+        this.expiredEvictions = evictionCounter(meterRegistry, name, "expired");
+        this.explicitEvictions = evictionCounter(meterRegistry, name, "explicit");
+        Gauge.builder("content.cache.size", this, BoundedTtlCache::size)
+            .tag("cache", name)
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Return the cached value for key, loading and caching it on a miss.
+     * Exceptions thrown by the loader propagate and nothing is cached.
+     */
+    public V get(K key, Supplier<V> loader) {
+        int stripe = stripe(key);
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (!entry.isExpired()) {
+                    hits.increment();
+                    return entry.value;
+                }
+                entries.remove(key);
+                expiredEvictions.increment();
+            }
+            misses.increment();
+            loadGeneration = generations[stripe];
+        }
+        
+        V value = loader.get();
+        
+        synchronized (this) {
+            if (value != null && loadGeneration == generations[stripe]) {
+                entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+                evictOverflow();
+            }
+        }
+        return value;
+    }
+    
+    /**
+     * Insert a value directly (used for warming the cache).
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+        evictOverflow();
+    }
+    
+    public synchronized void invalidate(K key) {
+        generations[stripe(key)]++;
+        if (entries.remove(key) != null) {
+            explicitEvictions.increment();
+        }
+    }
+    
+    public synchronized void invalidateAll() {
+        for (int i = 0; i < generations.length; i++) {
+            generations[i]++;
+        }
+        if (!entries.isEmpty()) {
+            explicitEvictions.increment(entries.size());
+            entries.clear();
+        }
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+    
+    private void evictOverflow() {
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            sizeEvictions.increment();
+        }
+    }
+    
+    private static Counter requestCounter(MeterRegistry registry, String name, String result) {
+        return Counter.builder("content.cache.requests")
+            .tag("cache", name)
+            .tag("result", result)
+            .register(registry);
+    }
+    
+    private static Counter evictionCounter(MeterRegistry registry, String name, String cause) {
+        return Counter.builder("content.cache.evictions")
+            .tag("cache", name)
+            .tag("cause", cause)
+            .register(registry);
+    }
+    
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+        
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+        
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
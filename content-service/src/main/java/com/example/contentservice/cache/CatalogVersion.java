@@ -0,0 +1,73 @@
+package com.example.contentservice.cache;
+
+import com.example.contentservice.event.ContentChangedEvent;
+import com.example.contentservice.model.ContentChangeType;
+import com.example.contentservice.repository.ContentChangeRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Version of the catalog for list ETags, read from the shared change log (content_changes).
+ *
+ * All instances read the same log, so a write on any of them changes the ETags every
+ * instance serves. The latest versions are cached and re-read every refresh-interval-ms,
+ * and right away when a create/update/delete commits on this instance, so list requests
+ * never query for them; a write on another instance reaches the ETags within one interval.
+ *
+ * Two versions are tracked: the latest change of any kind, and the latest change other
+ * than a view. Lists that carry view counts use the first; lists that do not (genres)
+ * use the second, so views never invalidate them.
+ */
+@Component
+public class CatalogVersion {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CatalogVersion.class);
+    
+    private final ContentChangeRepository changeRepository;
+    
+    private volatile long version;
+    private volatile long versionIgnoringViews;
+    
+    public CatalogVersion(ContentChangeRepository changeRepository) {
+        this.changeRepository = changeRepository;
+    }
+    
+    /**
+     * Strong ETag covering every change, view counts included, e.g. "catalog-42".
+     */
+    public String etag() {
+        return "\"catalog-" + version + "\"";
+    }
+    
+    /**
+     * Strong ETag for lists without view counts, e.g. "catalog-content-40".
+     */
+    public String etagIgnoringViews() {
+        return "\"catalog-content-" + versionIgnoringViews + "\"";
+    }
+    
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${content.catalog-version.refresh-interval-ms:1000}")
+    public void refresh() {
+        try {
+            Long latest = changeRepository.findLatestVersion();
+            Long latestIgnoringViews = changeRepository.findLatestNonViewVersion();
+            version = latest != null ? latest : 0L;
+            versionIgnoringViews = latestIgnoringViews != null ? latestIgnoringViews : 0L;
+        } catch (RuntimeException e) {
+            // Keep serving the last known versions; the next refresh retries
+            logger.warn("CatalogVersion: could not read the change log version: {}", e.getMessage());
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        if (event.getChangeType() != ContentChangeType.VIEWED) {
+            refresh();
+        }
+    }
+}
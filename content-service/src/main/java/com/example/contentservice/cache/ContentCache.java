@@ -0,0 +1,66 @@
+package com.example.contentservice.cache;
+
+import com.example.contentservice.dto.ContentResponseDTO;
+import com.example.contentservice.event.ContentChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of ContentResponseDTO per content ID
+ * (hit on every watch event / recommendation, and for every leaderboard entry).
+ *
+ * Most-viewed / top-rated lists are served by ContentLeaderboards, which are
+ * updated in place rather than cached and evicted.
+ *
+ * Entries are evicted after the writing transaction commits (see onContentChanged),
+ * so a rolled-back update never invalidates and a committed one is never missed.
+ * Other instances evict theirs when the change reaches them over the content-events
+ * fanout (see ContentCacheInvalidationConsumer).
+ */
+@Component
+public class ContentCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ContentCache.class);
+    
+    private final BoundedTtlCache<Long, ContentResponseDTO> byId;
+    
+    public ContentCache(MeterRegistry meterRegistry,
+                        @Value("${content.cache.max-size:10000}") int maxSize,
+                        @Value("${content.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.byId = new BoundedTtlCache<>("content.byId", maxSize, ttlSeconds * 1000, meterRegistry);
+        logger.info("ContentCache initialized: byId[maxSize={}, ttl={}s]", maxSize, ttlSeconds);
+    }
+    
+    public ContentResponseDTO getById(Long id, Supplier<ContentResponseDTO> loader) {
+        return byId.get(id, loader);
+    }
+    
+    public void put(ContentResponseDTO content) {
+        byId.put(content.getId(), content);
+    }
+    
+    /**
+     * Evict one entry (changed on another instance)
+     */
+    public void evict(Long id) {
+        byId.invalidate(id);
+    }
+    
+    /**
+     * Evict the changed entry once the change has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        if (event.getContentId() != null) {
+            byId.invalidate(event.getContentId());
+        }
+        logger.debug("ContentCache: evicted entries for {} of content {}",
+            event.getChangeType(), event.getContentId());
+    }
+}
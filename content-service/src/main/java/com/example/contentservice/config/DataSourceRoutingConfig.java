@@ -0,0 +1,94 @@
+package com.example.contentservice.config;
+
+import com.example.contentservice.datasource.ReadYourWritesTracker;
+import com.example.contentservice.datasource.ReplicaRoutingDataSource;
+import com.example.contentservice.service.ContentService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Primary / read-replica routing for Content Service (content.datasource.routing.enabled).
+ * 
+ * Replaces the auto-configured DataSource with a LazyConnectionDataSourceProxy over a
+ * ReplicaRoutingDataSource. The primary pool is spring.datasource; each replica gets its
+ * own Hikari pool with the same spring.datasource.hikari settings. Read-only transactions
+ * of ContentService go to replicas, everything else (writes, Flyway, repository-level
+ * reads) to the primary.
+ * 
+ * When disabled (the default), none of this is created and the single auto-configured
+ * pool is used as before.
+ * 
+ * Startup fails if read-your-writes-window-ms is shorter than max-replica-lag-ms
+ * (see ReadYourWritesTracker).
+ */
+@Configuration
+@ConditionalOnProperty(name = "content.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+public class DataSourceRoutingConfig {
+    
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(DataSourceProperties dataSourceProperties,
+                                                      DataSourceRoutingProperties routingProperties,
+                                                      ReadYourWritesTracker readYourWrites,
+                                                      Environment environment,
+                                                      MeterRegistry meterRegistry) {
+        if (readYourWrites.getWindowMs() < routingProperties.getMaxReplicaLagMs()) {
+            throw new IllegalStateException("content.datasource.routing.read-your-writes-window-ms ("
+                + readYourWrites.getWindowMs() + ") must be at least max-replica-lag-ms ("
+                + routingProperties.getMaxReplicaLagMs() + "), or reads after a write can reach a replica without it");
+        }
+        String username = dataSourceProperties.determineUsername();
+        String password = dataSourceProperties.determinePassword();
+        HikariDataSource primary = pool("content-primary", dataSourceProperties.determineUrl(),
+            username, password, dataSourceProperties, environment, meterRegistry);
+        
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<DataSourceRoutingProperties.Replica> replicaSettings = routingProperties.getReplicas();
+        for (int i = 0; i < replicaSettings.size(); i++) {
+            DataSourceRoutingProperties.Replica replica = replicaSettings.get(i);
+            String name = "content-replica-" + (i + 1);
+            replicas.put(name, pool(name, replica.getUrl(),
+                replica.getUsername() != null ? replica.getUsername() : username,
+                replica.getPassword() != null ? replica.getPassword() : password,
+                dataSourceProperties, environment, meterRegistry));
+        }
+        
+        return new ReplicaRoutingDataSource(primary, replicas, readYourWrites,
+            ContentService.class.getName() + ".", routingProperties.getMaxReplicaLagMs(), meterRegistry);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+    
+    private static HikariDataSource pool(String name, String url, String username, String password,
+                                         DataSourceProperties dataSourceProperties, Environment environment,
+                                         MeterRegistry meterRegistry) {
+        HikariDataSource pool = new HikariDataSource();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        pool.setMetricRegistry(meterRegistry);
+        return pool;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.contentservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * content.datasource.routing.* settings (see DataSourceRoutingConfig)
+ */
+@Data
+@ConfigurationProperties(prefix = "content.datasource.routing")
+public class DataSourceRoutingProperties {
+    
+    private boolean enabled;
+    
+    /**
+     * Replicas must stay this close to the primary to serve reads
+     */
+    private long maxReplicaLagMs = 10000;
+    
+    private List<Replica> replicas = new ArrayList<>();
+    
+    /**
+     * Replica connection; username and password default to spring.datasource's
+     */
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
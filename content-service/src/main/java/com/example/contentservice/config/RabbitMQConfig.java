@@ -1,25 +1,56 @@
 package com.example.contentservice.config;
 
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
  * RabbitMQ Configuration for Content Service.
- * Publishes content events to message queue.
+ * Publishes content events to a fanout exchange; every consuming service binds
+ * its own queue, so each service sees every lifecycle event (a shared queue
+ * would split events between services as competing consumers).
  */
 @Configuration
 public class RabbitMQConfig {
     
-    public static final String CONTENT_EVENTS_QUEUE = "content.events";
+    public static final String CONTENT_EVENTS_EXCHANGE = "content.events.exchange";
     public static final String USER_EVENTS_QUEUE = "user.events";
+    public static final String CONTENT_RATINGS_QUEUE = "content.ratings";
+    public static final String CONTENT_RATINGS_LISTENER_FACTORY = "contentRatingsListenerFactory";
     
     @Bean
-    public Queue contentEventsQueue() {
-        return new Queue(CONTENT_EVENTS_QUEUE, true);
+    public FanoutExchange contentEventsExchange() {
+        return new FanoutExchange(CONTENT_EVENTS_EXCHANGE, true, false);
+    }
+    
+    /**
+     * This instance's own subscription to content events, for evicting its cache when
+     * another instance changes content (see ContentCacheInvalidationConsumer). Server-named,
+     * exclusive and auto-delete: it exists only while the instance is connected, and
+     * nothing is missed that the cache TTL would not cover.
+     */
+    @Bean
+    public AnonymousQueue contentCacheInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+    
+    @Bean
+    public Binding contentCacheInvalidationBinding(AnonymousQueue contentCacheInvalidationQueue,
+                                                   FanoutExchange contentEventsExchange) {
+        return BindingBuilder.bind(contentCacheInvalidationQueue).to(contentEventsExchange);
     }
     
     @Bean
@@ -27,6 +58,44 @@ public class RabbitMQConfig {
         return new Queue(USER_EVENTS_QUEUE, true);
     }
     
+    /**
+     * Rating deltas from Video Service (see ContentRatingAggregator)
+     */
+    @Bean
+    public Queue contentRatingsQueue() {
+        return new Queue(CONTENT_RATINGS_QUEUE, true);
+    }
+    
+    /**
+     * Batch listener for the ratings queue: up to batch-size messages per call, fewer when
+     * the queue goes quiet for receive-timeout-ms. Messages are acknowledged when the
+     * listener returns, i.e. after ContentRatingAggregator committed them. A failing batch
+     * is retried with back-off and then requeued, never rejected: dropping it would lose
+     * those ratings for good.
+     */
+    @Bean(name = CONTENT_RATINGS_LISTENER_FACTORY)
+    public SimpleRabbitListenerContainerFactory contentRatingsListenerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${content.ratings.batch-size:500}") int batchSize,
+            @Value("${content.ratings.receive-timeout-ms:200}") long receiveTimeoutMs) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        factory.setAdviceChain(RetryInterceptorBuilder.stateless()
+            .maxAttempts(3)
+            .backOffOptions(1000, 2.0, 10000)
+            .recoverer((MessageBatchRecoverer) (messages, cause) -> {
+                throw new ImmediateRequeueAmqpException("Rating batch of " + messages.size() + " messages failed", cause);
+            })
+            .build());
+        return factory;
+    }
+    
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
@@ -39,4 +108,3 @@ public class RabbitMQConfig {
         return new Jackson2JsonMessageConverter();
     }
 }
-
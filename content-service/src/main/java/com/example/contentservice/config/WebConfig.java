@@ -0,0 +1,32 @@
+package com.example.contentservice.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Web MVC configuration for Content Service.
+ * 
+ * Adds CBOR (application/cbor) as a compact binary alternative to JSON for
+ * service-to-service calls. Clients opt in with "Accept: application/cbor";
+ * the converter is appended after JSON, so browsers and wildcard Accept headers still get JSON.
+ * The CBOR mapper is built from the same Jackson settings as the JSON one.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    
+    @Autowired
+    private Jackson2ObjectMapperBuilder objectMapperBuilder;
+    
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+            objectMapperBuilder.factory(new CBORFactory()).build()));
+    }
+}
@@ -1,18 +1,42 @@
 package com.example.contentservice.controller;
 
+import com.example.contentservice.cache.CatalogVersion;
+import com.example.contentservice.datasource.ReadYourWritesTracker;
+import com.example.contentservice.dto.BulkImportResultDTO;
+import com.example.contentservice.dto.ContentChangeFeedDTO;
 import com.example.contentservice.dto.ContentCreateDTO;
+import com.example.contentservice.dto.ContentRankDTO;
 import com.example.contentservice.dto.ContentResponseDTO;
 import com.example.contentservice.dto.ContentUpdateDTO;
+import com.example.contentservice.dto.GenreDTO;
+import com.example.contentservice.dto.LeaderboardEntryDTO;
+import com.example.contentservice.dto.RelatedContentDTO;
+import com.example.contentservice.service.ContentBulkImportService;
 import com.example.contentservice.service.ContentService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import jakarta.annotation.PostConstruct;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Content Controller - REST API endpoints for content management
@@ -21,6 +45,21 @@ import java.util.List;
  * Port: 8082
  * 
  * Demonstrates Factory Pattern through content creation endpoint
+ * 
+ * Conditional GET:
+ * - GET /{id} carries a strong ETag derived from the content ID and updatedAt
+ * - list endpoints carry an ETag derived from the shared change-log version
+ *   (CatalogVersion); the genre list ignores views, every other list includes them
+ * - a matching If-None-Match is answered with 304 before any query or serialization
+ * - JSON and CBOR bodies of the same resource carry different ETags (the CBOR one
+ *   ends in -cbor) and every such response has Vary: Accept, so a shared cache
+ *   never hands one format to a client that asked for the other
+ * - bodies under a catalog ETag are read on the primary, never a replica: the version
+ *   comes from the primary's change log, and a lagging replica would let a client cache
+ *   an older list under a newer ETag and keep revalidating it with 304s
+ * 
+ * Full-catalog lists (/, /movies, /series) are streamed from a database cursor
+ * instead of being built in memory; responses are gzip-compressed (server.compression).
  */
 @RestController
 @RequestMapping("/api/content")
@@ -32,6 +71,34 @@ public class ContentController {
     @Autowired
     private ContentService contentService;
     
+    @Autowired
+    private ContentBulkImportService bulkImportService;
+    
+    @Autowired
+    private CatalogVersion catalogVersion;
+    
+    @Autowired
+    private ReadYourWritesTracker readYourWrites;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private ObjectMapper cborMapper;
+    
+    @Value("${content.changes.max-page-size:1000}")
+    private int maxChangePageSize;
+    
+    @Value("${content.leaderboard.max-size:1000}")
+    private int maxLeaderboardSize;
+    
+    @Value("${content.related.max-size:50}")
+    private int maxRelatedSize;
+    
+    @PostConstruct
+    void initCborMapper() {
+        cborMapper = objectMapper.copyWith(new CBORFactory());
+    }
+    
     /**
      * Health check endpoint
      * GET /api/content/health
@@ -80,48 +147,78 @@ public class ContentController {
         return new ResponseEntity<>(content, HttpStatus.CREATED);
     }
     
+    /**
+     * Bulk import content
+     * POST /api/content/bulk
+     * 
+     * Body is either a JSON array of ContentCreateDTO objects (application/json)
+     * or one object per line (application/x-ndjson). The body is streamed, so
+     * very large imports do not have to fit in memory.
+     * 
+     * Response: 200 OK with BulkImportResultDTO (imported/failed counts, rows/sec, errors)
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkImportResultDTO> bulkImport(InputStream body) throws IOException {
+        logger.info("POST /api/content/bulk");
+        BulkImportResultDTO result = bulkImportService.importContent(body);
+        return ResponseEntity.ok(result);
+    }
+    
+    /**
+     * Catalog change feed for downstream replicas
+     * GET /api/content/changes?since={version}&limit={n}
+     * 
+     * Start with since=0 for a full sync, then keep passing the returned nextSince.
+     * Each page holds compact, coalesced deltas (see ContentService.getChangesSince).
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ContentChangeFeedDTO> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit) {
+        logger.info("GET /api/content/changes?since={}&limit={}", since, limit);
+        int effectiveLimit = Math.max(1, Math.min(limit, maxChangePageSize));
+        return ResponseEntity.ok(contentService.getChangesSince(since, effectiveLimit));
+    }
+    
     /**
      * Get content by ID
      * GET /api/content/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ContentResponseDTO> getContentById(@PathVariable Long id) {
+    public ResponseEntity<ContentResponseDTO> getContentById(@PathVariable Long id, WebRequest request) {
         logger.info("GET /api/content/{}", id);
         ContentResponseDTO content = contentService.getContentById(id);
-        return ResponseEntity.ok(content);
+        return negotiatedResponse(request, contentEtag(content.getId(), content.getUpdatedAt()), () -> content);
     }
     
     /**
-     * Get all content
+     * Get all content (streamed)
      * GET /api/content
      */
     @GetMapping
-    public ResponseEntity<List<ContentResponseDTO>> getAllContent() {
+    public ResponseEntity<StreamingResponseBody> getAllContent(WebRequest request) {
         logger.info("GET /api/content");
-        List<ContentResponseDTO> content = contentService.getAllContent();
-        return ResponseEntity.ok(content);
+        return streamingCatalogResponse(request, null);
     }
     
     /**
-     * Get all movies
+     * Get all movies (streamed)
      * GET /api/content/movies
      */
     @GetMapping("/movies")
-    public ResponseEntity<List<ContentResponseDTO>> getAllMovies() {
+    public ResponseEntity<StreamingResponseBody> getAllMovies(WebRequest request) {
         logger.info("GET /api/content/movies");
-        List<ContentResponseDTO> movies = contentService.getAllMovies();
-        return ResponseEntity.ok(movies);
+        return streamingCatalogResponse(request, "MOVIE");
     }
     
     /**
-     * Get all TV series
+     * Get all TV series (streamed)
      * GET /api/content/series
      */
     @GetMapping("/series")
-    public ResponseEntity<List<ContentResponseDTO>> getAllTVSeries() {
+    public ResponseEntity<StreamingResponseBody> getAllTVSeries(WebRequest request) {
         logger.info("GET /api/content/series");
-        List<ContentResponseDTO> series = contentService.getAllTVSeries();
-        return ResponseEntity.ok(series);
+        return streamingCatalogResponse(request, "TV_SERIES");
     }
     
     /**
@@ -129,10 +226,9 @@ public class ContentController {
      * GET /api/content/search?title={title}
      */
     @GetMapping("/search")
-    public ResponseEntity<List<ContentResponseDTO>> searchContent(@RequestParam String title) {
+    public ResponseEntity<List<ContentResponseDTO>> searchContent(@RequestParam String title, WebRequest request) {
         logger.info("GET /api/content/search?title={}", title);
-        List<ContentResponseDTO> content = contentService.searchByTitle(title);
-        return ResponseEntity.ok(content);
+        return catalogResponse(request, () -> contentService.searchByTitle(title));
     }
     
     /**
@@ -140,33 +236,101 @@ public class ContentController {
      * GET /api/content/genre/{genre}
      */
     @GetMapping("/genre/{genre}")
-    public ResponseEntity<List<ContentResponseDTO>> getByGenre(@PathVariable String genre) {
+    public ResponseEntity<List<ContentResponseDTO>> getByGenre(@PathVariable String genre, WebRequest request) {
         logger.info("GET /api/content/genre/{}", genre);
-        List<ContentResponseDTO> content = contentService.getByGenre(genre);
-        return ResponseEntity.ok(content);
+        return catalogResponse(request, () -> contentService.getByGenre(genre));
+    }
+    
+    /**
+     * Get content by genre dictionary ID
+     * GET /api/content/genres/{genreId}/content
+     */
+    @GetMapping("/genres/{genreId}/content")
+    public ResponseEntity<List<ContentResponseDTO>> getByGenreId(@PathVariable Integer genreId, WebRequest request) {
+        logger.info("GET /api/content/genres/{}/content", genreId);
+        return catalogResponse(request, () -> contentService.getByGenreId(genreId));
+    }
+    
+    /**
+     * Get the genre dictionary (ID and canonical name of every genre)
+     * GET /api/content/genres
+     */
+    @GetMapping("/genres")
+    public ResponseEntity<List<GenreDTO>> getGenres(WebRequest request) {
+        logger.info("GET /api/content/genres");
+        return catalogResponse(request, catalogVersion.etagIgnoringViews(), contentService::getGenres);
     }
     
     /**
-     * Get top-rated content
-     * GET /api/content/top-rated?minRating={rating}
+     * Get top-rated content, highest rating first
+     * GET /api/content/top-rated?minRating={rating}&limit={n}
      */
     @GetMapping("/top-rated")
     public ResponseEntity<List<ContentResponseDTO>> getTopRated(
-            @RequestParam(defaultValue = "7.0") Double minRating) {
-        logger.info("GET /api/content/top-rated?minRating={}", minRating);
-        List<ContentResponseDTO> content = contentService.getTopRated(minRating);
-        return ResponseEntity.ok(content);
+            @RequestParam(defaultValue = "7.0") Double minRating,
+            @RequestParam(defaultValue = "100") int limit,
+            WebRequest request) {
+        logger.info("GET /api/content/top-rated?minRating={}&limit={}", minRating, limit);
+        int effectiveLimit = clampLeaderboardLimit(limit);
+        return catalogResponse(request, () -> contentService.getTopRated(minRating, effectiveLimit));
     }
     
     /**
      * Get most-viewed content
-     * GET /api/content/most-viewed
+     * GET /api/content/most-viewed?limit={n}
      */
     @GetMapping("/most-viewed")
-    public ResponseEntity<List<ContentResponseDTO>> getMostViewed() {
-        logger.info("GET /api/content/most-viewed");
-        List<ContentResponseDTO> content = contentService.getMostViewed();
-        return ResponseEntity.ok(content);
+    public ResponseEntity<List<ContentResponseDTO>> getMostViewed(
+            @RequestParam(defaultValue = "10") int limit, WebRequest request) {
+        logger.info("GET /api/content/most-viewed?limit={}", limit);
+        int effectiveLimit = clampLeaderboardLimit(limit);
+        return catalogResponse(request, () -> contentService.getMostViewed(effectiveLimit));
+    }
+    
+    /**
+     * Get a leaderboard, optionally narrowed to a type and/or genre
+     * GET /api/content/leaderboard/{metric}?type={type}&genre={genre}&limit={n}
+     * 
+     * metric is "views" or "rating"
+     */
+    @GetMapping("/leaderboard/{metric}")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getLeaderboard(
+            @PathVariable String metric,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String genre,
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest request) {
+        logger.info("GET /api/content/leaderboard/{}?type={}&genre={}&limit={}", metric, type, genre, limit);
+        int effectiveLimit = clampLeaderboardLimit(limit);
+        return catalogResponse(request, () -> contentService.getLeaderboard(metric, type, genre, effectiveLimit));
+    }
+    
+    /**
+     * Get the rank of content in a leaderboard
+     * GET /api/content/{id}/rank?metric={metric}&type={type}&genre={genre}
+     */
+    @GetMapping("/{id}/rank")
+    public ResponseEntity<ContentRankDTO> getRank(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "views") String metric,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String genre) {
+        logger.info("GET /api/content/{}/rank?metric={}&type={}&genre={}", id, metric, type, genre);
+        return ResponseEntity.ok(contentService.getRank(id, metric, type, genre));
+    }
+    
+    /**
+     * Get titles related to a content item, best match first
+     * GET /api/content/{id}/related?limit={n}
+     */
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<RelatedContentDTO>> getRelated(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest request) {
+        logger.info("GET /api/content/{}/related?limit={}", id, limit);
+        int effectiveLimit = Math.max(1, Math.min(limit, maxRelatedSize));
+        return catalogResponse(request, () -> contentService.getRelated(id, effectiveLimit));
     }
     
     /**
@@ -203,4 +367,113 @@ public class ContentController {
         contentService.deleteContent(id);
         return ResponseEntity.noContent().build();
     }
+    
+    /**
+     * Build a list response guarded by the catalog-version ETag.
+     * The version is read before the query runs and the query runs on the primary,
+     * so a concurrent write can only make the ETag older than the body (forcing a
+     * refetch), never newer.
+     */
+    private <T> ResponseEntity<T> catalogResponse(WebRequest request, Supplier<T> body) {
+        return catalogResponse(request, catalogVersion.etag(), body);
+    }
+    
+    private <T> ResponseEntity<T> catalogResponse(WebRequest request, String etag, Supplier<T> body) {
+        return negotiatedResponse(request, etag, () -> readYourWrites.onPrimary(body));
+    }
+    
+    /**
+     * Response in the format the client prefers (see prefersCbor), with the ETag of that
+     * representation; the body is only built when If-None-Match does not match.
+     * The content type is set explicitly so the converter picked always agrees with the ETag.
+     */
+    private <T> ResponseEntity<T> negotiatedResponse(WebRequest request, String etag, Supplier<T> body) {
+        boolean cbor = prefersCbor(request.getHeader(HttpHeaders.ACCEPT));
+        String representationEtag = representationEtag(etag, cbor);
+        if (request.checkNotModified(representationEtag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(representationEtag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+        }
+        return ResponseEntity.ok()
+            .eTag(representationEtag)
+            .varyBy(HttpHeaders.ACCEPT)
+            .contentType(cbor ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON)
+            .body(body.get());
+    }
+    
+    /**
+     * Full-catalog list written from a database cursor as it is read
+     * (see ContentService.writeContentList) on the primary, under the same catalog ETag.
+     * 
+     * The body is produced on an async request thread, so the controller thread
+     * is released immediately. JSON by default; CBOR when the client lists
+     * application/cbor ahead of JSON in Accept.
+     */
+    private ResponseEntity<StreamingResponseBody> streamingCatalogResponse(WebRequest request, String type) {
+        boolean cbor = prefersCbor(request.getHeader(HttpHeaders.ACCEPT));
+        String etag = representationEtag(catalogVersion.etag(), cbor);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        ObjectMapper mapper = cbor ? cborMapper : objectMapper;
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = mapper.createGenerator(out)) {
+                // Pinned on the async thread that runs the query
+                readYourWrites.onPrimary(() -> writeContentList(type, generator));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .varyBy(HttpHeaders.ACCEPT)
+            .contentType(cbor ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON)
+            .body(body);
+    }
+    
+    private long writeContentList(String type, JsonGenerator generator) {
+        try {
+            return contentService.writeContentList(type, generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * True if application/cbor appears in Accept before any type JSON would satisfy
+     */
+    private static boolean prefersCbor(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+            if (MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(mediaType)) {
+                return true;
+            }
+            if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * ETag of the CBOR representation: the JSON ETag with -cbor appended inside the quotes
+     */
+    private static String representationEtag(String etag, boolean cbor) {
+        return cbor ? etag.substring(0, etag.length() - 1) + "-cbor\"" : etag;
+    }
+    
+    private int clampLeaderboardLimit(int limit) {
+        return Math.max(1, Math.min(limit, maxLeaderboardSize));
+    }
+    
+    /**
+     * Strong ETag for a single content item, e.g. "42-1718000000.123000000".
+     */
+    private static String contentEtag(Long id, LocalDateTime updatedAt) {
+        return "\"" + id + "-" + updatedAt.toEpochSecond(ZoneOffset.UTC) + "." + updatedAt.getNano() + "\"";
+    }
 }
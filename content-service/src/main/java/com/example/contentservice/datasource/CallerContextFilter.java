@@ -0,0 +1,32 @@
+package com.example.contentservice.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the calling client to the request thread for ReadYourWritesTracker.
+ * Clients behind a shared address (gateway, other services) should send X-Caller-Id.
+ */
+@Component
+public class CallerContextFilter extends OncePerRequestFilter {
+    
+    public static final String CALLER_HEADER = "X-Caller-Id";
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String caller = request.getHeader(CALLER_HEADER);
+        ReadYourWritesTracker.bindCaller(caller != null && !caller.isBlank() ? caller : request.getRemoteAddr());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWritesTracker.clearCaller();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.contentservice.datasource;
+
+import com.example.contentservice.event.ContentChangedEvent;
+import com.example.contentservice.model.ContentChangeType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Remembers recent writes so reads that must observe them skip the replicas.
+ * 
+ * Two scopes, both expiring after read-your-writes-window-ms:
+ * - per caller: after a caller's create/update/delete commits, that caller's reads
+ *   go to the primary (caller = X-Caller-Id header, else remote address; bound by
+ *   CallerContextFilter)
+ * - per content ID: lets ContentService re-load a just-changed item from the
+ *   primary, so a stale replica row is never put back into the cache
+ * 
+ * A replica still serves reads while it is up to max-replica-lag-ms behind, so the
+ * window defaults to that lag, and DataSourceRoutingConfig refuses a shorter one. With a
+ * shorter window, a read could reach a replica that has not replayed the write yet, and
+ * ContentCache would keep the stale row for its whole TTL.
+ * 
+ * View-count changes are not tracked; slightly stale view counts are acceptable
+ * and tracking them would pin most traffic to the primary.
+ */
+@Component
+public class ReadYourWritesTracker {
+    
+    private static final ThreadLocal<String> CURRENT_CALLER = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+    
+    private final Map<String, Long> callerWrites = new ConcurrentHashMap<>();
+    private final Map<Long, Long> contentWrites = new ConcurrentHashMap<>();
+    private final long windowMs;
+    
+    public ReadYourWritesTracker(
+            @Value("${content.datasource.routing.read-your-writes-window-ms:${content.datasource.routing.max-replica-lag-ms:10000}}")
+            long windowMs) {
+        this.windowMs = windowMs;
+    }
+    
+    public long getWindowMs() {
+        return windowMs;
+    }
+    
+    public static void bindCaller(String caller) {
+        CURRENT_CALLER.set(caller);
+    }
+    
+    public static void clearCaller() {
+        CURRENT_CALLER.remove();
+    }
+    
+    /**
+     * Whether reads on this thread must go to the primary right now
+     */
+    public boolean primaryRequired() {
+        if (Boolean.TRUE.equals(PINNED_TO_PRIMARY.get())) {
+            return true;
+        }
+        String caller = CURRENT_CALLER.get();
+        return caller != null && withinWindow(callerWrites.get(caller));
+    }
+    
+    public boolean recentlyWritten(Long contentId) {
+        return contentId != null && withinWindow(contentWrites.get(contentId));
+    }
+    
+    /**
+     * Run a read on the primary (must start before the transaction's first statement)
+     */
+    public <T> T onPrimary(Supplier<T> read) {
+        Boolean previous = PINNED_TO_PRIMARY.get();
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                PINNED_TO_PRIMARY.remove();
+            } else {
+                PINNED_TO_PRIMARY.set(previous);
+            }
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        if (event.getChangeType() == ContentChangeType.VIEWED) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        String caller = CURRENT_CALLER.get();
+        if (caller != null) {
+            callerWrites.put(caller, now);
+        }
+        if (event.getContentId() != null) {
+            contentWrites.put(event.getContentId(), now);
+        }
+    }
+    
+    @Scheduled(fixedDelayString =
+        "${content.datasource.routing.read-your-writes-window-ms:${content.datasource.routing.max-replica-lag-ms:10000}}")
+    public void purgeExpired() {
+        callerWrites.values().removeIf(writtenAt -> !withinWindow(writtenAt));
+        contentWrites.values().removeIf(writtenAt -> !withinWindow(writtenAt));
+    }
+    
+    private boolean withinWindow(Long writtenAt) {
+        return writtenAt != null && System.currentTimeMillis() - writtenAt < windowMs;
+    }
+}
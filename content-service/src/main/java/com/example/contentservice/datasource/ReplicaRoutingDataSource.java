@@ -0,0 +1,176 @@
+package com.example.contentservice.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes each transaction's connection to the primary or to a read replica.
+ *
+ * A connection goes to a replica only when all of these hold:
+ * - the transaction is read-only
+ * - it was started by a method whose name starts with replicaTransactionPrefix
+ *   (ContentService); read-only transactions opened by repositories themselves,
+ *   e.g. leaderboard refreshes right after a commit, stay on the primary
+ * - ReadYourWritesTracker does not require the primary for this thread
+ * - the replica's last measured lag is within maxLagMs (a replica is unused until its
+ *   first lag check, which runs right after startup)
+ *
+ * Replicas are used round-robin; if none qualifies the primary serves the read.
+ * Must be wrapped in a LazyConnectionDataSourceProxy: the transaction's read-only
+ * flag and name are only known after the transaction manager asks for a connection.
+ *
+ * Metrics: content.datasource.routed (per pool) and content.datasource.replica.lag;
+ * each Hikari pool reports hikaricp.connections.acquire / usage under its pool name.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    
+    public static final String PRIMARY = "primary";
+    
+    // 0 on a primary (or any server not replaying WAL)
+    private static final String LAG_QUERY =
+        "SELECT CASE WHEN pg_is_in_recovery() " +
+        "THEN COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0) " +
+        "ELSE 0 END";
+    
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final ReadYourWritesTracker readYourWrites;
+    private final String replicaTransactionPrefix;
+    private final long maxLagMs;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<String, Counter> routed = new HashMap<>();
+    
+    /**
+     * @param replicas Replica pools by name, in round-robin order
+     */
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    Map<String, DataSource> replicas,
+                                    ReadYourWritesTracker readYourWrites,
+                                    String replicaTransactionPrefix,
+                                    long maxLagMs,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.readYourWrites = readYourWrites;
+        this.replicaTransactionPrefix = replicaTransactionPrefix;
+        this.maxLagMs = maxLagMs;
+        
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        routed.put(PRIMARY, routedCounter(meterRegistry, PRIMARY));
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            targets.put(name, dataSource);
+            routed.put(name, routedCounter(meterRegistry, name));
+            Gauge.builder("content.datasource.replica.lag", replica, r -> r.lagMs)
+                .tag("pool", name)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        });
+        
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String key = selectTarget();
+        routed.get(key).increment();
+        return key;
+    }
+    
+    private String selectTarget() {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        String transactionName = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (transactionName == null || !transactionName.startsWith(replicaTransactionPrefix)) {
+            return PRIMARY;
+        }
+        if (readYourWrites.primaryRequired()) {
+            return PRIMARY;
+        }
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica candidate = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+            if (candidate.lagMs <= maxLagMs) {
+                return candidate.name;
+            }
+        }
+        return PRIMARY;
+    }
+    
+    /**
+     * Measure every replica's replay lag; an unreachable replica counts as infinitely behind
+     */
+    @Scheduled(fixedDelayString = "${content.datasource.routing.lag-check-interval-ms:5000}")
+    public void checkReplicaLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                resultSet.next();
+                replica.lagMs = resultSet.getDouble(1);
+            } catch (SQLException e) {
+                replica.lagMs = Double.POSITIVE_INFINITY;
+                logger.warn("Replica {} lag check failed, taking it out of rotation: {}", replica.name, e.getMessage());
+                continue;
+            }
+            if (replica.lagMs > maxLagMs) {
+                logger.warn("Replica {} is {} ms behind (max {} ms), reads go elsewhere", replica.name,
+                    Math.round(replica.lagMs), maxLagMs);
+            }
+        }
+    }
+    
+    @Override
+    public void destroy() throws Exception {
+        close(primary);
+        for (Replica replica : replicas) {
+            close(replica.dataSource);
+        }
+    }
+    
+    private static void close(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+    
+    private static Counter routedCounter(MeterRegistry meterRegistry, String pool) {
+        return Counter.builder("content.datasource.routed").tag("pool", pool).register(meterRegistry);
+    }
+    
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        // Unknown (NaN) until measured; NaN is never within maxLagMs
+        private volatile double lagMs = Double.NaN;
+        
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.contentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO describing why one item of a bulk import was rejected
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportErrorDTO {
+    
+    private long index; // Zero-based position of the item in the request body
+    private String message;
+}
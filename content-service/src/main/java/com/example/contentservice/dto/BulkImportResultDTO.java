@@ -0,0 +1,27 @@
+package com.example.contentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for bulk import responses
+ * Summarizes how many items were imported and how fast
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkImportResultDTO {
+    
+    private long received;
+    private long imported;
+    private long failed;
+    private boolean aborted; // True if the body was malformed and parsing stopped early
+    private long elapsedMs;
+    private double rowsPerSecond;
+    private List<BulkImportErrorDTO> errors; // Capped at content.bulk.max-reported-errors
+}
@@ -0,0 +1,26 @@
+package com.example.contentservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one entry of the catalog change feed
+ * 
+ * - CREATED / UPDATED / VIEWED: content holds the current state and viewCount
+ *   the current view count, so every entry is enough to (re)build the title
+ * - DELETED: only contentId is set
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ContentChangeDTO {
+    
+    private Long version;
+    private Long contentId;
+    private String changeType; // "CREATED", "UPDATED", "VIEWED" or "DELETED"
+    private Long viewCount;
+    private ContentResponseDTO content;
+}
@@ -0,0 +1,22 @@
+package com.example.contentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a page of the catalog change feed
+ * Replicas pass nextSince as the next "since" until hasMore is false
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentChangeFeedDTO {
+    
+    private long since;
+    private long nextSince;
+    private boolean hasMore;
+    private List<ContentChangeDTO> changes;
+}
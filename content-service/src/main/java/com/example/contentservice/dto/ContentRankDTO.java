@@ -0,0 +1,21 @@
+package com.example.contentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the rank of one content item within a leaderboard scope
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentRankDTO {
+    
+    private Long contentId;
+    private String metric; // "VIEWS" or "RATING"
+    private String scope;  // e.g. "all", "type:MOVIE", "genre:drama"
+    private int rank;
+    private double score;
+    private int total;
+}
@@ -22,8 +22,10 @@ public class ContentResponseDTO {
     private String title;
     private String description;
     private String genre;
+    private Integer genreId;
     private Integer releaseYear;
     private Double rating;
+    private Long ratingCount;
     private Long viewCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -29,6 +29,7 @@ public class ContentUpdateDTO {
     @Max(value = 2100, message = "Release year must be before 2100")
     private Integer releaseYear;
     
+    // Rejected (400) once users have rated the title; the rating is then derived from theirs
     @Min(value = 0, message = "Rating cannot be negative")
     @Max(value = 10, message = "Rating cannot exceed 10")
     private Double rating;
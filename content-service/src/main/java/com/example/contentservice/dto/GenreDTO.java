@@ -0,0 +1,17 @@
+package com.example.contentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a genre dictionary entry
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenreDTO {
+    
+    private Integer id;
+    private String name;
+}
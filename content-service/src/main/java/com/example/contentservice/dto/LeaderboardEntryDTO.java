@@ -0,0 +1,18 @@
+package com.example.contentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one leaderboard position
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryDTO {
+    
+    private int rank;
+    private double score;
+    private ContentResponseDTO content;
+}
@@ -0,0 +1,21 @@
+package com.example.contentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for one related title
+ * matchedOn lists the shared features: "genre", "director", "era"
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatedContentDTO {
+    
+    private double score;
+    private List<String> matchedOn;
+    private ContentResponseDTO content;
+}
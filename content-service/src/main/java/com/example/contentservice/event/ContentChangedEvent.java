@@ -0,0 +1,47 @@
+package com.example.contentservice.event;
+
+import com.example.contentservice.model.Content;
+import com.example.contentservice.model.ContentChangeType;
+import com.example.contentservice.model.Movie;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Application event published by ContentService whenever a content row changes.
+ *
+ * Listeners use @TransactionalEventListener so they only react once the
+ * surrounding transaction has committed (never for rolled-back writes).
+ *
+ * CREATED and UPDATED events also carry the row's state after the change (see
+ * forContent), so listeners such as RelatedContentIndex need not read it back;
+ * VIEWED and DELETED events carry only the ID.
+ */
+@Data
+@AllArgsConstructor
+public class ContentChangedEvent {
+    
+    private Long contentId;
+    private ContentChangeType changeType;
+    private String contentType;
+    private String genre;
+    private String director; // movies only
+    private Integer releaseYear;
+    private Double rating;
+    
+    public ContentChangedEvent(Long contentId, ContentChangeType changeType) {
+        this(contentId, changeType, null, null, null, null, null);
+    }
+    
+    public static ContentChangedEvent forContent(Content content, ContentChangeType changeType) {
+        String director = content instanceof Movie movie ? movie.getDirector() : null;
+        return new ContentChangedEvent(content.getId(), changeType, content.getContentType(), content.getGenre(),
+            director, content.getReleaseYear(), content.getRating());
+    }
+    
+    /**
+     * Whether the event carries the row's state (CREATED and UPDATED)
+     */
+    public boolean hasContent() {
+        return contentType != null;
+    }
+}
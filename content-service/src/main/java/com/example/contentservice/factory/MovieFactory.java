@@ -4,8 +4,10 @@ import com.example.contentservice.dto.ContentCreateDTO;
 import com.example.contentservice.exception.ContentValidationException;
 import com.example.contentservice.model.Content;
 import com.example.contentservice.model.Movie;
+import com.example.contentservice.service.GenreDictionary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
@@ -18,6 +20,8 @@ import org.springframework.stereotype.Component;
  * - Encapsulates Movie creation logic
  * - Ensures all Movies are created consistently
  * 
+ * Genres are normalized through GenreDictionary, so equivalent spellings share one genre ID.
+ * 
  * Used by ContentService through dependency injection with @Qualifier("movieFactory")
  */
 @Component("movieFactory")
@@ -25,6 +29,9 @@ public class MovieFactory implements ContentFactory {
     
     private static final Logger logger = LoggerFactory.getLogger(MovieFactory.class);
     
+    @Autowired
+    private GenreDictionary genreDictionary;
+    
     /**
      * Creates a Movie object from the request DTO
      * 
@@ -55,7 +62,7 @@ public class MovieFactory implements ContentFactory {
         Movie movie = new Movie();
         movie.setTitle(request.getTitle());
         movie.setDescription(request.getDescription());
-        movie.setGenre(request.getGenre());
+        movie.assignGenre(genreDictionary.intern(request.getGenre()));
         movie.setReleaseYear(request.getReleaseYear());
         movie.setDuration(request.getDuration());
         movie.setDirector(request.getDirector());
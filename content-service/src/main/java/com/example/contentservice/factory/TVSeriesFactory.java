@@ -4,8 +4,10 @@ import com.example.contentservice.dto.ContentCreateDTO;
 import com.example.contentservice.exception.ContentValidationException;
 import com.example.contentservice.model.Content;
 import com.example.contentservice.model.TVSeries;
+import com.example.contentservice.service.GenreDictionary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
@@ -18,6 +20,8 @@ import org.springframework.stereotype.Component;
  * - Encapsulates TVSeries creation logic
  * - Ensures all TV Series are created consistently
  * 
+ * Genres are normalized through GenreDictionary, so equivalent spellings share one genre ID.
+ * 
  * Used by ContentService through dependency injection with @Qualifier("tvSeriesFactory")
  */
 @Component("tvSeriesFactory")
@@ -25,6 +29,9 @@ public class TVSeriesFactory implements ContentFactory {
     
     private static final Logger logger = LoggerFactory.getLogger(TVSeriesFactory.class);
     
+    @Autowired
+    private GenreDictionary genreDictionary;
+    
     /**
      * Creates a TVSeries object from the request DTO
      * 
@@ -56,7 +63,7 @@ public class TVSeriesFactory implements ContentFactory {
         TVSeries series = new TVSeries();
         series.setTitle(request.getTitle());
         series.setDescription(request.getDescription());
-        series.setGenre(request.getGenre());
+        series.assignGenre(genreDictionary.intern(request.getGenre()));
         series.setReleaseYear(request.getReleaseYear());
         series.setSeasons(request.getSeasons());
         series.setEpisodesPerSeason(request.getEpisodesPerSeason());
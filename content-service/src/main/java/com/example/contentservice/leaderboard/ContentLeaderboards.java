@@ -0,0 +1,347 @@
+package com.example.contentservice.leaderboard;
+
+import com.example.contentservice.event.ContentChangedEvent;
+import com.example.contentservice.model.ContentChangeType;
+import com.example.contentservice.repository.ContentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory "most viewed" and "top rated" leaderboards.
+ * 
+ * Every content item is ranked in four scopes per metric: the whole catalog,
+ * its type, its genre, and its type + genre. Each scope is a RankedIndex, so
+ * top-N and rank lookups cost O(log n) instead of a sort over the content table.
+ * 
+ * Lifecycle:
+ * - built from a narrow projection of the content table once the app is ready
+ * - kept current by committed ContentChangedEvents: deletes are applied at once, other
+ *   changes mark the item, and every refresh-interval-ms the marked items are re-read
+ *   in one query, so a burst of views on a title costs one row read, not one per view
+ * - rebuilt periodically as a safety net; changes that commit while a rebuild
+ *   is loading are re-applied on top of the new snapshot
+ * 
+ * Until the first build completes, isReady() is false and callers fall back
+ * to the database.
+ */
+@Component
+public class ContentLeaderboards {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ContentLeaderboards.class);
+    
+    private static final String ALL = "all";
+    
+    // IDs per re-read query
+    private static final int REFRESH_CHUNK_SIZE = 500;
+    
+    @Autowired
+    private ContentRepository contentRepository;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<LeaderboardMetric, Map<String, RankedIndex>> boards = emptyBoards();
+    private Map<Long, Member> members = new HashMap<>();
+    private volatile boolean ready;
+    
+    private final Object rebuildMonitor = new Object();
+    private volatile boolean rebuilding;
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    
+    // Changed items waiting for the next refreshChanged()
+    private final Set<Long> pendingRefresh = ConcurrentHashMap.newKeySet();
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * Scope key for the given filters; both are optional
+     */
+    public static String scope(String type, String genre) {
+        String normalizedType = type == null || type.isBlank() ? null : type.trim().toUpperCase(Locale.ROOT);
+        String normalizedGenre = genre == null || genre.isBlank() ? null : genre.trim().toLowerCase(Locale.ROOT);
+        if (normalizedType != null && normalizedGenre != null) {
+            return "type:" + normalizedType + "|genre:" + normalizedGenre;
+        }
+        if (normalizedType != null) {
+            return "type:" + normalizedType;
+        }
+        if (normalizedGenre != null) {
+            return "genre:" + normalizedGenre;
+        }
+        return ALL;
+    }
+    
+    /**
+     * Top n entries of a scope in rank order
+     */
+    public List<RankedIndex.Entry> top(LeaderboardMetric metric, String scope, int n) {
+        lock.readLock().lock();
+        try {
+            RankedIndex index = boards.get(metric).get(scope);
+            return index == null ? Collections.emptyList() : index.top(n);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Entries of a scope scoring at least minScore, in rank order (at most limit)
+     */
+    public List<RankedIndex.Entry> atLeast(LeaderboardMetric metric, String scope, double minScore, int limit) {
+        lock.readLock().lock();
+        try {
+            RankedIndex index = boards.get(metric).get(scope);
+            if (index == null) {
+                return Collections.emptyList();
+            }
+            return index.top(Math.min(limit, index.countAtLeast(minScore)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Rank of a content item within a scope
+     * 
+     * @return Rank position, or null if the content is not ranked in that scope
+     */
+    public RankPosition rank(LeaderboardMetric metric, String scope, long contentId) {
+        lock.readLock().lock();
+        try {
+            RankedIndex index = boards.get(metric).get(scope);
+            if (index == null || !index.contains(contentId)) {
+                return null;
+            }
+            return new RankPosition(index.rank(contentId), index.score(contentId), index.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+    
+    @Scheduled(fixedDelayString = "${content.leaderboard.rebuild-interval-ms:900000}",
+               initialDelayString = "${content.leaderboard.rebuild-interval-ms:900000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+    
+    /**
+     * Rebuild every leaderboard from the database and swap it in
+     */
+    public void rebuild() {
+        synchronized (rebuildMonitor) {
+            long start = System.currentTimeMillis();
+            changedDuringRebuild.clear();
+            rebuilding = true;
+            try {
+                Map<LeaderboardMetric, Map<String, RankedIndex>> newBoards = emptyBoards();
+                Map<Long, Member> newMembers = new HashMap<>();
+                for (Object[] row : contentRepository.findLeaderboardRows()) {
+                    Member member = Member.fromRow(row);
+                    newMembers.put(member.contentId, member);
+                    place(newBoards, member);
+                }
+                
+                lock.writeLock().lock();
+                try {
+                    boards = newBoards;
+                    members = newMembers;
+                    ready = true;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } finally {
+                rebuilding = false;
+            }
+            
+            // The snapshot may predate these commits; re-read them with the next refresh
+            pendingRefresh.addAll(changedDuringRebuild);
+            logger.info("ContentLeaderboards: rebuilt {} items in {} ms",
+                members.size(), System.currentTimeMillis() - start);
+        }
+    }
+    
+    /**
+     * Apply a committed change: drop a deleted item now, re-rank anything else with the next refresh
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        Long contentId = event.getContentId();
+        if (contentId == null) {
+            return;
+        }
+        if (rebuilding) {
+            changedDuringRebuild.add(contentId);
+        }
+        if (event.getChangeType() == ContentChangeType.DELETED) {
+            apply(contentId, null);
+        }
+        // Also for deletes: the re-read finds no row and undoes a refresh that raced the delete
+        pendingRefresh.add(contentId);
+    }
+    
+    /**
+     * Re-read the scores of the items changed since the last run and re-rank them
+     */
+    @Scheduled(fixedDelayString = "${content.leaderboard.refresh-interval-ms:1000}")
+    public void refreshChanged() {
+        if (pendingRefresh.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(pendingRefresh);
+        pendingRefresh.removeAll(ids);
+        try {
+            for (int from = 0; from < ids.size(); from += REFRESH_CHUNK_SIZE) {
+                refresh(ids.subList(from, Math.min(from + REFRESH_CHUNK_SIZE, ids.size())));
+            }
+        } catch (RuntimeException e) {
+            pendingRefresh.addAll(ids);
+            logger.warn("ContentLeaderboards: refresh of {} changed items failed, will retry: {}",
+                ids.size(), e.getMessage());
+        }
+    }
+    
+    private void refresh(List<Long> contentIds) {
+        Map<Long, Member> current = new HashMap<>();
+        for (Object[] row : contentRepository.findLeaderboardRows(contentIds)) {
+            Member member = Member.fromRow(row);
+            current.put(member.contentId, member);
+        }
+        // IDs without a row were deleted
+        for (Long contentId : contentIds) {
+            apply(contentId, current.get(contentId));
+        }
+    }
+    
+    /**
+     * Move an item to its new placement (null removes it)
+     */
+    private void apply(Long contentId, Member member) {
+        lock.writeLock().lock();
+        try {
+            Member previous = member == null ? members.remove(contentId) : members.put(contentId, member);
+            if (previous != null) {
+                for (String scope : previous.scopes()) {
+                    if (member == null || !member.scopes().contains(scope)) {
+                        for (Map<String, RankedIndex> board : boards.values()) {
+                            RankedIndex index = board.get(scope);
+                            if (index != null) {
+                                index.remove(contentId);
+                            }
+                        }
+                    }
+                }
+            }
+            if (member != null) {
+                place(boards, member);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private static void place(Map<LeaderboardMetric, Map<String, RankedIndex>> target, Member member) {
+        for (String scope : member.scopes()) {
+            target.get(LeaderboardMetric.VIEWS)
+                .computeIfAbsent(scope, s -> new RankedIndex())
+                .put(member.contentId, member.viewCount);
+            target.get(LeaderboardMetric.RATING)
+                .computeIfAbsent(scope, s -> new RankedIndex())
+                .put(member.contentId, member.rating);
+        }
+    }
+    
+    private static Map<LeaderboardMetric, Map<String, RankedIndex>> emptyBoards() {
+        Map<LeaderboardMetric, Map<String, RankedIndex>> result = new EnumMap<>(LeaderboardMetric.class);
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            result.put(metric, new HashMap<>());
+        }
+        return result;
+    }
+    
+    /**
+     * Rank of one item within a scope (1-based), its score and the scope size
+     */
+    public static final class RankPosition {
+        private final int rank;
+        private final double score;
+        private final int total;
+        
+        private RankPosition(int rank, double score, int total) {
+            this.rank = rank;
+            this.score = score;
+            this.total = total;
+        }
+        
+        public int getRank() {
+            return rank;
+        }
+        
+        public double getScore() {
+            return score;
+        }
+        
+        public int getTotal() {
+            return total;
+        }
+    }
+    
+    /**
+     * Current placement of one content item
+     */
+    private static final class Member {
+        private final long contentId;
+        private final long viewCount;
+        private final double rating;
+        private final List<String> scopes;
+        
+        private Member(long contentId, String type, String genre, long viewCount, double rating) {
+            this.contentId = contentId;
+            this.viewCount = viewCount;
+            this.rating = rating;
+            this.scopes = new ArrayList<>(4);
+            scopes.add(ALL);
+            scopes.add(scope(type, null));
+            scopes.add(scope(null, genre));
+            scopes.add(scope(type, genre));
+        }
+        
+        /**
+         * Row of ContentRepository.findLeaderboardRows: id, content_type, genre, view_count, rating
+         */
+        private static Member fromRow(Object[] row) {
+            return new Member(
+                ((Number) row[0]).longValue(),
+                (String) row[1],
+                (String) row[2],
+                row[3] == null ? 0L : ((Number) row[3]).longValue(),
+                row[4] == null ? 0.0 : ((Number) row[4]).doubleValue());
+        }
+        
+        private List<String> scopes() {
+            return scopes;
+        }
+    }
+}
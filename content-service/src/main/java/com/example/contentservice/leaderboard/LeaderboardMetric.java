@@ -0,0 +1,23 @@
+package com.example.contentservice.leaderboard;
+
+/**
+ * Score a leaderboard ranks content by
+ */
+public enum LeaderboardMetric {
+    VIEWS,
+    RATING;
+    
+    /**
+     * Parse a metric from a request value such as "views" or "rating"
+     * 
+     * @throws IllegalArgumentException if the value names no metric
+     */
+    public static LeaderboardMetric fromString(String value) {
+        for (LeaderboardMetric metric : values()) {
+            if (metric.name().equalsIgnoreCase(value)) {
+                return metric;
+            }
+        }
+        throw new IllegalArgumentException("Unknown leaderboard metric: " + value + ". Must be either views or rating");
+    }
+}
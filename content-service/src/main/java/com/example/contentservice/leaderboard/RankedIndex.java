@@ -0,0 +1,217 @@
+package com.example.contentservice.leaderboard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Order-statistic index of content IDs by score (highest first, ties by lower ID).
+ * 
+ * Implemented as a treap (randomized balanced BST) whose nodes carry subtree sizes,
+ * so every operation is O(log n) expected:
+ * - put/remove: split and merge around the entry's key
+ * - rank(id): count of entries ordered before it
+ * - top(n): O(log n + n) in-order walk
+ * - countAtLeast(score): length of the prefix scoring at least score
+ * 
+ * Not thread-safe; ContentLeaderboards guards every index with its lock.
+ */
+public class RankedIndex {
+    
+    private final Map<Long, Double> scores = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+    
+    /**
+     * Insert the entry or move it to its new score
+     */
+    public void put(long id, double score) {
+        Double previous = scores.put(id, score);
+        if (previous != null) {
+            if (previous == score) {
+                return;
+            }
+            detach(id, previous);
+        }
+        Node[] parts = split(root, score, id, false);
+        root = merge(merge(parts[0], new Node(id, score, random.nextInt())), parts[1]);
+    }
+    
+    public void remove(long id) {
+        Double previous = scores.remove(id);
+        if (previous != null) {
+            detach(id, previous);
+        }
+    }
+    
+    public boolean contains(long id) {
+        return scores.containsKey(id);
+    }
+    
+    public Double score(long id) {
+        return scores.get(id);
+    }
+    
+    public int size() {
+        return size(root);
+    }
+    
+    /**
+     * 1-based rank of the entry, or -1 if it is not indexed
+     */
+    public int rank(long id) {
+        Double score = scores.get(id);
+        if (score == null) {
+            return -1;
+        }
+        return countBefore(score, id, false) + 1;
+    }
+    
+    /**
+     * Number of entries whose score is at least minScore
+     */
+    public int countAtLeast(double minScore) {
+        return countBefore(minScore, Long.MAX_VALUE, true);
+    }
+    
+    /**
+     * Highest-scoring entries in rank order (at most n)
+     */
+    public List<Entry> top(int n) {
+        List<Entry> result = new ArrayList<>(Math.min(Math.max(n, 0), size()));
+        collect(root, n, result);
+        return result;
+    }
+    
+    /**
+     * Remove the node with exactly this key: cut out the range [key, key]
+     */
+    private void detach(long id, double score) {
+        Node[] lower = split(root, score, id, false);
+        Node[] upper = split(lower[1], score, id, true);
+        root = merge(lower[0], upper[1]);
+    }
+    
+    /**
+     * Count entries ordered strictly before (score, id), or at-or-before when inclusive
+     */
+    private int countBefore(double score, long id, boolean inclusive) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(node.score, node.id, score, id);
+            if (cmp < 0 || (inclusive && cmp == 0)) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+    
+    private void collect(Node node, int n, List<Entry> out) {
+        if (node == null || out.size() >= n) {
+            return;
+        }
+        collect(node.left, n, out);
+        if (out.size() < n) {
+            out.add(new Entry(node.id, node.score));
+            collect(node.right, n, out);
+        }
+    }
+    
+    /**
+     * Split into [nodes before key, the rest]; with inclusive the key itself goes left
+     */
+    private static Node[] split(Node node, double score, long id, boolean inclusive) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        int cmp = compare(node.score, node.id, score, id);
+        if (cmp < 0 || (inclusive && cmp == 0)) {
+            Node[] parts = split(node.right, score, id, inclusive);
+            node.right = parts[0];
+            node.update();
+            return new Node[] {node, parts[1]};
+        }
+        Node[] parts = split(node.left, score, id, inclusive);
+        node.left = parts[1];
+        node.update();
+        return new Node[] {parts[0], node};
+    }
+    
+    /**
+     * Merge two treaps where every key in a orders before every key in b
+     */
+    private static Node merge(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            a.update();
+            return a;
+        }
+        b.left = merge(a, b.left);
+        b.update();
+        return b;
+    }
+    
+    /**
+     * Rank order: higher score first, then lower ID first
+     */
+    private static int compare(double scoreA, long idA, double scoreB, long idB) {
+        int cmp = Double.compare(scoreB, scoreA);
+        return cmp != 0 ? cmp : Long.compare(idA, idB);
+    }
+    
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+    
+    private static final class Node {
+        private final long id;
+        private final double score;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+        
+        private Node(long id, double score, int priority) {
+            this.id = id;
+            this.score = score;
+            this.priority = priority;
+        }
+        
+        private void update() {
+            size = 1 + size(left) + size(right);
+        }
+    }
+    
+    /**
+     * One ranked entry (content ID and its score)
+     */
+    public static final class Entry {
+        private final long contentId;
+        private final double score;
+        
+        private Entry(long contentId, double score) {
+            this.contentId = contentId;
+            this.score = score;
+        }
+        
+        public long getContentId() {
+            return contentId;
+        }
+        
+        public double getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.contentservice.messaging;
+
+import com.example.contentservice.cache.ContentCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts ContentCache entries for content updated or deleted on any instance.
+ *
+ * Every instance receives every content event on its own queue
+ * (RabbitMQConfig.contentCacheInvalidationQueue), including its own, which it has
+ * already evicted locally; evicting again is harmless. Created content needs nothing:
+ * the cache never holds misses.
+ */
+@Component
+public class ContentCacheInvalidationConsumer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ContentCacheInvalidationConsumer.class);
+    
+    @Autowired
+    private ContentCache contentCache;
+    
+    @RabbitListener(queues = "#{contentCacheInvalidationQueue.name}")
+    public void handleContentEvent(ContentEventMessage message) {
+        if (message.getContentId() == null) {
+            return;
+        }
+        if ("CONTENT_UPDATED".equals(message.getEventType()) || "CONTENT_DELETED".equals(message.getEventType())) {
+            contentCache.evict(message.getContentId());
+            logger.debug("ContentCache: evicted content {} for {} (version {})",
+                message.getContentId(), message.getEventType(), message.getVersion());
+        }
+    }
+}
@@ -5,9 +5,15 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
+import java.util.Map;
 
 /**
  * Message DTO for content events published to RabbitMQ.
+ * 
+ * Lifecycle events: CONTENT_CREATED, CONTENT_UPDATED, CONTENT_DELETED.
+ * version is the catalog change-log version of the change (see GET /api/content/changes),
+ * so consumers can drop stale or duplicate events by comparing versions.
+ * changedFields holds the new value of every field an update touched.
  */
 @Data
 @NoArgsConstructor
@@ -15,14 +21,23 @@ import java.io.Serializable;
 public class ContentEventMessage implements Serializable {
     
     private Long contentId;
-    private String eventType; // "CONTENT_CREATED"
+    private String eventType; // "CONTENT_CREATED", "CONTENT_UPDATED" or "CONTENT_DELETED"
     private String title;
     private String type; // "MOVIE" or "TV_SERIES"
     private String genre;
     private Integer releaseYear;
+    private Long version;
+    private Map<String, Object> changedFields; // CONTENT_UPDATED only
     
-    public static ContentEventMessage forContentCreated(Long contentId, String title, String type, String genre, Integer releaseYear) {
-        return new ContentEventMessage(contentId, "CONTENT_CREATED", title, type, genre, releaseYear);
+    public static ContentEventMessage forContentCreated(Long contentId, Long version, String title, String type, String genre, Integer releaseYear) {
+        return new ContentEventMessage(contentId, "CONTENT_CREATED", title, type, genre, releaseYear, version, null);
+    }
+    
+    public static ContentEventMessage forContentUpdated(Long contentId, Long version, String title, String type, String genre, Integer releaseYear, Map<String, Object> changedFields) {
+        return new ContentEventMessage(contentId, "CONTENT_UPDATED", title, type, genre, releaseYear, version, changedFields);
+    }
+    
+    public static ContentEventMessage forContentDeleted(Long contentId, Long version) {
+        return new ContentEventMessage(contentId, "CONTENT_DELETED", null, null, null, null, version, null);
     }
 }
-
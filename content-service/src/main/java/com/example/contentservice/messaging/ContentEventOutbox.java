@@ -0,0 +1,56 @@
+package com.example.contentservice.messaging;
+
+import com.example.contentservice.model.OutboxEvent;
+import com.example.contentservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point for content events: stores them in the outbox table as part of
+ * the caller's transaction.
+ * 
+ * The event commits or rolls back together with the content change, and the
+ * request never waits on the broker; OutboxRelay publishes it afterwards.
+ */
+@Component
+public class ContentEventOutbox {
+    
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(ContentEventMessage message) {
+        outboxRepository.save(toOutboxEvent(message));
+    }
+    
+    /**
+     * Enqueue several events; inserts are JDBC-batched like the content rows
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(List<ContentEventMessage> messages) {
+        List<OutboxEvent> events = new ArrayList<>(messages.size());
+        for (ContentEventMessage message : messages) {
+            events.add(toOutboxEvent(message));
+        }
+        outboxRepository.saveAll(events);
+    }
+    
+    private OutboxEvent toOutboxEvent(ContentEventMessage message) {
+        try {
+            return new OutboxEvent(message.getEventType(), message.getContentId(),
+                objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize content event for content " + message.getContentId(), e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.contentservice.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Rating delta published by Video Service on every new or changed rating.
+ * previousScore is null for a first rating by that user.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentRatingMessage implements Serializable {
+    
+    private Long contentId;
+    private Long userId;
+    private Double score;
+    private Double previousScore;
+}
@@ -0,0 +1,65 @@
+package com.example.contentservice.messaging;
+
+import com.example.contentservice.config.RabbitMQConfig;
+import com.example.contentservice.service.ContentRatingAggregator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Consumer for rating deltas from Video Service.
+ * 
+ * Messages arrive in batches (RabbitMQConfig.contentRatingsListenerFactory) and each
+ * batch is written by ContentRatingAggregator before this listener returns, so the
+ * container acknowledges only committed deltas. Bodies are parsed one by one here, so a
+ * malformed message is skipped instead of failing the whole batch.
+ */
+@Component
+public class ContentRatingMessageConsumer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ContentRatingMessageConsumer.class);
+    
+    @Autowired
+    private ContentRatingAggregator ratingAggregator;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @RabbitListener(queues = RabbitMQConfig.CONTENT_RATINGS_QUEUE,
+                    containerFactory = RabbitMQConfig.CONTENT_RATINGS_LISTENER_FACTORY)
+    public void handleRatings(List<Message> messages) {
+        ContentRatingAggregator.Batch batch = new ContentRatingAggregator.Batch();
+        for (Message amqpMessage : messages) {
+            ContentRatingMessage message = read(amqpMessage);
+            if (message == null || message.getContentId() == null || message.getScore() == null) {
+                logger.warn("Ignoring malformed rating message: {}", message != null ? message : amqpMessage);
+                continue;
+            }
+            logger.debug("Rating delta for content {}: score={}, previousScore={}",
+                message.getContentId(), message.getScore(), message.getPreviousScore());
+            
+            if (message.getPreviousScore() == null) {
+                batch.add(message.getContentId(), message.getScore(), 1);
+            } else {
+                batch.add(message.getContentId(), message.getScore() - message.getPreviousScore(), 0);
+            }
+        }
+        ratingAggregator.apply(batch);
+    }
+    
+    private ContentRatingMessage read(Message message) {
+        try {
+            return objectMapper.readValue(message.getBody(), ContentRatingMessage.class);
+        } catch (IOException e) {
+            logger.warn("Rating message is not valid JSON: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -4,13 +4,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.example.contentservice.config.RabbitMQConfig;
 
+import java.util.List;
+
 /**
  * Message Queue Publisher for Content Service.
- * Publishes content events to RabbitMQ.
+ * Publishes content events to the content events fanout exchange.
+ *
+ * Only called by OutboxRelay; services write events to the outbox
+ * (ContentEventOutbox) instead of publishing directly.
  */
 @Component
 public class MessageQueuePublisher {
@@ -20,22 +26,29 @@ public class MessageQueuePublisher {
     @Autowired
     private RabbitTemplate rabbitTemplate;
     
-    public void publishContentEvent(ContentEventMessage message) {
-        try {
-            logger.info("Publishing content event to queue: contentId={}, eventType={}, title={}", 
-                       message.getContentId(), message.getEventType(), message.getTitle());
-            
-            rabbitTemplate.convertAndSend(
-                RabbitMQConfig.CONTENT_EVENTS_QUEUE,
-                message
-            );
-            
-            logger.info("Successfully published content event for content {}", message.getContentId());
-            
-        } catch (Exception e) {
-            logger.error("Failed to publish content event to queue for content {}: {}", 
-                        message.getContentId(), e.getMessage(), e);
+    @Value("${content.outbox.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+    
+    /**
+     * Publish events over a single channel and wait for the broker to confirm them.
+     * 
+     * Unlike a fire-and-forget send, failures are not swallowed: a nack, timeout or
+     * connection error throws, so the caller (OutboxRelay) keeps the events for retry.
+     * 
+     * @throws org.springframework.amqp.AmqpException if any event was not confirmed
+     */
+    public void publishConfirmed(List<ContentEventMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
         }
+        rabbitTemplate.invoke(operations -> {
+            for (ContentEventMessage message : messages) {
+                operations.convertAndSend(RabbitMQConfig.CONTENT_EVENTS_EXCHANGE, "", message);
+            }
+            operations.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        });
+        
+        logger.info("Published {} content events to exchange (confirmed)", messages.size());
     }
 }
-
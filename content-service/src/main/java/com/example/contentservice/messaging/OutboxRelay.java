@@ -0,0 +1,110 @@
+package com.example.contentservice.messaging;
+
+import com.example.contentservice.model.OutboxEvent;
+import com.example.contentservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Background relay from the outbox table to RabbitMQ.
+ * 
+ * Each cycle drains the outbox in batches. Per batch, in one transaction:
+ * 1. Lock up to batch-size of the oldest rows (FOR UPDATE SKIP LOCKED)
+ * 2. Publish them over one channel and wait for the broker's confirms
+ * 3. Delete them
+ * 
+ * If publishing fails the transaction rolls back, the rows stay in the outbox,
+ * and the next cycle retries them. A crash between the confirm and the commit
+ * also re-publishes, so delivery is at-least-once; consumers de-duplicate on
+ * the event version.
+ */
+@Component
+public class OutboxRelay {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    
+    private final OutboxEventRepository outboxRepository;
+    private final MessageQueuePublisher messageQueuePublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerCycle;
+    
+    private final Counter published;
+    private final Counter failures;
+    
+    public OutboxRelay(OutboxEventRepository outboxRepository,
+                       MessageQueuePublisher messageQueuePublisher,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${content.outbox.batch-size:200}") int batchSize,
+                       @Value("${content.outbox.max-batches-per-cycle:50}") int maxBatchesPerCycle) {
+        this.outboxRepository = outboxRepository;
+        this.messageQueuePublisher = messageQueuePublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerCycle = maxBatchesPerCycle;
+        this.published = Counter.builder("content.outbox.published").register(meterRegistry);
+        this.failures = Counter.builder("content.outbox.failures").register(meterRegistry);
+    }
+    
+    /**
+     * Drain the outbox until it is empty, publishing fails, or the per-cycle
+     * batch limit is hit (so one backlog cannot hold the scheduler thread forever)
+     */
+    @Scheduled(fixedDelayString = "${content.outbox.poll-interval-ms:500}")
+    public void relay() {
+        for (int i = 0; i < maxBatchesPerCycle; i++) {
+            int sent;
+            try {
+                sent = transactionTemplate.execute(status -> relayBatch());
+            } catch (RuntimeException e) {
+                failures.increment();
+                logger.warn("OutboxRelay: publishing failed, will retry next cycle: {}", e.getMessage());
+                return;
+            }
+            if (sent < batchSize) {
+                return;
+            }
+        }
+    }
+    
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        
+        List<ContentEventMessage> messages = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            try {
+                messages.add(objectMapper.readValue(event.getPayload(), ContentEventMessage.class));
+            } catch (IOException e) {
+                // Cannot ever succeed; dropping it keeps the rest of the outbox moving
+                logger.error("OutboxRelay: discarding unreadable outbox event {} ({}): {}",
+                    event.getId(), event.getEventType(), e.getMessage());
+            }
+        }
+        
+        messageQueuePublisher.publishConfirmed(messages);
+        outboxRepository.deleteAllInBatch(batch);
+        published.increment(messages.size());
+        
+        logger.debug("OutboxRelay: published {} content events", messages.size());
+        return batch.size();
+    }
+}
@@ -31,8 +31,13 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public abstract class Content {
     
+    /**
+     * Sequence-based ID (pooled, 50 per round trip) so Hibernate can batch inserts;
+     * IDENTITY forces one INSERT per row to read back the generated key.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "content_seq")
+    @SequenceGenerator(name = "content_seq", sequenceName = "content_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Title is required")
@@ -48,17 +53,41 @@ public abstract class Content {
     @Column(nullable = false, length = 50)
     private String genre;
     
+    /**
+     * Genre dictionary ID (genres.id); genre holds the matching canonical name.
+     * Both are set together through GenreDictionary.
+     */
+    @Column(name = "genre_id")
+    private Integer genreId;
+    
     @Min(value = 1900, message = "Release year must be after 1900")
     @Max(value = 2100, message = "Release year must be before 2100")
     @Column(name = "release_year")
     private Integer releaseYear;
     
+    /**
+     * Displayed 0-10 rating. Written in place by ContentRatingAggregator, or by
+     * ContentRepository.setManualRating while nobody has rated the title, never
+     * by saving the entity, so a loaded copy cannot overwrite a newer value.
+     */
     @Min(value = 0, message = "Rating cannot be negative")
     @Max(value = 10, message = "Rating cannot exceed 10")
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private Double rating = 0.0;
     
-    @Column(name = "view_count", nullable = false)
+    /**
+     * Running sum / count of user ratings (1-5 stars), maintained in place by
+     * ContentRatingAggregator; rating is kept at ratingSum * 2 / ratingCount.
+     * Not updatable through JPA, so saving a loaded entity never writes back stale totals.
+     */
+    @Column(name = "rating_sum", nullable = false, updatable = false)
+    private Double ratingSum = 0.0;
+    
+    @Column(name = "rating_count", nullable = false, updatable = false)
+    private Long ratingCount = 0L;
+    
+    // Incremented in place (ContentRepository.incrementViewCount), like the rating totals
+    @Column(name = "view_count", nullable = false, updatable = false)
     private Long viewCount = 0L;
     
     @Column(nullable = false, updatable = false)
@@ -73,6 +102,14 @@ public abstract class Content {
      */
     public abstract String getContentType();
     
+    /**
+     * Point this content at a dictionary genre (canonical name + ID)
+     */
+    public void assignGenre(Genre genre) {
+        this.genre = genre.getName();
+        this.genreId = genre.getId();
+    }
+    
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
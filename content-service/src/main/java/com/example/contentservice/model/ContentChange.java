@@ -0,0 +1,46 @@
+package com.example.contentservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the catalog change log.
+ * 
+ * The version is taken from content_change_seq while holding a transaction-level
+ * advisory lock (see ContentChangeLog), so versions are handed out in commit order and a
+ * reader that has seen version N can never later see a committed change < N.
+ * 
+ * The log is compacted periodically down to the latest change per content ID, keeping
+ * the latest create or update as well when only views followed it, so a full sync still
+ * sees every live title with its fields. Titles that predate the log are seeded into it
+ * as CREATED by migration V7.
+ */
+@Entity
+@Table(name = "content_changes")
+@Data
+@NoArgsConstructor
+public class ContentChange {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "content_change_seq")
+    @SequenceGenerator(name = "content_change_seq", sequenceName = "content_change_seq", allocationSize = 1)
+    private Long version;
+    
+    @Column(name = "content_id", nullable = false)
+    private Long contentId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 20)
+    private ContentChangeType changeType;
+    
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt = LocalDateTime.now();
+    
+    public ContentChange(Long contentId, ContentChangeType changeType) {
+        this.contentId = contentId;
+        this.changeType = changeType;
+    }
+}
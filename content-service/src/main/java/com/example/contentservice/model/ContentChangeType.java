@@ -0,0 +1,12 @@
+package com.example.contentservice.model;
+
+/**
+ * Kind of change applied to a content item.
+ * Used to tell read-side structures (caches, indexes) what to refresh.
+ */
+public enum ContentChangeType {
+    CREATED,
+    UPDATED,
+    VIEWED,
+    DELETED
+}
@@ -0,0 +1,35 @@
+package com.example.contentservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entry of the genre dictionary.
+ * 
+ * Each distinct genre (compared case- and whitespace-insensitively through
+ * normalizedName) gets one small integer ID; content references it through
+ * content.genre_id. name is the canonical display spelling, taken from the
+ * first time the genre was seen.
+ */
+@Entity
+@Table(name = "genres")
+@Data
+@NoArgsConstructor
+public class Genre {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+    
+    @Column(nullable = false, length = 50)
+    private String name;
+    
+    @Column(name = "normalized_name", nullable = false, unique = true, length = 50)
+    private String normalizedName;
+    
+    public Genre(String name, String normalizedName) {
+        this.name = name;
+        this.normalizedName = normalizedName;
+    }
+}
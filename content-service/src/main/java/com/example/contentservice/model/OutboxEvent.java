@@ -0,0 +1,44 @@
+package com.example.contentservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending content event in the transactional outbox.
+ * 
+ * Written in the same transaction as the content change it describes, then
+ * published and deleted by OutboxRelay. The payload is the JSON form of the
+ * ContentEventMessage, so the relay never has to reload the content row.
+ */
+@Entity
+@Table(name = "content_outbox")
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "content_outbox_seq")
+    @SequenceGenerator(name = "content_outbox_seq", sequenceName = "content_outbox_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "event_type", nullable = false, length = 30)
+    private String eventType;
+    
+    @Column(name = "content_id", nullable = false)
+    private Long contentId;
+    
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+    
+    public OutboxEvent(String eventType, Long contentId, String payload) {
+        this.eventType = eventType;
+        this.contentId = contentId;
+        this.payload = payload;
+    }
+}
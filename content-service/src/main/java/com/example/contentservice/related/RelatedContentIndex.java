@@ -0,0 +1,419 @@
+package com.example.contentservice.related;
+
+import com.example.contentservice.event.ContentChangedEvent;
+import com.example.contentservice.model.Content;
+import com.example.contentservice.model.ContentChangeType;
+import com.example.contentservice.model.Movie;
+import com.example.contentservice.repository.ContentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Precomputed "related titles" lookup for content detail pages.
+ *
+ * Titles are indexed three ways:
+ * - per genre, sorted by release year, so the same-genre titles closest in era
+ *   are found by walking outwards from the target's position
+ * - per director (movies only), sorted by release year like the genre sets
+ * - catalog-wide by release year, for same-era titles outside the genre
+ *
+ * A lookup gathers a bounded candidate set from those indexes and scores it
+ * (genre > director > era proximity, rating as tie-breaker): up to max-candidates
+ * from the genre, and a quarter of that each from the director and the era, so its
+ * cost depends on max-candidates, not on catalog size or a director's filmography.
+ *
+ * Kept current the same way as ContentLeaderboards: built once the app is ready,
+ * updated per committed ContentChangedEvent, rebuilt periodically as a safety net.
+ * Events carry the changed row's fields, so applying one does not query the database;
+ * if two updates of one title commit concurrently and their events apply in the other
+ * order, the rebuild corrects it.
+ */
+@Component
+public class RelatedContentIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RelatedContentIndex.class);
+    
+    private static final double GENRE_WEIGHT = 3.0;
+    private static final double DIRECTOR_WEIGHT = 2.0;
+    private static final double ERA_WEIGHT = 1.0;
+    private static final double SAME_TYPE_WEIGHT = 0.25;
+    private static final double RATING_WEIGHT = 0.1;
+    
+    private static final Comparator<Features> BY_YEAR =
+        Comparator.comparingInt(Features::sortYear).thenComparingLong(f -> f.contentId);
+    
+    private final ContentRepository contentRepository;
+    private final int eraWindowYears;
+    private final int maxCandidates;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Features> members = new HashMap<>();
+    private Map<String, NavigableSet<Features>> byGenre = new HashMap<>();
+    private Map<String, NavigableSet<Features>> byDirector = new HashMap<>();
+    private NavigableSet<Features> byYear = new TreeSet<>(BY_YEAR);
+    private volatile boolean ready;
+    
+    private final Object rebuildMonitor = new Object();
+    private volatile boolean rebuilding;
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    
+    public RelatedContentIndex(ContentRepository contentRepository,
+                               @Value("${content.related.era-window-years:10}") int eraWindowYears,
+                               @Value("${content.related.max-candidates:200}") int maxCandidates) {
+        this.contentRepository = contentRepository;
+        this.eraWindowYears = eraWindowYears;
+        this.maxCandidates = maxCandidates;
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * Titles related to an indexed content item, best match first
+     *
+     * @return Matches (excluding the item itself), or null if the item is not indexed
+     */
+    public List<Match> relatedTo(long contentId, int limit) {
+        lock.readLock().lock();
+        try {
+            Features target = members.get(contentId);
+            if (target == null) {
+                return null;
+            }
+            
+            Set<Features> candidates = new HashSet<>();
+            NavigableSet<Features> sameGenre = byGenre.get(target.genre);
+            if (sameGenre != null) {
+                collectNearest(sameGenre, target, maxCandidates, Integer.MAX_VALUE, candidates);
+            }
+            NavigableSet<Features> sameDirector = target.director == null ? null : byDirector.get(target.director);
+            if (sameDirector != null) {
+                collectNearest(sameDirector, target, maxCandidates / 4, Integer.MAX_VALUE, candidates);
+            }
+            collectNearest(byYear, target, maxCandidates / 4, eraWindowYears, candidates);
+            
+            candidates.remove(target);
+            return rank(target, candidates, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Score an explicit candidate list against a target with the same rules as
+     * relatedTo (used while the index is not built yet)
+     */
+    public List<Match> rankCandidates(Content target, Collection<? extends Content> candidates, int limit) {
+        Features targetFeatures = Features.of(target);
+        List<Features> candidateFeatures = new ArrayList<>(candidates.size());
+        for (Content candidate : candidates) {
+            if (!candidate.getId().equals(target.getId())) {
+                candidateFeatures.add(Features.of(candidate));
+            }
+        }
+        return rank(targetFeatures, candidateFeatures, limit);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+    
+    @Scheduled(fixedDelayString = "${content.related.rebuild-interval-ms:3600000}",
+               initialDelayString = "${content.related.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+    
+    /**
+     * Rebuild every index from the database and swap it in
+     */
+    public void rebuild() {
+        synchronized (rebuildMonitor) {
+            long start = System.currentTimeMillis();
+            changedDuringRebuild.clear();
+            rebuilding = true;
+            try {
+                Map<Long, Features> newMembers = new HashMap<>();
+                Map<String, NavigableSet<Features>> newByGenre = new HashMap<>();
+                Map<String, NavigableSet<Features>> newByDirector = new HashMap<>();
+                NavigableSet<Features> newByYear = new TreeSet<>(BY_YEAR);
+                for (Object[] row : contentRepository.findRelatedFeatureRows()) {
+                    Features features = Features.fromRow(row);
+                    newMembers.put(features.contentId, features);
+                    place(features, newByGenre, newByDirector, newByYear);
+                }
+                
+                lock.writeLock().lock();
+                try {
+                    members = newMembers;
+                    byGenre = newByGenre;
+                    byDirector = newByDirector;
+                    byYear = newByYear;
+                    ready = true;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } finally {
+                rebuilding = false;
+            }
+            
+            // The snapshot may predate these commits; re-read them (on the rebuild thread)
+            for (Long contentId : changedDuringRebuild) {
+                refresh(contentId);
+            }
+            logger.info("RelatedContentIndex: indexed {} items in {} ms",
+                members.size(), System.currentTimeMillis() - start);
+        }
+    }
+    
+    /**
+     * Apply a committed change from the fields the event carries (view counts do not
+     * affect relatedness)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent event) {
+        Long contentId = event.getContentId();
+        if (contentId == null || event.getChangeType() == ContentChangeType.VIEWED) {
+            return;
+        }
+        if (rebuilding) {
+            changedDuringRebuild.add(contentId);
+        }
+        if (event.getChangeType() == ContentChangeType.DELETED) {
+            apply(contentId, null);
+        } else if (event.hasContent()) {
+            apply(contentId, Features.of(event));
+        } else {
+            logger.warn("RelatedContentIndex: {} event for content {} carries no fields, left to the next rebuild",
+                event.getChangeType(), contentId);
+        }
+    }
+    
+    private void refresh(Long contentId) {
+        List<Object[]> rows = contentRepository.findRelatedFeatureRow(contentId);
+        apply(contentId, rows.isEmpty() ? null : Features.fromRow(rows.get(0)));
+    }
+    
+    /**
+     * Replace an item's entries (null removes it)
+     */
+    private void apply(Long contentId, Features features) {
+        lock.writeLock().lock();
+        try {
+            Features previous = features == null ? members.remove(contentId) : members.put(contentId, features);
+            if (previous != null) {
+                NavigableSet<Features> genreSet = byGenre.get(previous.genre);
+                if (genreSet != null) {
+                    genreSet.remove(previous);
+                }
+                if (previous.director != null) {
+                    NavigableSet<Features> directorSet = byDirector.get(previous.director);
+                    if (directorSet != null) {
+                        directorSet.remove(previous);
+                    }
+                }
+                byYear.remove(previous);
+            }
+            if (features != null) {
+                place(features, byGenre, byDirector, byYear);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private static void place(Features features,
+                              Map<String, NavigableSet<Features>> genreIndex,
+                              Map<String, NavigableSet<Features>> directorIndex,
+                              NavigableSet<Features> yearIndex) {
+        if (features.genre != null) {
+            genreIndex.computeIfAbsent(features.genre, g -> new TreeSet<>(BY_YEAR)).add(features);
+        }
+        if (features.director != null) {
+            directorIndex.computeIfAbsent(features.director, d -> new TreeSet<>(BY_YEAR)).add(features);
+        }
+        yearIndex.add(features);
+    }
+    
+    /**
+     * Add up to max entries of a year-sorted set, closest release year to the target first,
+     * stopping at entries more than maxGap years away
+     */
+    private static void collectNearest(NavigableSet<Features> set, Features target, int max, int maxGap,
+                                       Collection<Features> into) {
+        Iterator<Features> later = set.tailSet(target, false).iterator();
+        Iterator<Features> earlier = set.headSet(target, false).descendingIterator();
+        Features nextLater = later.hasNext() ? later.next() : null;
+        Features nextEarlier = earlier.hasNext() ? earlier.next() : null;
+        
+        for (int taken = 0; taken < max && (nextLater != null || nextEarlier != null); taken++) {
+            boolean takeLater = nextEarlier == null
+                || (nextLater != null && yearGap(target, nextLater) <= yearGap(target, nextEarlier));
+            Features next = takeLater ? nextLater : nextEarlier;
+            if (yearGap(target, next) > maxGap) {
+                return;
+            }
+            into.add(next);
+            if (takeLater) {
+                nextLater = later.hasNext() ? later.next() : null;
+            } else {
+                nextEarlier = earlier.hasNext() ? earlier.next() : null;
+            }
+        }
+    }
+    
+    private List<Match> rank(Features target, Collection<Features> candidates, int limit) {
+        List<Match> matches = new ArrayList<>(candidates.size());
+        for (Features candidate : candidates) {
+            Match match = score(target, candidate);
+            if (match != null) {
+                matches.add(match);
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::getScore).reversed()
+            .thenComparingLong(Match::getContentId));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+    
+    /**
+     * @return Score and reasons, or null if the candidate shares nothing with the target
+     */
+    private Match score(Features target, Features candidate) {
+        double score = 0.0;
+        List<String> matchedOn = new ArrayList<>(3);
+        if (target.genre != null && target.genre.equals(candidate.genre)) {
+            score += GENRE_WEIGHT;
+            matchedOn.add("genre");
+        }
+        if (target.director != null && target.director.equals(candidate.director)) {
+            score += DIRECTOR_WEIGHT;
+            matchedOn.add("director");
+        }
+        int gap = yearGap(target, candidate);
+        if (gap <= eraWindowYears) {
+            score += ERA_WEIGHT * (1.0 - (double) gap / (eraWindowYears + 1));
+            matchedOn.add("era");
+        }
+        if (matchedOn.isEmpty()) {
+            return null;
+        }
+        if (target.type.equals(candidate.type)) {
+            score += SAME_TYPE_WEIGHT;
+        }
+        score += RATING_WEIGHT * candidate.rating / 10.0;
+        return new Match(candidate.contentId, score, matchedOn);
+    }
+    
+    private static int yearGap(Features a, Features b) {
+        if (a.releaseYear == null || b.releaseYear == null) {
+            return Integer.MAX_VALUE;
+        }
+        return Math.abs(a.releaseYear - b.releaseYear);
+    }
+    
+    /**
+     * One related title: its score and which features it shares with the target
+     */
+    public static final class Match {
+        private final long contentId;
+        private final double score;
+        private final List<String> matchedOn;
+        
+        private Match(long contentId, double score, List<String> matchedOn) {
+            this.contentId = contentId;
+            this.score = score;
+            this.matchedOn = matchedOn;
+        }
+        
+        public long getContentId() {
+            return contentId;
+        }
+        
+        public double getScore() {
+            return score;
+        }
+        
+        public List<String> getMatchedOn() {
+            return matchedOn;
+        }
+    }
+    
+    /**
+     * Similarity features of one content item
+     */
+    private static final class Features {
+        private final long contentId;
+        private final String type;
+        private final String genre;
+        private final String director;
+        private final Integer releaseYear;
+        private final double rating;
+        
+        private Features(long contentId, String type, String genre, String director,
+                         Integer releaseYear, double rating) {
+            this.contentId = contentId;
+            this.type = type;
+            this.genre = normalize(genre);
+            this.director = normalize(director);
+            this.releaseYear = releaseYear;
+            this.rating = rating;
+        }
+        
+        /**
+         * Row of ContentRepository.findRelatedFeatureRows:
+         * id, content_type, genre, director, release_year, rating
+         */
+        private static Features fromRow(Object[] row) {
+            return new Features(
+                ((Number) row[0]).longValue(),
+                (String) row[1],
+                (String) row[2],
+                (String) row[3],
+                row[4] == null ? null : ((Number) row[4]).intValue(),
+                row[5] == null ? 0.0 : ((Number) row[5]).doubleValue());
+        }
+        
+        private static Features of(Content content) {
+            String director = content instanceof Movie ? ((Movie) content).getDirector() : null;
+            return new Features(content.getId(), content.getContentType(), content.getGenre(), director,
+                content.getReleaseYear(), content.getRating() == null ? 0.0 : content.getRating());
+        }
+        
+        private static Features of(ContentChangedEvent event) {
+            return new Features(event.getContentId(), event.getContentType(), event.getGenre(), event.getDirector(),
+                event.getReleaseYear(), event.getRating() == null ? 0.0 : event.getRating());
+        }
+        
+        private static String normalize(String value) {
+            return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+        }
+        
+        private int sortYear() {
+            return releaseYear == null ? Integer.MIN_VALUE : releaseYear;
+        }
+    }
+}
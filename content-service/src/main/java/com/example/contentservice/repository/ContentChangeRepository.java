@@ -0,0 +1,47 @@
+package com.example.contentservice.repository;
+
+import com.example.contentservice.model.ContentChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Spring Data JPA Repository for the catalog change log
+ */
+@Repository
+public interface ContentChangeRepository extends JpaRepository<ContentChange, Long> {
+    
+    /**
+     * Changes strictly after the given version, oldest first
+     */
+    List<ContentChange> findByVersionGreaterThanOrderByVersionAsc(Long since, Pageable pageable);
+    
+    /**
+     * Latest version in the log (null if the log is empty)
+     */
+    @Query("SELECT MAX(c.version) FROM ContentChange c")
+    Long findLatestVersion();
+    
+    /**
+     * Latest version of a change other than a view (null if there is none);
+     * the literal predicate matches the partial index idx_content_changes_non_view
+     */
+    @Query(value = "SELECT MAX(version) FROM content_changes WHERE change_type <> 'VIEWED'", nativeQuery = true)
+    Long findLatestNonViewVersion();
+    
+    /**
+     * Log compaction: drop every change superseded by a later change to the same content.
+     * A view only supersedes earlier views, so the latest create/update of every live
+     * title stays in the log and a full sync (since=0) always receives its fields.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM content_changes c WHERE EXISTS (" +
+                   "SELECT 1 FROM content_changes n WHERE n.content_id = c.content_id AND n.version > c.version " +
+                   "AND (n.change_type <> 'VIEWED' OR c.change_type = 'VIEWED'))",
+           nativeQuery = true)
+    int deleteSupersededChanges();
+}
@@ -1,12 +1,20 @@
 package com.example.contentservice.repository;
 
 import com.example.contentservice.model.Content;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA Repository for Content entity
@@ -25,6 +33,11 @@ public interface ContentRepository extends JpaRepository<Content, Long> {
      */
     List<Content> findByGenre(String genre);
     
+    /**
+     * Find content by genre dictionary ID (indexed)
+     */
+    List<Content> findByGenreId(Integer genreId);
+    
     /**
      * Find content by release year
      */
@@ -47,13 +60,93 @@ public interface ContentRepository extends JpaRepository<Content, Long> {
     @Query("SELECT c FROM Content c WHERE TYPE(c) = TVSeries")
     List<Content> findAllTVSeries();
     
+    /**
+     * Stream all content in ID order through a server-side cursor.
+     * Must be consumed inside a transaction (the PostgreSQL driver only honours
+     * the fetch size with autocommit off); entities are loaded read-only.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Content c ORDER BY c.id")
+    Stream<Content> streamAll();
+    
+    /**
+     * Stream all movies in ID order (see streamAll)
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Content c WHERE TYPE(c) = Movie ORDER BY c.id")
+    Stream<Content> streamAllMovies();
+    
+    /**
+     * Stream all TV series in ID order (see streamAll)
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Content c WHERE TYPE(c) = TVSeries ORDER BY c.id")
+    Stream<Content> streamAllTVSeries();
+    
     /**
      * Get top N most-viewed content
      */
     List<Content> findTop10ByOrderByViewCountDesc();
     
+    /**
+     * Most-viewed content, one page at a time (startup cache warm-up)
+     */
+    List<Content> findAllByOrderByViewCountDescIdAsc(Pageable pageable);
+    
+    /**
+     * Leaderboard projection of every content row: id, content_type, genre, view_count, rating
+     */
+    @Query(value = "SELECT id, content_type, genre, view_count, rating FROM content", nativeQuery = true)
+    List<Object[]> findLeaderboardRows();
+    
+    /**
+     * Leaderboard projection of the given content rows (IDs that no longer exist are absent)
+     */
+    @Query(value = "SELECT id, content_type, genre, view_count, rating FROM content WHERE id IN (:ids)", nativeQuery = true)
+    List<Object[]> findLeaderboardRows(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Related-titles projection of every content row:
+     * id, content_type, genre, director, release_year, rating
+     */
+    @Query(value = "SELECT id, content_type, genre, director, release_year, rating FROM content", nativeQuery = true)
+    List<Object[]> findRelatedFeatureRows();
+    
+    /**
+     * Related-titles projection of one content row (empty if it no longer exists)
+     */
+    @Query(value = "SELECT id, content_type, genre, director, release_year, rating FROM content WHERE id = :id",
+           nativeQuery = true)
+    List<Object[]> findRelatedFeatureRow(@Param("id") Long id);
+    
     /**
      * Search content by title and genre
      */
     List<Content> findByTitleContainingIgnoreCaseAndGenre(String title, String genre);
+    
+    /**
+     * Count one view in place, without reading the row first (0 if the content does not exist)
+     */
+    @Modifying
+    @Query(value = "UPDATE content SET view_count = view_count + 1, updated_at = :now WHERE id = :id",
+           nativeQuery = true)
+    int incrementViewCount(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    /**
+     * Set the displayed rating of content no user has rated yet
+     * (0 if it has user ratings, which then determine the rating, or does not exist)
+     */
+    @Modifying
+    @Query(value = "UPDATE content SET rating = :rating, updated_at = :now WHERE id = :id AND rating_count = 0",
+           nativeQuery = true)
+    int setManualRating(@Param("id") Long id, @Param("rating") Double rating, @Param("now") LocalDateTime now);
 }
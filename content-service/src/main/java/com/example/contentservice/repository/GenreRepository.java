@@ -0,0 +1,16 @@
+package com.example.contentservice.repository;
+
+import com.example.contentservice.model.Genre;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Spring Data JPA Repository for the genre dictionary
+ */
+@Repository
+public interface GenreRepository extends JpaRepository<Genre, Integer> {
+    
+    Optional<Genre> findByNormalizedName(String normalizedName);
+}
@@ -0,0 +1,25 @@
+package com.example.contentservice.repository;
+
+import com.example.contentservice.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Spring Data JPA Repository for the content event outbox
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    /**
+     * Lock the oldest pending events for publishing.
+     * SKIP LOCKED lets several relay instances drain the outbox without
+     * waiting on (or double-publishing) each other's rows.
+     */
+    @Query(value = "SELECT * FROM content_outbox ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+}
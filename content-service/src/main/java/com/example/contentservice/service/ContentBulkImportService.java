@@ -0,0 +1,151 @@
+package com.example.contentservice.service;
+
+import com.example.contentservice.dto.BulkImportErrorDTO;
+import com.example.contentservice.dto.BulkImportResultDTO;
+import com.example.contentservice.dto.ContentCreateDTO;
+import com.example.contentservice.model.Content;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk content ingestion
+ *
+ * Reads the request body as a stream (JSON array or NDJSON), so memory stays
+ * bounded by one batch regardless of payload size:
+ * 1. Parse one item at a time
+ * 2. Bean-validate it and build it through the same factories as POST /api/content
+ * 3. Every batch-size valid items, persist them in one transaction (JDBC batch inserts)
+ *
+ * Invalid items are skipped and reported by index. A syntax error in the body
+ * stops parsing; batches already persisted stay committed.
+ */
+@Service
+public class ContentBulkImportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ContentBulkImportService.class);
+    
+    @Autowired
+    private ContentService contentService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Value("${content.bulk.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${content.bulk.max-reported-errors:100}")
+    private int maxReportedErrors;
+    
+    /**
+     * Import content from a JSON array or newline-delimited JSON stream
+     *
+     * @param body Request body stream
+     * @return Import summary including rows/sec
+     */
+    public BulkImportResultDTO importContent(InputStream body) throws IOException {
+        long start = System.nanoTime();
+        long received = 0;
+        long imported = 0;
+        long failed = 0;
+        boolean aborted = false;
+        List<BulkImportErrorDTO> errors = new ArrayList<>();
+        List<Content> batch = new ArrayList<>(batchSize);
+        
+        // readValues() accepts both a top-level array and whitespace-separated root values (NDJSON)
+        try (MappingIterator<JsonNode> items = objectMapper.readerFor(JsonNode.class).readValues(body)) {
+            while (items.hasNextValue()) {
+                JsonNode item = items.nextValue();
+                long index = received++;
+                
+                try {
+                    batch.add(toContent(item));
+                } catch (RuntimeException e) {
+                    failed++;
+                    addError(errors, index, e.getMessage());
+                    continue;
+                }
+                
+                if (batch.size() >= batchSize) {
+                    imported += flush(batch);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            aborted = true;
+            addError(errors, received, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+            logger.warn("Bulk import aborted after {} items: {}", received, e.getOriginalMessage());
+        }
+        
+        imported += flush(batch);
+        
+        long elapsedNanos = System.nanoTime() - start;
+        double rowsPerSecond = elapsedNanos > 0 ? imported * 1_000_000_000.0 / elapsedNanos : 0.0;
+        logger.info("Bulk import finished: received={}, imported={}, failed={}, {} ms, {} rows/sec",
+            received, imported, failed, elapsedNanos / 1_000_000, String.format("%.1f", rowsPerSecond));
+        
+        return BulkImportResultDTO.builder()
+            .received(received)
+            .imported(imported)
+            .failed(failed)
+            .aborted(aborted)
+            .elapsedMs(elapsedNanos / 1_000_000)
+            .rowsPerSecond(rowsPerSecond)
+            .errors(errors)
+            .build();
+    }
+    
+    /**
+     * Map, validate and build one item through the content factories
+     */
+    private Content toContent(JsonNode item) {
+        ContentCreateDTO request;
+        try {
+            request = objectMapper.treeToValue(item, ContentCreateDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getOriginalMessage());
+        }
+        
+        Set<ConstraintViolation<ContentCreateDTO>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", ")));
+        }
+        
+        return contentService.buildContent(request);
+    }
+    
+    private int flush(List<Content> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int count = contentService.persistBatch(new ArrayList<>(batch));
+        batch.clear();
+        return count;
+    }
+    
+    private void addError(List<BulkImportErrorDTO> errors, long index, String message) {
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new BulkImportErrorDTO(index, message));
+        }
+    }
+}
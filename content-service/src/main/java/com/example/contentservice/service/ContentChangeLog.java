@@ -0,0 +1,106 @@
+package com.example.contentservice.service;
+
+import com.example.contentservice.model.ContentChangeType;
+import com.example.contentservice.repository.ContentChangeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes the catalog change log that backs GET /api/content/changes.
+ * 
+ * Ordering guarantee: record() takes a transaction-scoped advisory lock before drawing the
+ * next version, so every change commits in version order. Without it, a transaction
+ * holding version 10 could commit after one holding 11, and a reader that already advanced
+ * to 11 would never see 10. That holds for views too: a view committing ahead of a pending
+ * delete would move a reader's cursor past the delete for good. record() flushes the
+ * caller's pending entity writes before locking, so the content row is written first and
+ * the lock only covers the tail of each write transaction, up to its commit.
+ * 
+ * Lock order: every writer locks its content rows before the advisory lock and takes no
+ * row lock after it, so the two kinds of lock cannot deadlock. Entity writes are flushed
+ * here before locking; incrementViewCount and ContentRatingAggregator update their rows
+ * with plain SQL before calling record().
+ */
+@Component
+public class ContentChangeLog {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ContentChangeLog.class);
+    
+    // Arbitrary application-wide key for pg_advisory_xact_lock
+    private static final long CHANGE_LOG_LOCK_KEY = 4_201_726_001L;
+    
+    private static final String NEXT_VERSIONS_SQL =
+        "SELECT nextval('content_change_seq') FROM generate_series(1, ?)";
+    private static final String INSERT_SQL =
+        "INSERT INTO content_changes (version, content_id, change_type, changed_at) VALUES (?, ?, ?, ?)";
+    
+    @Autowired
+    private ContentChangeRepository changeRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    /**
+     * Append a change in the caller's transaction
+     * 
+     * @return Version assigned to this change
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long record(Long contentId, ContentChangeType changeType) {
+        return record(List.of(contentId), changeType).get(0);
+    }
+    
+    /**
+     * Append the same kind of change for several content IDs in the caller's transaction:
+     * one flush, one lock, one query for all the versions and one JDBC batch of inserts
+     * 
+     * @return Versions assigned, in the order of contentIds (ascending)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Long> record(List<Long> contentIds, ContentChangeType changeType) {
+        if (contentIds.isEmpty()) {
+            return List.of();
+        }
+        entityManager.flush();
+        jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + CHANGE_LOG_LOCK_KEY + ")");
+        
+        List<Long> versions = new ArrayList<>(jdbcTemplate.queryForList(NEXT_VERSIONS_SQL, Long.class, contentIds.size()));
+        Collections.sort(versions);
+        Timestamp changedAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(contentIds.size());
+        for (int i = 0; i < contentIds.size(); i++) {
+            rows.add(new Object[] {versions.get(i), contentIds.get(i), changeType.name(), changedAt});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        return versions;
+    }
+    
+    /**
+     * Compact the log to the latest change per content ID, plus its latest create or
+     * update when only views came after it
+     */
+    @Scheduled(fixedDelayString = "${content.changes.compaction-interval-ms:3600000}",
+               initialDelayString = "${content.changes.compaction-interval-ms:3600000}")
+    @Transactional
+    public void compact() {
+        int removed = changeRepository.deleteSupersededChanges();
+        logger.info("ContentChangeLog: compaction removed {} superseded changes", removed);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.contentservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains content.rating_sum / rating_count from the Video Service ratings stream.
+ *
+ * ContentRatingMessageConsumer receives the content.ratings queue in batches and hands
+ * each one here as a Batch, with its deltas merged per content ID, so a burst of ratings
+ * on one title becomes a single row update. Each batch, in one transaction:
+ * 1. Apply every delta as an in-place increment (one JDBC batch)
+ * 2. Re-derive the displayed 0-10 rating in the same statement: rating_sum * 2 / rating_count
+ * 3. Record the change and enqueue the update event (ContentService.publishRatingChanges)
+ *
+ * apply() returns only once that transaction has committed, and the listener container
+ * acknowledges the batch's messages only when the listener returns. A crash before the
+ * commit leaves them unacknowledged, so RabbitMQ redelivers them; a failed batch is
+ * rethrown, retried and then requeued, never acknowledged. Nothing is buffered across
+ * batches, so a restart cannot lose deltas. Only a crash in the moment between the commit
+ * and the acknowledgement can deliver an already applied batch again.
+ *
+ * The increments never read-modify-write in Java (and JPA never writes the totals or
+ * the rating), so concurrent instances cannot lose each other's ratings. updateContent
+ * can only set a rating while a title has no user ratings. Rows are updated in ID order
+ * and before the change log's advisory lock, the same order every writer follows (see
+ * ContentChangeLog), so batches on different instances cannot deadlock with each other
+ * or with content updates.
+ */
+@Component
+public class ContentRatingAggregator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ContentRatingAggregator.class);
+    
+    // Right-hand side columns see the pre-update row, hence the repeated deltas
+    private static final String APPLY_DELTA_SQL =
+        "UPDATE content SET " +
+        "rating_sum = rating_sum + ?, " +
+        "rating_count = rating_count + ?, " +
+        "rating = CASE WHEN rating_count + ? > 0 " +
+        "THEN LEAST(10, GREATEST(0, (rating_sum + ?) * 2 / (rating_count + ?))) " +
+        "ELSE rating END, " +
+        "updated_at = now() " +
+        "WHERE id = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ContentService contentService;
+    private final TransactionTemplate transactionTemplate;
+    
+    private final Counter received;
+    private final Counter applied;
+    private final Counter failures;
+    
+    public ContentRatingAggregator(JdbcTemplate jdbcTemplate,
+                                   ContentService contentService,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.contentService = contentService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.received = Counter.builder("content.ratings.received").register(meterRegistry);
+        this.applied = Counter.builder("content.ratings.rows-updated").register(meterRegistry);
+        this.failures = Counter.builder("content.ratings.flush-failures").register(meterRegistry);
+    }
+    
+    /**
+     * Apply a batch of deltas and commit
+     * 
+     * @return Number of content rows updated
+     * @throws RuntimeException if the transaction fails; nothing of the batch is applied
+     */
+    public int apply(Batch batch) {
+        received.increment(batch.received);
+        Map<Long, RatingDelta> deltas = new HashMap<>(batch.deltas);
+        deltas.values().removeIf(RatingDelta::isEmpty);
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        
+        try {
+            int updated = transactionTemplate.execute(status -> applyDeltas(deltas));
+            applied.increment(updated);
+            logger.debug("ContentRatingAggregator: applied deltas to {} of {} content rows", updated, deltas.size());
+            return updated;
+        } catch (RuntimeException e) {
+            failures.increment();
+            logger.warn("ContentRatingAggregator: batch of {} deltas failed, its messages will be redelivered: {}",
+                deltas.size(), e.getMessage());
+            throw e;
+        }
+    }
+    
+    private int applyDeltas(Map<Long, RatingDelta> batch) {
+        List<Long> ids = new ArrayList<>(batch.keySet());
+        Collections.sort(ids);
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            RatingDelta delta = batch.get(id);
+            args.add(new Object[] {delta.sum, delta.count, delta.count, delta.sum, delta.count, id});
+        }
+        
+        int[] counts = jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, args);
+        
+        // Deltas for content deleted in the meantime match no row and are dropped
+        List<Long> updatedIds = new ArrayList<>(ids.size());
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                updatedIds.add(ids.get(i));
+            }
+        }
+        contentService.publishRatingChanges(updatedIds);
+        return updatedIds.size();
+    }
+    
+    /**
+     * Deltas of one batch of rating messages, merged per content ID
+     */
+    public static final class Batch {
+        
+        private final Map<Long, RatingDelta> deltas = new HashMap<>();
+        private int received;
+        
+        /**
+         * Add a delta: (score, 1) for a new rating, (score - previous, 0) for a changed one
+         */
+        public void add(Long contentId, double sumDelta, long countDelta) {
+            deltas.merge(contentId, new RatingDelta(sumDelta, countDelta), RatingDelta::plus);
+            received++;
+        }
+    }
+    
+    private static final class RatingDelta {
+        
+        private final double sum;
+        private final long count;
+        
+        private RatingDelta(double sum, long count) {
+            this.sum = sum;
+            this.count = count;
+        }
+        
+        private RatingDelta plus(RatingDelta other) {
+            return new RatingDelta(sum + other.sum, count + other.count);
+        }
+        
+        private boolean isEmpty() {
+            return sum == 0.0 && count == 0;
+        }
+    }
+}
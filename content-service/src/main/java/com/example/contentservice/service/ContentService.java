@@ -1,26 +1,63 @@
 package com.example.contentservice.service;
 
+import com.example.contentservice.cache.ContentCache;
+import com.example.contentservice.dto.ContentChangeDTO;
+import com.example.contentservice.dto.ContentChangeFeedDTO;
 import com.example.contentservice.dto.ContentCreateDTO;
+import com.example.contentservice.dto.ContentRankDTO;
 import com.example.contentservice.dto.ContentResponseDTO;
 import com.example.contentservice.dto.ContentUpdateDTO;
+import com.example.contentservice.dto.GenreDTO;
+import com.example.contentservice.dto.LeaderboardEntryDTO;
+import com.example.contentservice.dto.RelatedContentDTO;
+import com.example.contentservice.datasource.ReadYourWritesTracker;
+import com.example.contentservice.event.ContentChangedEvent;
 import com.example.contentservice.exception.ContentNotFoundException;
+import com.example.contentservice.exception.ContentValidationException;
 import com.example.contentservice.exception.InvalidContentTypeException;
 import com.example.contentservice.factory.ContentFactory;
+import com.example.contentservice.leaderboard.ContentLeaderboards;
+import com.example.contentservice.leaderboard.LeaderboardMetric;
+import com.example.contentservice.leaderboard.RankedIndex;
 import com.example.contentservice.messaging.ContentEventMessage;
-import com.example.contentservice.messaging.MessageQueuePublisher;
+import com.example.contentservice.messaging.ContentEventOutbox;
 import com.example.contentservice.model.Content;
+import com.example.contentservice.model.ContentChange;
+import com.example.contentservice.model.ContentChangeType;
+import com.example.contentservice.model.Genre;
 import com.example.contentservice.model.Movie;
 import com.example.contentservice.model.TVSeries;
+import com.example.contentservice.related.RelatedContentIndex;
+import com.example.contentservice.repository.ContentChangeRepository;
 import com.example.contentservice.repository.ContentRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Content Service - Business logic for content management
@@ -44,7 +81,37 @@ public class ContentService {
     private ContentRepository contentRepository;
     
     @Autowired
-    private MessageQueuePublisher messageQueuePublisher;
+    private ContentEventOutbox eventOutbox;
+    
+    @Autowired
+    private ContentCache contentCache;
+    
+    @Autowired
+    private ContentChangeLog changeLog;
+    
+    @Autowired
+    private ReadYourWritesTracker readYourWrites;
+    
+    @Autowired
+    private ContentLeaderboards leaderboards;
+    
+    @Autowired
+    private RelatedContentIndex relatedIndex;
+    
+    @Autowired
+    private GenreDictionary genreDictionary;
+    
+    @Autowired
+    private ContentChangeRepository changeRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
     
     // FACTORY PATTERN: Inject both factories using Spring's dependency injection
     @Autowired
@@ -71,11 +138,8 @@ public class ContentService {
     public ContentResponseDTO createContent(ContentCreateDTO request) {
         logger.info("Creating content of type '{}' with title '{}'", request.getType(), request.getTitle());
         
-        // FACTORY PATTERN: Select factory based on content type
-        ContentFactory factory = getFactory(request.getType());
-        
-        // FACTORY PATTERN: Factory creates and validates content
-        Content content = factory.createContent(request);
+        // FACTORY PATTERN: Select factory, which validates and creates content
+        Content content = buildContent(request);
         
         // Save to database
         Content savedContent = contentRepository.save(content);
@@ -83,61 +147,134 @@ public class ContentService {
         logger.info("Content created successfully with ID: {} (Type: {})", 
             savedContent.getId(), savedContent.getContentType());
         
-        // Publish content created event to RabbitMQ
-        ContentEventMessage event = ContentEventMessage.forContentCreated(
-            savedContent.getId(),
-            savedContent.getTitle(),
-            savedContent.getContentType(),
-            savedContent.getGenre(),
-            savedContent.getReleaseYear()
-        );
-        messageQueuePublisher.publishContentEvent(event);
+        long version = changeLog.record(savedContent.getId(), ContentChangeType.CREATED);
+        
+        // Content created event goes to RabbitMQ via the outbox (same transaction)
+        eventOutbox.enqueue(createdEvent(savedContent, version));
+        applicationEventPublisher.publishEvent(
+            ContentChangedEvent.forContent(savedContent, ContentChangeType.CREATED));
         
         return convertToDTO(savedContent);
     }
     
     /**
-     * Get content by ID
+     * Validate and build (but do not save) content using the appropriate factory
+     * 
+     * @param request Content creation data
+     * @return Unsaved Movie or TVSeries
+     * @throws InvalidContentTypeException if type is invalid
+     * @throws com.example.contentservice.exception.ContentValidationException if factory validation fails
      */
-    public ContentResponseDTO getContentById(Long id) {
-        Content content = contentRepository.findById(id)
-            .orElseThrow(() -> new ContentNotFoundException(id));
-        return convertToDTO(content);
+    public Content buildContent(ContentCreateDTO request) {
+        return getFactory(request.getType()).createContent(request);
     }
     
     /**
-     * Get all content
+     * Persist a batch of factory-built content in one transaction
+     * 
+     * Content IDs come from a pooled sequence, so Hibernate sends the rows as
+     * JDBC batch inserts (hibernate.jdbc.batch_size) instead of one round trip each.
+     * The change log entries and the CONTENT_CREATED outbox events of the whole batch
+     * are written as one batch each, under a single change-log lock.
+     * 
+     * @param batch Unsaved content built by buildContent
+     * @return Number of rows inserted
      */
-    public List<ContentResponseDTO> getAllContent() {
-        return contentRepository.findAll()
-            .stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+    @Transactional
+    public int persistBatch(List<Content> batch) {
+        List<Content> saved = contentRepository.saveAll(batch);
+        List<Long> versions = changeLog.record(
+            saved.stream().map(Content::getId).toList(), ContentChangeType.CREATED);
+        List<ContentEventMessage> events = new ArrayList<>(saved.size());
+        for (int i = 0; i < saved.size(); i++) {
+            events.add(createdEvent(saved.get(i), versions.get(i)));
+        }
+        
+        eventOutbox.enqueue(events);
+        for (Content content : saved) {
+            applicationEventPublisher.publishEvent(
+                ContentChangedEvent.forContent(content, ContentChangeType.CREATED));
+        }
+        
+        logger.info("Persisted batch of {} content items", saved.size());
+        return saved.size();
     }
     
     /**
-     * Get all movies
+     * Get content by ID (read-through cache; only a miss opens a transaction)
      */
-    public List<ContentResponseDTO> getAllMovies() {
-        return contentRepository.findAllMovies()
-            .stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+    public ContentResponseDTO getContentById(Long id) {
+        return contentCache.getById(id, () -> {
+            Supplier<ContentResponseDTO> load = () -> readOnly("getContentById", () ->
+                contentRepository.findById(id)
+                    .map(this::convertToDTO)
+                    .orElseThrow(() -> new ContentNotFoundException(id)));
+            // A replica may not have this change yet; never cache its stale copy
+            return readYourWrites.recentlyWritten(id) ? readYourWrites.onPrimary(load) : load.get();
+        });
     }
     
     /**
-     * Get all TV series
+     * Load the most-viewed content into the by-ID cache in one query
+     * 
+     * @return Content IDs loaded, most viewed first
      */
-    public List<ContentResponseDTO> getAllTVSeries() {
-        return contentRepository.findAllTVSeries()
-            .stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<Long> preloadMostViewed(int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        for (Content content : contentRepository.findAllByOrderByViewCountDescIdAsc(PageRequest.of(0, limit))) {
+            contentCache.put(convertToDTO(content));
+            ids.add(content.getId());
+        }
+        return ids;
+    }
+    
+    /**
+     * Write all content (or all of one type) as an array straight from a database cursor
+     * 
+     * Rows are fetched 500 at a time, converted, written and detached one by one,
+     * so heap use stays flat no matter how large the catalog is; nothing is
+     * collected into a list.
+     * 
+     * @param type null for all content, "MOVIE" or "TV_SERIES"
+     * @param generator JSON or CBOR generator writing to the response
+     * @return Number of items written
+     */
+    @Transactional(readOnly = true)
+    public long writeContentList(String type, JsonGenerator generator) throws IOException {
+        long written = 0;
+        generator.writeStartArray();
+        try (Stream<Content> rows = streamByType(type)) {
+            Iterator<Content> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Content content = iterator.next();
+                generator.writeObject(convertToDTO(content));
+                entityManager.detach(content);
+                written++;
+            }
+        }
+        generator.writeEndArray();
+        generator.flush();
+        logger.debug("Streamed {} content items (type={})", written, type);
+        return written;
+    }
+    
+    private Stream<Content> streamByType(String type) {
+        if (type == null) {
+            return contentRepository.streamAll();
+        } else if ("MOVIE".equals(type)) {
+            return contentRepository.streamAllMovies();
+        } else if ("TV_SERIES".equals(type)) {
+            return contentRepository.streamAllTVSeries();
+        } else {
+            throw new InvalidContentTypeException(type);
+        }
     }
     
     /**
      * Search content by title
      */
+    @Transactional(readOnly = true)
     public List<ContentResponseDTO> searchByTitle(String title) {
         return contentRepository.findByTitleContainingIgnoreCase(title)
             .stream()
@@ -146,35 +283,132 @@ public class ContentService {
     }
     
     /**
-     * Get content by genre
+     * Get content by genre (any spelling of the genre matches; an unknown genre needs no query)
      */
     public List<ContentResponseDTO> getByGenre(String genre) {
-        return contentRepository.findByGenre(genre)
+        return genreDictionary.find(genre)
+            .map(entry -> readOnly("getByGenre", () -> getByGenreId(entry.getId())))
+            .orElseGet(List::of);
+    }
+    
+    /**
+     * Get content by genre dictionary ID
+     */
+    @Transactional(readOnly = true)
+    public List<ContentResponseDTO> getByGenreId(Integer genreId) {
+        return contentRepository.findByGenreId(genreId)
             .stream()
             .map(this::convertToDTO)
             .collect(Collectors.toList());
     }
     
     /**
-     * Get top-rated content
+     * Get the genre dictionary
      */
-    public List<ContentResponseDTO> getTopRated(Double minRating) {
-        return contentRepository.findByRatingGreaterThanEqual(minRating)
+    public List<GenreDTO> getGenres() {
+        return genreDictionary.all()
             .stream()
-            .map(this::convertToDTO)
+            .map(genre -> new GenreDTO(genre.getId(), genre.getName()))
+            .collect(Collectors.toList());
+    }
+    
+    /**
+     * Get top-rated content, highest rating first
+     * 
+     * @param minRating Minimum rating (inclusive)
+     * @param limit Maximum number of results
+     */
+    public List<ContentResponseDTO> getTopRated(Double minRating, int limit) {
+        if (!leaderboards.isReady()) {
+            return readOnly("getTopRated", () -> contentRepository.findByRatingGreaterThanEqual(minRating)
+                .stream()
+                .sorted(Comparator.comparing(Content::getRating).reversed().thenComparing(Content::getId))
+                .limit(limit)
+                .map(this::convertToDTO)
+                .collect(Collectors.toList()));
+        }
+        List<RankedIndex.Entry> entries = leaderboards.atLeast(
+            LeaderboardMetric.RATING, ContentLeaderboards.scope(null, null), minRating, limit);
+        return resolveEntries(entries).stream()
+            .map(LeaderboardEntryDTO::getContent)
             .collect(Collectors.toList());
     }
     
     /**
      * Get most-viewed content
      */
-    public List<ContentResponseDTO> getMostViewed() {
-        return contentRepository.findTop10ByOrderByViewCountDesc()
-            .stream()
-            .map(this::convertToDTO)
+    public List<ContentResponseDTO> getMostViewed(int limit) {
+        if (!leaderboards.isReady()) {
+            return readOnly("getMostViewed", () ->
+                contentRepository.findAllByOrderByViewCountDescIdAsc(PageRequest.of(0, limit))
+                    .stream()
+                    .map(this::convertToDTO)
+                    .collect(Collectors.toList()));
+        }
+        List<RankedIndex.Entry> entries = leaderboards.top(
+            LeaderboardMetric.VIEWS, ContentLeaderboards.scope(null, null), limit);
+        return resolveEntries(entries).stream()
+            .map(LeaderboardEntryDTO::getContent)
             .collect(Collectors.toList());
     }
     
+    /**
+     * Get the top n of a leaderboard, optionally narrowed to a type and/or genre
+     * 
+     * @param metric "views" or "rating"
+     */
+    public List<LeaderboardEntryDTO> getLeaderboard(String metric, String type, String genre, int limit) {
+        List<RankedIndex.Entry> entries = leaderboards.top(
+            LeaderboardMetric.fromString(metric), ContentLeaderboards.scope(type, genre), limit);
+        return resolveEntries(entries);
+    }
+    
+    /**
+     * Get the rank of one content item in a leaderboard scope
+     * 
+     * @throws ContentNotFoundException if the content is not ranked in that scope
+     */
+    public ContentRankDTO getRank(Long id, String metric, String type, String genre) {
+        LeaderboardMetric leaderboardMetric = LeaderboardMetric.fromString(metric);
+        String scope = ContentLeaderboards.scope(type, genre);
+        ContentLeaderboards.RankPosition position = leaderboards.rank(leaderboardMetric, scope, id);
+        if (position == null) {
+            throw new ContentNotFoundException("Content " + id + " is not ranked in scope " + scope);
+        }
+        return new ContentRankDTO(id, leaderboardMetric.name(), scope,
+            position.getRank(), position.getScore(), position.getTotal());
+    }
+    
+    /**
+     * Get titles related to a content item (same genre, director or release era)
+     * 
+     * Served from RelatedContentIndex; until it is built, or for an item it has not
+     * picked up yet, the same scoring runs over the item's genre from the database.
+     * 
+     * @throws ContentNotFoundException if the content does not exist
+     */
+    public List<RelatedContentDTO> getRelated(Long id, int limit) {
+        List<RelatedContentIndex.Match> matches = relatedIndex.isReady() ? relatedIndex.relatedTo(id, limit) : null;
+        if (matches == null) {
+            matches = readOnly("getRelated", () -> {
+                Content content = contentRepository.findById(id)
+                    .orElseThrow(() -> new ContentNotFoundException(id));
+                return relatedIndex.rankCandidates(content, contentRepository.findByGenre(content.getGenre()), limit);
+            });
+        }
+        
+        List<RelatedContentDTO> result = new ArrayList<>(matches.size());
+        for (RelatedContentIndex.Match match : matches) {
+            try {
+                ContentResponseDTO content = getContentById(match.getContentId());
+                result.add(new RelatedContentDTO(match.getScore(), match.getMatchedOn(), content));
+            } catch (ContentNotFoundException e) {
+                logger.debug("Related title {} no longer exists", match.getContentId());
+            }
+        }
+        return result;
+    }
+    
     /**
      * Update content
      */
@@ -183,37 +417,109 @@ public class ContentService {
         Content content = contentRepository.findById(id)
             .orElseThrow(() -> new ContentNotFoundException(id));
         
-        if (updateDTO.getTitle() != null) {
+        // Only fields whose value actually changes are applied and reported
+        Map<String, Object> changedFields = new LinkedHashMap<>();
+        if (updateDTO.getTitle() != null && !updateDTO.getTitle().equals(content.getTitle())) {
             content.setTitle(updateDTO.getTitle());
+            changedFields.put("title", updateDTO.getTitle());
         }
-        if (updateDTO.getDescription() != null) {
+        if (updateDTO.getDescription() != null && !updateDTO.getDescription().equals(content.getDescription())) {
             content.setDescription(updateDTO.getDescription());
+            changedFields.put("description", updateDTO.getDescription());
         }
-        if (updateDTO.getGenre() != null) {
-            content.setGenre(updateDTO.getGenre());
+        if (updateDTO.getGenre() != null && !updateDTO.getGenre().isBlank()) {
+            Genre genre = genreDictionary.intern(updateDTO.getGenre());
+            if (!genre.getId().equals(content.getGenreId())) {
+                content.assignGenre(genre);
+                changedFields.put("genre", genre.getName());
+                changedFields.put("genreId", genre.getId());
+            }
         }
-        if (updateDTO.getReleaseYear() != null) {
+        if (updateDTO.getReleaseYear() != null && !updateDTO.getReleaseYear().equals(content.getReleaseYear())) {
             content.setReleaseYear(updateDTO.getReleaseYear());
+            changedFields.put("releaseYear", updateDTO.getReleaseYear());
         }
-        if (updateDTO.getRating() != null) {
+        if (updateDTO.getRating() != null && !updateDTO.getRating().equals(content.getRating())) {
+            // Once users have rated a title, its rating is derived from theirs (ContentRatingAggregator)
+            LocalDateTime now = LocalDateTime.now();
+            if (contentRepository.setManualRating(id, updateDTO.getRating(), now) == 0) {
+                throw new ContentValidationException(
+                    "Rating of content " + id + " is derived from user ratings and cannot be set");
+            }
             content.setRating(updateDTO.getRating());
+            content.setUpdatedAt(now);
+            changedFields.put("rating", updateDTO.getRating());
+        }
+        
+        if (changedFields.isEmpty()) {
+            logger.info("Content update for ID {} changed nothing", id);
+            return convertToDTO(content);
         }
         
         Content updatedContent = contentRepository.save(content);
-        logger.info("Content updated successfully: ID {}", id);
+        long version = changeLog.record(id, ContentChangeType.UPDATED);
+        logger.info("Content updated successfully: ID {} (fields: {})", id, changedFields.keySet());
+        
+        eventOutbox.enqueue(ContentEventMessage.forContentUpdated(
+            id,
+            version,
+            updatedContent.getTitle(),
+            updatedContent.getContentType(),
+            updatedContent.getGenre(),
+            updatedContent.getReleaseYear(),
+            changedFields
+        ));
+        applicationEventPublisher.publishEvent(ContentChangedEvent.forContent(updatedContent, ContentChangeType.UPDATED));
         
         return convertToDTO(updatedContent);
     }
     
     /**
-     * Increment view count
+     * Increment view count (a single in-place UPDATE, so concurrent views are never lost)
      */
     @Transactional
     public void incrementViewCount(Long id) {
-        Content content = contentRepository.findById(id)
-            .orElseThrow(() -> new ContentNotFoundException(id));
-        content.setViewCount(content.getViewCount() + 1);
-        contentRepository.save(content);
+        if (contentRepository.incrementViewCount(id, LocalDateTime.now()) == 0) {
+            throw new ContentNotFoundException(id);
+        }
+        changeLog.record(id, ContentChangeType.VIEWED);
+        applicationEventPublisher.publishEvent(new ContentChangedEvent(id, ContentChangeType.VIEWED));
+    }
+    
+    /**
+     * Announce rating aggregates already written in the caller's transaction
+     * (ContentRatingAggregator updates the columns with plain SQL, so each row is
+     * re-read here for the change log, outbox events and cache/leaderboard refresh;
+     * the log entries and the events are each written as one batch)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishRatingChanges(Collection<Long> contentIds) {
+        List<Content> rated = contentRepository.findAllById(contentIds);
+        List<Long> versions = changeLog.record(
+            rated.stream().map(Content::getId).toList(), ContentChangeType.UPDATED);
+        List<ContentEventMessage> events = new ArrayList<>(rated.size());
+        for (int i = 0; i < rated.size(); i++) {
+            Content content = rated.get(i);
+            
+            Map<String, Object> changedFields = new LinkedHashMap<>();
+            changedFields.put("rating", content.getRating());
+            changedFields.put("ratingCount", content.getRatingCount());
+            events.add(ContentEventMessage.forContentUpdated(
+                content.getId(),
+                versions.get(i),
+                content.getTitle(),
+                content.getContentType(),
+                content.getGenre(),
+                content.getReleaseYear(),
+                changedFields
+            ));
+        }
+        
+        eventOutbox.enqueue(events);
+        for (Content content : rated) {
+            applicationEventPublisher.publishEvent(
+                ContentChangedEvent.forContent(content, ContentChangeType.UPDATED));
+        }
     }
     
     /**
@@ -225,7 +531,114 @@ public class ContentService {
             throw new ContentNotFoundException(id);
         }
         contentRepository.deleteById(id);
+        long version = changeLog.record(id, ContentChangeType.DELETED);
         logger.info("Content deleted successfully: ID {}", id);
+        eventOutbox.enqueue(ContentEventMessage.forContentDeleted(id, version));
+        applicationEventPublisher.publishEvent(new ContentChangedEvent(id, ContentChangeType.DELETED));
+    }
+    
+    /**
+     * Read the catalog change feed
+     * 
+     * Changes in the page are coalesced per content ID (latest wins) and carry
+     * current state, so applying a page in order converges a replica to the catalog:
+     * - a delete anywhere in the page, or content no longer present -> DELETED
+     * - otherwise any create/update -> full content
+     * - otherwise view-count changes only -> viewCount
+     * 
+     * @param since Last version the caller has applied (0 for a full sync)
+     * @param limit Maximum number of log entries to read
+     * @return Page of compact deltas plus the cursor for the next call
+     */
+    @Transactional(readOnly = true)
+    public ContentChangeFeedDTO getChangesSince(long since, int limit) {
+        List<ContentChange> page = changeRepository.findByVersionGreaterThanOrderByVersionAsc(
+            since, PageRequest.of(0, limit + 1));
+        boolean hasMore = page.size() > limit;
+        if (hasMore) {
+            page = page.subList(0, limit);
+        }
+        
+        // Coalesce: keep the strongest change per content, ordered by its latest version
+        Map<Long, ContentChange> latest = new LinkedHashMap<>();
+        Map<Long, ContentChangeType> strongest = new LinkedHashMap<>();
+        for (ContentChange change : page) {
+            latest.remove(change.getContentId());
+            latest.put(change.getContentId(), change);
+            strongest.merge(change.getContentId(), change.getChangeType(), ContentService::strongerChange);
+        }
+        
+        Map<Long, Content> current = contentRepository.findAllById(latest.keySet())
+            .stream()
+            .collect(Collectors.toMap(Content::getId, Function.identity()));
+        
+        List<ContentChangeDTO> changes = new ArrayList<>(latest.size());
+        for (ContentChange change : latest.values()) {
+            Long contentId = change.getContentId();
+            Content content = current.get(contentId);
+            ContentChangeType type = strongest.get(contentId);
+            
+            if (content == null || type == ContentChangeType.DELETED) {
+                changes.add(new ContentChangeDTO(change.getVersion(), contentId, 
+                    ContentChangeType.DELETED.name(), null, null));
+            } else {
+                // Views too: the row is loaded anyway, and a reader that never saw the
+                // title's create (e.g. a replica bootstrapping) gets its fields from any change
+                changes.add(new ContentChangeDTO(change.getVersion(), contentId, 
+                    type.name(), content.getViewCount(), convertToDTO(content)));
+            }
+        }
+        
+        long nextSince = page.isEmpty() ? since : page.get(page.size() - 1).getVersion();
+        return new ContentChangeFeedDTO(since, nextSince, hasMore, changes);
+    }
+    
+    /**
+     * Run a database read in a read-only transaction named after the public method it
+     * serves, as @Transactional(readOnly = true) on that method would name it, so
+     * ReplicaRoutingDataSource can send it to a replica. Lookups answered from the cache
+     * or the in-memory indexes call this only on the path that queries, and so never
+     * begin a transaction or check out a connection.
+     */
+    private <T> T readOnly(String method, Supplier<T> read) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.setName(ContentService.class.getName() + "." + method);
+        return template.execute(status -> read.get());
+    }
+    
+    /**
+     * Attach content details to leaderboard entries via the by-ID cache.
+     * Entries deleted since they were read are skipped; ranks follow the list order.
+     */
+    private List<LeaderboardEntryDTO> resolveEntries(List<RankedIndex.Entry> entries) {
+        List<LeaderboardEntryDTO> result = new ArrayList<>(entries.size());
+        for (RankedIndex.Entry entry : entries) {
+            try {
+                ContentResponseDTO content = getContentById(entry.getContentId());
+                result.add(new LeaderboardEntryDTO(result.size() + 1, entry.getScore(), content));
+            } catch (ContentNotFoundException e) {
+                logger.debug("Leaderboard entry {} no longer exists", entry.getContentId());
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Order of precedence when coalescing: DELETED > CREATED > UPDATED > VIEWED
+     * (a re-created ID cannot happen, so DELETED is always final)
+     */
+    private static ContentChangeType strongerChange(ContentChangeType a, ContentChangeType b) {
+        return rank(a) >= rank(b) ? a : b;
+    }
+    
+    private static int rank(ContentChangeType type) {
+        switch (type) {
+            case DELETED: return 3;
+            case CREATED: return 2;
+            case UPDATED: return 1;
+            default: return 0;
+        }
     }
     
     /**
@@ -247,6 +660,20 @@ public class ContentService {
         }
     }
     
+    /**
+     * Build the CONTENT_CREATED queue message for saved content
+     */
+    private ContentEventMessage createdEvent(Content content, long version) {
+        return ContentEventMessage.forContentCreated(
+            content.getId(),
+            version,
+            content.getTitle(),
+            content.getContentType(),
+            content.getGenre(),
+            content.getReleaseYear()
+        );
+    }
+    
     /**
      * Convert Content entity to DTO
      */
@@ -257,8 +684,10 @@ public class ContentService {
             .title(content.getTitle())
             .description(content.getDescription())
             .genre(content.getGenre())
+            .genreId(content.getGenreId())
             .releaseYear(content.getReleaseYear())
             .rating(content.getRating())
+            .ratingCount(content.getRatingCount())
             .viewCount(content.getViewCount())
             .createdAt(content.getCreatedAt())
             .updatedAt(content.getUpdatedAt())
@@ -0,0 +1,143 @@
+package com.example.contentservice.service;
+
+import com.example.contentservice.model.Genre;
+import com.example.contentservice.repository.GenreRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory, write-through genre dictionary (genres table).
+ * 
+ * intern() maps free-text genre input to one shared Genre per normalized name
+ * ("  sci-fi", "Sci-Fi" and "SCI-FI" are the same genre), inserting new genres
+ * on first use. Lookups after startup never touch the database; the dictionary
+ * is tiny and only ever grows.
+ * 
+ * New genres are inserted in their own transaction so a rolled-back content
+ * write never leaves the cache pointing at a genre row that does not exist.
+ */
+@Component
+public class GenreDictionary {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GenreDictionary.class);
+    
+    private final GenreRepository genreRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    
+    private final Map<String, Genre> byNormalizedName = new ConcurrentHashMap<>();
+    private final Map<Integer, Genre> byId = new ConcurrentHashMap<>();
+    
+    public GenreDictionary(GenreRepository genreRepository, JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager) {
+        this.genreRepository = genreRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    /**
+     * Normalized dictionary key: trimmed, inner whitespace collapsed, lower case
+     */
+    public static String normalize(String genre) {
+        return genre.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Return the dictionary entry for a genre, creating it on first use
+     * 
+     * @param genre Free-text genre (must not be blank)
+     */
+    public Genre intern(String genre) {
+        String key = normalize(genre);
+        Genre cached = byNormalizedName.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        String displayName = genre.trim().replaceAll("\\s+", " ");
+        Genre stored;
+        try {
+            stored = newTransaction.execute(status -> genreRepository.findByNormalizedName(key)
+                .orElseGet(() -> genreRepository.saveAndFlush(new Genre(displayName, key))));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance inserted the same genre concurrently
+            stored = genreRepository.findByNormalizedName(key).orElseThrow(() -> e);
+        }
+        remember(stored);
+        logger.info("GenreDictionary: interned genre '{}' as ID {}", stored.getName(), stored.getId());
+        return stored;
+    }
+    
+    /**
+     * Look up a genre without creating it
+     */
+    public Optional<Genre> find(String genre) {
+        if (genre == null || genre.isBlank()) {
+            return Optional.empty();
+        }
+        String key = normalize(genre);
+        Genre cached = byNormalizedName.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Genre> stored = genreRepository.findByNormalizedName(key);
+        stored.ifPresent(this::remember);
+        return stored;
+    }
+    
+    public Optional<Genre> findById(Integer id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+    
+    /**
+     * All known genres, ordered by ID
+     */
+    public List<Genre> all() {
+        List<Genre> genres = new ArrayList<>(byId.values());
+        genres.sort(Comparator.comparing(Genre::getId));
+        return genres;
+    }
+    
+    /**
+     * Load the dictionary and attach genre IDs to content written before it existed.
+     * Runs before other ready listeners (e.g. leaderboards) so they see canonical genres.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void initialize() {
+        genreRepository.findAll().forEach(this::remember);
+        
+        List<String> unassigned = jdbcTemplate.queryForList(
+            "SELECT DISTINCT genre FROM content WHERE genre_id IS NULL", String.class);
+        int updated = 0;
+        for (String genre : unassigned) {
+            Genre entry = intern(genre);
+            updated += jdbcTemplate.update(
+                "UPDATE content SET genre_id = ?, genre = ? WHERE genre_id IS NULL AND genre = ?",
+                entry.getId(), entry.getName(), genre);
+        }
+        logger.info("GenreDictionary: {} genres loaded, {} content rows backfilled", byId.size(), updated);
+    }
+    
+    private void remember(Genre genre) {
+        byNormalizedName.put(genre.getNormalizedName(), genre);
+        byId.put(genre.getId(), genre);
+    }
+}
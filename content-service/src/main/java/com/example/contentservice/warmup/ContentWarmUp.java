@@ -0,0 +1,193 @@
+package com.example.contentservice.warmup;
+
+import com.example.contentservice.leaderboard.ContentLeaderboards;
+import com.example.contentservice.related.RelatedContentIndex;
+import com.example.contentservice.service.ContentService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup warm-up, and the "warmUp" health indicator that gates readiness on it.
+ *
+ * Once the application is ready, a background thread:
+ * 1. Waits (bounded) for the leaderboards and related-titles index to finish building
+ * 2. Loads the most-viewed content into the by-ID cache in one query
+ * 3. If request-rounds > 0, sends that many rounds of synthetic GETs over loopback to the
+ *    hot read endpoints (by ID, related, leaderboards, genres), rotating through the
+ *    preloaded IDs
+ *
+ * Step 3 is off by default (request-rounds: 0). Each round is three requests, and
+ * tiered compilation only reaches C2 after roughly 5,000-15,000 invocations of a method,
+ * so JIT priming needs a few thousand rounds and a max-duration-ms that leaves time for
+ * them. Even a few rounds load the classes, reach C1, and open the database and HTTP
+ * connection pools on the request path. The cache preload alone removes the cold-cache
+ * phase, where every request for a popular title misses.
+ *
+ * The indicator reports OUT_OF_SERVICE until this finishes. It is part of the readiness
+ * group (management.endpoint.health.group.readiness), so load balancers and dependent
+ * services only route here once the caches are warm. Warm-up never blocks readiness for
+ * much longer than max-duration-ms: waiting for the indexes and sending requests both stop
+ * at that deadline.
+ *
+ * Metrics: content.warmup.duration (timer) and content.startup.time-to-ready
+ * (seconds from JVM start until ready).
+ */
+@Component("warmUp")
+public class ContentWarmUp implements HealthIndicator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ContentWarmUp.class);
+    
+    private final ContentService contentService;
+    private final ContentLeaderboards leaderboards;
+    private final RelatedContentIndex relatedIndex;
+    private final RestTemplate restTemplate;
+    private final MeterRegistry meterRegistry;
+    
+    private final boolean enabled;
+    private final int preloadSize;
+    private final int requestRounds;
+    private final long maxDurationMs;
+    
+    private volatile boolean complete;
+    private volatile int preloaded;
+    private volatile int requestsSent;
+    private volatile int requestsFailed;
+    private volatile long durationMs;
+    private volatile double timeToReadySeconds = Double.NaN;
+    
+    public ContentWarmUp(ContentService contentService,
+                         ContentLeaderboards leaderboards,
+                         RelatedContentIndex relatedIndex,
+                         RestTemplateBuilder restTemplateBuilder,
+                         MeterRegistry meterRegistry,
+                         @Value("${content.warmup.enabled:true}") boolean enabled,
+                         @Value("${content.warmup.preload-size:1000}") int preloadSize,
+                         @Value("${content.warmup.request-rounds:0}") int requestRounds,
+                         @Value("${content.warmup.max-duration-ms:60000}") long maxDurationMs) {
+        this.contentService = contentService;
+        this.leaderboards = leaderboards;
+        this.relatedIndex = relatedIndex;
+        this.restTemplate = restTemplateBuilder
+            .setConnectTimeout(Duration.ofSeconds(2))
+            .setReadTimeout(Duration.ofSeconds(5))
+            .build();
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.preloadSize = preloadSize;
+        this.requestRounds = requestRounds;
+        this.maxDurationMs = maxDurationMs;
+        Gauge.builder("content.startup.time-to-ready", this, w -> w.timeToReadySeconds)
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start(ApplicationReadyEvent event) {
+        if (!enabled) {
+            finish(0);
+            return;
+        }
+        int port = event.getApplicationContext() instanceof WebServerApplicationContext webContext
+            ? webContext.getWebServer().getPort()
+            : -1;
+        Thread thread = new Thread(() -> run(port), "content-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    @Override
+    public Health health() {
+        Health.Builder builder = complete ? Health.up() : Health.outOfService();
+        return builder
+            .withDetail("preloaded", preloaded)
+            .withDetail("requestsSent", requestsSent)
+            .withDetail("requestsFailed", requestsFailed)
+            .withDetail("durationMs", durationMs)
+            .build();
+    }
+    
+    private void run(int port) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+        try {
+            awaitIndexes(deadline);
+            
+            List<Long> hotIds = contentService.preloadMostViewed(preloadSize);
+            preloaded = hotIds.size();
+            logger.info("ContentWarmUp: preloaded {} most-viewed items into the cache", preloaded);
+            
+            if (requestRounds > 0 && port > 0 && !hotIds.isEmpty()) {
+                sendRequests("http://localhost:" + port + "/api/content", hotIds, deadline);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("ContentWarmUp: warm-up failed, reporting ready anyway: {}", e.getMessage(), e);
+        } finally {
+            finish(System.nanoTime() - start);
+        }
+    }
+    
+    private void awaitIndexes(long deadline) {
+        while (!(leaderboards.isReady() && relatedIndex.isReady()) && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Rotate through the hot IDs, hitting the by-ID and related endpoints for one ID and
+     * one of the list endpoints per round
+     */
+    private void sendRequests(String baseUrl, List<Long> hotIds, long deadline) {
+        List<String> listPaths = List.of("/most-viewed", "/top-rated", "/leaderboard/views", "/leaderboard/rating", "/genres");
+        for (int round = 0; round < requestRounds; round++) {
+            Long id = hotIds.get(round % hotIds.size());
+            List<String> paths = List.of("/" + id, "/" + id + "/related", listPaths.get(round % listPaths.size()));
+            
+            for (String path : paths) {
+                if (System.nanoTime() >= deadline) {
+                    logger.warn("ContentWarmUp: max duration reached after {} of {} rounds ({} requests)",
+                        round, requestRounds, requestsSent);
+                    return;
+                }
+                try {
+                    restTemplate.getForEntity(baseUrl + path, byte[].class);
+                } catch (RuntimeException e) {
+                    requestsFailed++;
+                    logger.debug("ContentWarmUp: GET {} failed: {}", path, e.getMessage());
+                }
+                requestsSent++;
+            }
+        }
+        logger.info("ContentWarmUp: sent {} requests in {} rounds ({} failed)", requestsSent, requestRounds, requestsFailed);
+    }
+    
+    private void finish(long elapsedNanos) {
+        durationMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        Timer.builder("content.warmup.duration").register(meterRegistry).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        timeToReadySeconds = ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0;
+        complete = true;
+        logger.info("ContentWarmUp: ready after {} ms of warm-up ({} s since JVM start)",
+            durationMs, timeToReadySeconds);
+    }
+}
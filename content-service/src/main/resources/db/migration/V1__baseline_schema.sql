@@ -0,0 +1,48 @@
+-- Baseline content-service schema, matching the JPA entities.
+-- IF NOT EXISTS throughout: databases created earlier by ddl-auto=update are
+-- baselined at version 0 (spring.flyway.baseline-on-migrate) and run this as a no-op.
+
+CREATE SEQUENCE IF NOT EXISTS content_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS content (
+    id                  BIGINT       NOT NULL PRIMARY KEY,
+    content_type        VARCHAR(31)  NOT NULL,
+    title               VARCHAR(200) NOT NULL,
+    description         VARCHAR(1000),
+    genre               VARCHAR(50)  NOT NULL,
+    genre_id            INTEGER,
+    release_year        INTEGER,
+    rating              FLOAT(53)    NOT NULL,
+    view_count          BIGINT       NOT NULL,
+    created_at          TIMESTAMP(6) NOT NULL,
+    updated_at          TIMESTAMP(6) NOT NULL,
+    duration            INTEGER,
+    director            VARCHAR(100),
+    seasons             INTEGER,
+    episodes_per_season INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS genres (
+    id              INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name            VARCHAR(50) NOT NULL,
+    normalized_name VARCHAR(50) NOT NULL UNIQUE
+);
+
+CREATE SEQUENCE IF NOT EXISTS content_change_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS content_changes (
+    version     BIGINT       NOT NULL PRIMARY KEY,
+    content_id  BIGINT       NOT NULL,
+    change_type VARCHAR(20)  NOT NULL,
+    changed_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE SEQUENCE IF NOT EXISTS content_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS content_outbox (
+    id         BIGINT       NOT NULL PRIMARY KEY,
+    event_type VARCHAR(30)  NOT NULL,
+    content_id BIGINT       NOT NULL,
+    payload    TEXT         NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
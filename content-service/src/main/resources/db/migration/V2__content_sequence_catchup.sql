@@ -0,0 +1,3 @@
+-- Content IDs moved from IDENTITY to the pooled sequence content_seq (increment 50).
+-- Move the sequence past any IDs already handed out so existing rows never collide.
+SELECT setval('content_seq', GREATEST((SELECT last_value FROM content_seq), (SELECT COALESCE(MAX(id), 0) FROM content) + 50));
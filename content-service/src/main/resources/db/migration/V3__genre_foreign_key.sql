@@ -0,0 +1,11 @@
+-- content.genre_id references the genre dictionary.
+-- Rows written before the dictionary existed keep genre_id NULL until
+-- GenreDictionary backfills them at startup.
+-- Databases created by ddl-auto before the dictionary existed have no genre_id
+-- column at all (V1 is a no-op on an existing content table), so add it first.
+ALTER TABLE content ADD COLUMN IF NOT EXISTS genre_id INTEGER;
+
+CREATE INDEX IF NOT EXISTS idx_content_genre_id ON content (genre_id);
+
+ALTER TABLE content DROP CONSTRAINT IF EXISTS fk_content_genre;
+ALTER TABLE content ADD CONSTRAINT fk_content_genre FOREIGN KEY (genre_id) REFERENCES genres (id);
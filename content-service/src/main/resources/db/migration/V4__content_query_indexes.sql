@@ -0,0 +1,28 @@
+-- Indexes for the ContentRepository hot queries.
+-- ContentQueryPlanTest asserts each query below is answered by the index noted.
+
+-- findByTitleContainingIgnoreCase(AndGenre): upper(title) LIKE upper('%term%')
+-- A leading wildcard cannot use a B-tree; a trigram GIN index on the same expression can.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_content_title_trgm ON content USING gin (upper(title) gin_trgm_ops);
+
+-- findByGenre
+CREATE INDEX IF NOT EXISTS idx_content_genre ON content (genre);
+
+-- findByReleaseYear
+CREATE INDEX IF NOT EXISTS idx_content_release_year ON content (release_year);
+
+-- findByRatingGreaterThanEqual, top-rated leaderboard rebuilds
+CREATE INDEX IF NOT EXISTS idx_content_rating ON content (rating DESC);
+
+-- findTop10ByOrderByViewCountDesc: reads the first 10 index entries, no sort
+CREATE INDEX IF NOT EXISTS idx_content_view_count ON content (view_count DESC);
+
+-- findAllMovies / findAllTVSeries: TYPE(c) filters on the discriminator.
+-- With only two values a full index on content_type is rarely chosen; partial
+-- indexes hold just one type each.
+CREATE INDEX IF NOT EXISTS idx_content_movies ON content (id) WHERE content_type = 'MOVIE';
+CREATE INDEX IF NOT EXISTS idx_content_tv_series ON content (id) WHERE content_type = 'TV_SERIES';
+
+-- Change feed compaction: "is there a later change for this content?"
+CREATE INDEX IF NOT EXISTS idx_content_changes_content_version ON content_changes (content_id, version);
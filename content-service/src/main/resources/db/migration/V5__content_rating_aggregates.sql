@@ -0,0 +1,5 @@
+-- Running aggregate of user ratings (1-5 stars) per content, fed by the content.ratings queue.
+-- rating stays the displayed 0-10 value and is derived from these in the same UPDATE
+-- (rating_sum * 2 / rating_count), so reads and the rating index are unchanged.
+ALTER TABLE content ADD COLUMN IF NOT EXISTS rating_sum DOUBLE PRECISION NOT NULL DEFAULT 0;
+ALTER TABLE content ADD COLUMN IF NOT EXISTS rating_count BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+-- CatalogVersion reads the latest non-view change for list ETags every second.
+-- Views make up most of the log, so without this index MAX(version) would walk back
+-- through every view since the last create/update/delete.
+CREATE INDEX IF NOT EXISTS idx_content_changes_non_view ON content_changes (version) WHERE change_type <> 'VIEWED';
@@ -0,0 +1,14 @@
+-- Every live title needs a create or update in content_changes, or a full sync of the
+-- change feed (since=0) never receives its fields. That was missing for titles that
+-- existed before the change log, and for titles whose create/update an earlier
+-- compaction let a later view supersede. Record them as CREATED, in ID order.
+INSERT INTO content_changes (version, content_id, change_type, changed_at)
+SELECT nextval('content_change_seq'), c.id, 'CREATED', now()
+FROM (
+    SELECT id FROM content c
+    WHERE NOT EXISTS (
+        SELECT 1 FROM content_changes x
+        WHERE x.content_id = c.id AND x.change_type IN ('CREATED', 'UPDATED')
+    )
+    ORDER BY id
+) c;
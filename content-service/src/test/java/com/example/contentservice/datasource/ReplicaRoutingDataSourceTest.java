@@ -0,0 +1,159 @@
+package com.example.contentservice.datasource;
+
+import com.example.contentservice.event.ContentChangedEvent;
+import com.example.contentservice.model.ContentChangeType;
+import com.example.contentservice.service.ContentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing checks against two embedded PostgreSQL servers standing in for the
+ * primary and one replica. Each holds a one-row table naming itself, so a query
+ * shows which server a transaction was routed to.
+ *
+ * Transactions run through a real transaction manager over the lazy proxy, the
+ * same arrangement as DataSourceRoutingConfig, so the tests also cover that the
+ * read-only flag and transaction name are set before the connection is chosen.
+ */
+class ReplicaRoutingDataSourceTest {
+    
+    private static final String SERVICE_READ = ContentService.class.getName() + ".getContentById";
+    private static final String REPOSITORY_READ =
+        "org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById";
+    
+    private static EmbeddedPostgres primary;
+    private static EmbeddedPostgres replica;
+    
+    private final ReadYourWritesTracker readYourWrites = new ReadYourWritesTracker(10000);
+    
+    @BeforeAll
+    static void startDatabases() throws Exception {
+        primary = EmbeddedPostgres.start();
+        replica = EmbeddedPostgres.start();
+        nameServer(primary.getPostgresDatabase(), "primary");
+        nameServer(replica.getPostgresDatabase(), "replica");
+    }
+    
+    @AfterAll
+    static void stopDatabases() throws Exception {
+        if (primary != null) {
+            primary.close();
+        }
+        if (replica != null) {
+            replica.close();
+        }
+    }
+    
+    @AfterEach
+    void clearCaller() {
+        ReadYourWritesTracker.clearCaller();
+    }
+    
+    @Test
+    void writeTransactionsUsePrimary() {
+        ReplicaRoutingDataSource routing = routing(10000);
+        assertThat(serverFor(routing, SERVICE_READ, false)).isEqualTo("primary");
+    }
+    
+    @Test
+    void readOnlyServiceTransactionsUseReplica() {
+        ReplicaRoutingDataSource routing = routing(10000);
+        assertThat(serverFor(routing, SERVICE_READ, true)).isEqualTo("replica");
+    }
+    
+    @Test
+    void readOnlyRepositoryTransactionsStayOnPrimary() {
+        ReplicaRoutingDataSource routing = routing(10000);
+        assertThat(serverFor(routing, REPOSITORY_READ, true)).isEqualTo("primary");
+    }
+    
+    @Test
+    void callerReadsItsOwnWritesFromPrimary() {
+        ReplicaRoutingDataSource routing = routing(10000);
+        
+        ReadYourWritesTracker.bindCaller("client-a");
+        readYourWrites.onContentChanged(new ContentChangedEvent(1L, ContentChangeType.UPDATED));
+        assertThat(serverFor(routing, SERVICE_READ, true)).isEqualTo("primary");
+        
+        ReadYourWritesTracker.bindCaller("client-b");
+        assertThat(serverFor(routing, SERVICE_READ, true)).isEqualTo("replica");
+    }
+    
+    @Test
+    void viewCountChangesDoNotPinCallerToPrimary() {
+        ReplicaRoutingDataSource routing = routing(10000);
+        
+        ReadYourWritesTracker.bindCaller("video-service");
+        readYourWrites.onContentChanged(new ContentChangedEvent(1L, ContentChangeType.VIEWED));
+        assertThat(serverFor(routing, SERVICE_READ, true)).isEqualTo("replica");
+    }
+    
+    @Test
+    void pinnedReadsUsePrimary() {
+        ReplicaRoutingDataSource routing = routing(10000);
+        assertThat(readYourWrites.onPrimary(() -> serverFor(routing, SERVICE_READ, true))).isEqualTo("primary");
+    }
+    
+    @Test
+    void replicaBeyondMaxLagIsSkipped() {
+        // Lag is measured as 0 here (the replica is not in recovery), so any negative limit excludes it
+        ReplicaRoutingDataSource routing = routing(-1);
+        assertThat(serverFor(routing, SERVICE_READ, true)).isEqualTo("primary");
+    }
+    
+    @Test
+    void replicaIsUnusedUntilItsLagIsMeasured() {
+        ReplicaRoutingDataSource routing = unmeasuredRouting(10000);
+        assertThat(serverFor(routing, SERVICE_READ, true)).isEqualTo("primary");
+        
+        routing.checkReplicaLag();
+        assertThat(serverFor(routing, SERVICE_READ, true)).isEqualTo("replica");
+    }
+    
+    /**
+     * Routing after its first lag check, as it runs once the scheduler starts
+     */
+    private ReplicaRoutingDataSource routing(long maxLagMs) {
+        ReplicaRoutingDataSource routing = unmeasuredRouting(maxLagMs);
+        routing.checkReplicaLag();
+        return routing;
+    }
+    
+    private ReplicaRoutingDataSource unmeasuredRouting(long maxLagMs) {
+        return new ReplicaRoutingDataSource(primary.getPostgresDatabase(),
+            Map.of("content-replica-1", replica.getPostgresDatabase()),
+            readYourWrites, ContentService.class.getName() + ".", maxLagMs, new SimpleMeterRegistry());
+    }
+    
+    private static String serverFor(ReplicaRoutingDataSource routing, String transactionName, boolean readOnly) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setName(transactionName);
+        transaction.setReadOnly(readOnly);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM server_name", String.class));
+    }
+    
+    private static void nameServer(DataSource dataSource, String name) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE server_name (name TEXT NOT NULL)");
+            statement.execute("INSERT INTO server_name VALUES ('" + name + "')");
+        }
+    }
+}
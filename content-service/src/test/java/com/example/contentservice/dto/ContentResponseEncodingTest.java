@@ -0,0 +1,123 @@
+package com.example.contentservice.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Payload size and (de)serialization time of ContentResponseDTO lists, JSON vs CBOR,
+ * and a lossless round trip in both formats.
+ * 
+ * Both mappers are built the way the application builds them (Jackson2ObjectMapperBuilder),
+ * so the sizes are what goes over the wire between services. Times are logged for
+ * comparison and never asserted: they depend on the machine and on what else runs with
+ * the build, so a threshold would only make the build flaky. Each mapper is warmed up
+ * first, so the JIT has compiled the hot paths of both before anything is timed.
+ */
+class ContentResponseEncodingTest {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ContentResponseEncodingTest.class);
+    
+    private static final int ITEMS = 500;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 500;
+    
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+    private final TypeReference<List<ContentResponseDTO>> listType = new TypeReference<>() { };
+    
+    @Test
+    void cborIsSmallerAndRoundTrips() throws IOException {
+        List<ContentResponseDTO> page = samplePage();
+        
+        byte[] jsonBytes = json.writeValueAsBytes(page);
+        byte[] cborBytes = cbor.writeValueAsBytes(page);
+        logger.info("{} items: JSON {} bytes, CBOR {} bytes ({}% of JSON)",
+            ITEMS, jsonBytes.length, cborBytes.length, 100 * cborBytes.length / jsonBytes.length);
+        
+        assertThat(cborBytes.length).isLessThan(jsonBytes.length);
+        assertThat(cbor.readValue(cborBytes, listType)).isEqualTo(page);
+        assertThat(json.readValue(jsonBytes, listType)).isEqualTo(page);
+    }
+    
+    @Test
+    void logsSerializationTimes() throws IOException {
+        List<ContentResponseDTO> page = samplePage();
+        
+        Timing jsonTiming = measure(json, page);
+        Timing cborTiming = measure(cbor, page);
+        logger.info("{} items, mean of {} rounds: JSON write {} us, read {} us; CBOR write {} us, read {} us",
+            ITEMS, MEASURED_ROUNDS,
+            Math.round(jsonTiming.writeMicros), Math.round(jsonTiming.readMicros),
+            Math.round(cborTiming.writeMicros), Math.round(cborTiming.readMicros));
+    }
+    
+    private Timing measure(ObjectMapper mapper, List<ContentResponseDTO> page) throws IOException {
+        byte[] encoded = mapper.writeValueAsBytes(page);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(page), listType);
+        }
+        
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            mapper.writeValueAsBytes(page);
+        }
+        long writeNanos = System.nanoTime() - start;
+        
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            mapper.readValue(encoded, listType);
+        }
+        long readNanos = System.nanoTime() - start;
+        
+        return new Timing(writeNanos / 1000.0 / MEASURED_ROUNDS, readNanos / 1000.0 / MEASURED_ROUNDS);
+    }
+    
+    private static List<ContentResponseDTO> samplePage() {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000);
+        List<ContentResponseDTO> page = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            ContentResponseDTO.ContentResponseDTOBuilder dto = ContentResponseDTO.builder()
+                .id((long) i + 1)
+                .title("Sample title number " + i)
+                .description("A reasonably long description of sample content " + i
+                    + ", the kind of text every catalog entry carries.")
+                .genre(i % 3 == 0 ? "Drama" : "Sci-Fi")
+                .genreId(i % 3 == 0 ? 1 : 2)
+                .releaseYear(1980 + i % 40)
+                .rating((i % 100) / 10.0)
+                .viewCount(i * 1_337L)
+                .createdAt(now.minusDays(i))
+                .updatedAt(now);
+            if (i % 2 == 0) {
+                dto.type("MOVIE").duration(90 + i % 60).director("Director " + i % 50);
+            } else {
+                dto.type("TV_SERIES").seasons(1 + i % 8).episodesPerSeason(8 + i % 16);
+            }
+            page.add(dto.build());
+        }
+        return page;
+    }
+    
+    private static final class Timing {
+        
+        private final double writeMicros;
+        private final double readMicros;
+        
+        private Timing(double writeMicros, double readMicros) {
+            this.writeMicros = writeMicros;
+            this.readMicros = readMicros;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.contentservice.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Flyway migrations against a database created by ddl-auto before Flyway took over
+ * the schema: only the original content table exists, without genre_id and the
+ * rating aggregates, and it already holds rows.
+ */
+class ContentMigrationTest {
+    
+    @Test
+    void migratesDatabaseCreatedBeforeFlyway() throws Exception {
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.start()) {
+            JdbcTemplate jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+            jdbc.execute("CREATE TABLE content (" +
+                "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "content_type VARCHAR(31) NOT NULL, " +
+                "title VARCHAR(200) NOT NULL, " +
+                "description VARCHAR(1000), " +
+                "genre VARCHAR(50) NOT NULL, " +
+                "release_year INTEGER, " +
+                "rating FLOAT(53) NOT NULL, " +
+                "view_count BIGINT NOT NULL, " +
+                "created_at TIMESTAMP(6) NOT NULL, " +
+                "updated_at TIMESTAMP(6) NOT NULL, " +
+                "duration INTEGER, " +
+                "director VARCHAR(100), " +
+                "seasons INTEGER, " +
+                "episodes_per_season INTEGER)");
+            jdbc.execute("INSERT INTO content (content_type, title, genre, rating, view_count, created_at, updated_at) " +
+                "VALUES ('MOVIE', 'Existing', 'Drama', 7.5, 3, now(), now())");
+            
+            Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+            
+            assertThat(jdbc.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns WHERE table_name = 'content' AND column_name = 'genre_id'",
+                Integer.class)).isEqualTo(1);
+            assertThat(jdbc.queryForObject(
+                "SELECT change_type FROM content_changes WHERE content_id = (SELECT id FROM content)",
+                String.class)).isEqualTo("CREATED");
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.contentservice.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query-plan checks for the ContentRepository hot queries.
+ *
+ * Applies the Flyway migrations to an embedded PostgreSQL and loads a few thousand
+ * rows. Each case then calls the real repository method and captures the SQL
+ * Hibernate sends for it, and that statement is prepared and EXPLAINed with the
+ * values the call binds, so a change to a derived query or its rendering is checked
+ * as it ships. Sequential scans are disabled for the EXPLAIN session, so on these
+ * small tables the planner still picks an index whenever one is usable; a plan
+ * without the expected index means the index cannot serve the query at all.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ContentQueryPlanTest {
+    
+    private static final Pattern PARAMETER = Pattern.compile("\\$\\d+");
+    
+    private static final CapturingInspector inspector = new CapturingInspector();
+    
+    private static EmbeddedPostgres postgres;
+    private static Connection connection;
+    
+    @Autowired
+    private ContentRepository contentRepository;
+    
+    @Autowired
+    private ContentChangeRepository changeRepository;
+    
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        Flyway.configure()
+            .dataSource(postgres.getPostgresDatabase())
+            .locations("classpath:db/migration")
+            .load()
+            .migrate();
+        
+        connection = postgres.getPostgresDatabase().getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO genres (name, normalized_name) VALUES " +
+                "('Drama', 'drama'), ('Comedy', 'comedy'), ('Action', 'action'), ('Sci-Fi', 'sci-fi')");
+            statement.execute("INSERT INTO content (id, content_type, title, genre, genre_id, release_year, " +
+                "rating, rating_sum, rating_count, view_count, created_at, updated_at) " +
+                "SELECT g, CASE WHEN g % 2 = 0 THEN 'MOVIE' ELSE 'TV_SERIES' END, 'Title ' || g, " +
+                "(ARRAY['Drama', 'Comedy', 'Action', 'Sci-Fi'])[1 + g % 4], 1 + g % 4, 1950 + g % 70, " +
+                "(g % 100) / 10.0, 0, 0, (g * 7919) % 100003, now(), now() " +
+                "FROM generate_series(1, 5000) g");
+            statement.execute("INSERT INTO content_changes (version, content_id, change_type, changed_at) " +
+                "SELECT g, 1 + g % 5000, CASE WHEN g % 50 = 0 THEN 'UPDATED' ELSE 'VIEWED' END, now() " +
+                "FROM generate_series(1, 20000) g");
+            statement.execute("ANALYZE");
+            statement.execute("SET enable_seqscan = off");
+        }
+    }
+    
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        if (connection != null) {
+            connection.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+    
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+    
+    static Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+            Arguments.of("findByTitleContainingIgnoreCase",
+                call((content, changes) -> content.findByTitleContainingIgnoreCase("title 12")),
+                List.of("%title 12%"),
+                List.of("idx_content_title_trgm")),
+            Arguments.of("findByTitleContainingIgnoreCaseAndGenre",
+                call((content, changes) -> content.findByTitleContainingIgnoreCaseAndGenre("title 12", "Drama")),
+                List.of("%title 12%", "Drama"),
+                List.of("idx_content_title_trgm", "idx_content_genre")),
+            Arguments.of("findByGenre",
+                call((content, changes) -> content.findByGenre("Drama")),
+                List.of("Drama"),
+                List.of("idx_content_genre")),
+            Arguments.of("findByGenreId",
+                call((content, changes) -> content.findByGenreId(2)),
+                List.of(2),
+                List.of("idx_content_genre_id")),
+            Arguments.of("findByReleaseYear",
+                call((content, changes) -> content.findByReleaseYear(1999)),
+                List.of(1999),
+                List.of("idx_content_release_year")),
+            Arguments.of("findByRatingGreaterThanEqual",
+                call((content, changes) -> content.findByRatingGreaterThanEqual(9.5)),
+                List.of(9.5),
+                List.of("idx_content_rating")),
+            Arguments.of("findTop10ByOrderByViewCountDesc",
+                call((content, changes) -> content.findTop10ByOrderByViewCountDesc()),
+                List.of(10),
+                List.of("idx_content_view_count")),
+            Arguments.of("findAllByOrderByViewCountDescIdAsc",
+                call((content, changes) -> content.findAllByOrderByViewCountDescIdAsc(PageRequest.of(0, 50))),
+                List.of(0, 50),
+                List.of("idx_content_view_count")),
+            Arguments.of("findAllMovies",
+                call((content, changes) -> content.findAllMovies()),
+                List.of(),
+                List.of("idx_content_movies")),
+            Arguments.of("findAllTVSeries",
+                call((content, changes) -> content.findAllTVSeries()),
+                List.of(),
+                List.of("idx_content_tv_series")),
+            Arguments.of("findLeaderboardRows(ids)",
+                call((content, changes) -> content.findLeaderboardRows(List.of(7L, 42L, 4711L))),
+                List.of(7L, 42L, 4711L),
+                List.of("content_pkey")),
+            Arguments.of("ContentChangeRepository.findLatestNonViewVersion",
+                call((content, changes) -> changes.findLatestNonViewVersion()),
+                List.of(),
+                List.of("idx_content_changes_non_view")),
+            Arguments.of("ContentChangeRepository.deleteSupersededChanges",
+                call((content, changes) -> changes.deleteSupersededChanges()),
+                List.of(),
+                List.of("idx_content_changes_content_version"))
+        );
+    }
+    
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void queryUsesIndex(String method, RepositoryCall call, List<Object> binds, List<String> expectedIndexes)
+            throws SQLException {
+        inspector.start();
+        call.run(contentRepository, changeRepository);
+        List<String> statements = inspector.stop();
+        assertThat(statements).as("SQL sent by %s", method).hasSize(1);
+        String sql = numberPlaceholders(statements.get(0));
+        assertThat(PARAMETER.matcher(sql).results().count()).as("parameters of %s", sql).isEqualTo(binds.size());
+        
+        String plan = explain(sql, binds);
+        
+        assertThat(plan)
+            .as("plan for %s:%n%s%n%s", method, sql, plan)
+            .containsAnyOf(expectedIndexes.toArray(new String[0]))
+            .doesNotContain("Seq Scan");
+    }
+    
+    /**
+     * EXPLAIN a prepared statement for the given values; the planner sees them, as it
+     * does for the first executions of a server-side prepared statement
+     */
+    private static String explain(String sql, List<Object> binds) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PREPARE plan_check AS " + sql);
+            try {
+                String explain = "EXPLAIN EXECUTE plan_check" + (binds.isEmpty() ? "" :
+                    binds.stream().map(ContentQueryPlanTest::literal).collect(Collectors.joining(", ", "(", ")")));
+                try (ResultSet rows = statement.executeQuery(explain)) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+            } finally {
+                statement.execute("DEALLOCATE plan_check");
+            }
+        }
+        return plan.toString();
+    }
+    
+    // JDBC ? placeholders to $1, $2, ... (outside string literals)
+    private static String numberPlaceholders(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length());
+        boolean quoted = false;
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c == '?' && !quoted) {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+    
+    private static String literal(Object value) {
+        return value instanceof Number ? value.toString() : "'" + value.toString().replace("'", "''") + "'";
+    }
+    
+    private static RepositoryCall call(RepositoryCall call) {
+        return call;
+    }
+    
+    /**
+     * One repository invocation
+     */
+    @FunctionalInterface
+    interface RepositoryCall {
+        void run(ContentRepository content, ContentChangeRepository changes);
+    }
+    
+    @TestConfiguration
+    static class CaptureConfig {
+        
+        @Bean
+        HibernatePropertiesCustomizer statementCapture() {
+            return properties -> properties.put("hibernate.session_factory.statement_inspector", inspector);
+        }
+    }
+    
+    /**
+     * Records the SQL Hibernate prepares while capturing is on
+     */
+    static class CapturingInspector implements StatementInspector {
+        
+        private final List<String> statements = new ArrayList<>();
+        private boolean capturing;
+        
+        synchronized void start() {
+            statements.clear();
+            capturing = true;
+        }
+        
+        synchronized List<String> stop() {
+            capturing = false;
+            return new ArrayList<>(statements);
+        }
+        
+        @Override
+        public synchronized String inspect(String sql) {
+            if (capturing) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
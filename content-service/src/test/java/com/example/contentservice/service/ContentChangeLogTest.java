@@ -0,0 +1,84 @@
+package com.example.contentservice.service;
+
+import com.example.contentservice.model.ContentChange;
+import com.example.contentservice.model.ContentChangeType;
+import com.example.contentservice.repository.ContentChangeRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ContentChangeLog against an embedded PostgreSQL migrated by Flyway: versions handed
+ * out for a batch line up with its content IDs and continue the single-change sequence.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ContentChangeLog.class)
+class ContentChangeLogTest {
+    
+    private static EmbeddedPostgres postgres;
+    
+    @Autowired
+    private ContentChangeLog changeLog;
+    
+    @Autowired
+    private ContentChangeRepository changeRepository;
+    
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.start();
+    }
+    
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+    
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+    
+    @Test
+    void batchVersionsFollowTheOrderOfItsContentIds() {
+        long before = changeLog.record(7L, ContentChangeType.UPDATED);
+        
+        List<Long> versions = changeLog.record(List.of(30L, 10L, 20L), ContentChangeType.CREATED);
+        long after = changeLog.record(10L, ContentChangeType.VIEWED);
+        
+        assertThat(versions).containsExactly(before + 1, before + 2, before + 3);
+        assertThat(after).isEqualTo(before + 4);
+        
+        List<ContentChange> logged = changeRepository.findByVersionGreaterThanOrderByVersionAsc(
+            before, PageRequest.of(0, 10));
+        assertThat(logged).extracting(ContentChange::getContentId).containsExactly(30L, 10L, 20L, 10L);
+        assertThat(logged).extracting(ContentChange::getChangeType).containsExactly(
+            ContentChangeType.CREATED, ContentChangeType.CREATED, ContentChangeType.CREATED, ContentChangeType.VIEWED);
+        assertThat(logged).extracting(ContentChange::getChangedAt).doesNotContainNull();
+    }
+    
+    @Test
+    void emptyBatchRecordsNothing() {
+        Long latest = changeRepository.findLatestVersion();
+        
+        assertThat(changeLog.record(List.of(), ContentChangeType.CREATED)).isEmpty();
+        assertThat(changeRepository.findLatestVersion()).isEqualTo(latest);
+    }
+}
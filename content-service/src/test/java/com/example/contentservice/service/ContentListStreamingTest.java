@@ -0,0 +1,185 @@
+package com.example.contentservice.service;
+
+import com.example.contentservice.cache.ContentCache;
+import com.example.contentservice.datasource.ReadYourWritesTracker;
+import com.example.contentservice.factory.ContentFactory;
+import com.example.contentservice.leaderboard.ContentLeaderboards;
+import com.example.contentservice.messaging.ContentEventOutbox;
+import com.example.contentservice.related.RelatedContentIndex;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Peak heap while ContentService.writeContentList streams a large catalog.
+ *
+ * 60,000 rows with 500-character descriptions are seeded into an embedded PostgreSQL,
+ * about 50 MB once serialized. The output goes to a sink that, every 4 MB, forces a
+ * full GC and reads the used heap, so each sample is what the export still holds at
+ * that point. If rows, entities or DTOs were kept until the end, the retained heap
+ * would grow with the output; a cursor that detaches each row keeps it to the fetch
+ * buffer and a few caches, well under an eighth of the output.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ContentService.class)
+class ContentListStreamingTest {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ContentListStreamingTest.class);
+    
+    private static final int CATALOG_SIZE = 60_000;
+    private static final long SAMPLE_EVERY_BYTES = 4L << 20;
+    
+    private static EmbeddedPostgres postgres;
+    
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+    
+    @Autowired
+    private ContentService contentService;
+    
+    @MockBean
+    private ContentEventOutbox eventOutbox;
+    
+    @MockBean
+    private ContentCache contentCache;
+    
+    @MockBean
+    private ContentChangeLog changeLog;
+    
+    @MockBean
+    private ReadYourWritesTracker readYourWrites;
+    
+    @MockBean
+    private ContentLeaderboards leaderboards;
+    
+    @MockBean
+    private RelatedContentIndex relatedIndex;
+    
+    @MockBean
+    private GenreDictionary genreDictionary;
+    
+    @MockBean(name = "movieFactory")
+    private ContentFactory movieFactory;
+    
+    @MockBean(name = "tvSeriesFactory")
+    private ContentFactory tvSeriesFactory;
+    
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        Flyway.configure()
+            .dataSource(postgres.getPostgresDatabase())
+            .locations("classpath:db/migration")
+            .load()
+            .migrate();
+        
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO content (id, content_type, title, description, genre, release_year, " +
+                "rating, rating_sum, rating_count, view_count, created_at, updated_at, duration, director, " +
+                "seasons, episodes_per_season) " +
+                "SELECT g, CASE WHEN g % 2 = 0 THEN 'MOVIE' ELSE 'TV_SERIES' END, 'Title ' || g, " +
+                "repeat(chr(97 + g % 26), 500), 'Drama', 1950 + g % 70, 3.5, 0, 0, g, now(), now(), " +
+                "CASE WHEN g % 2 = 0 THEN 120 END, CASE WHEN g % 2 = 0 THEN 'Director ' || g % 300 END, " +
+                "CASE WHEN g % 2 = 1 THEN 3 END, CASE WHEN g % 2 = 1 THEN 10 END " +
+                "FROM generate_series(1, " + CATALOG_SIZE + ") g");
+            statement.execute("ANALYZE content");
+        }
+    }
+    
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+    
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+    
+    @Test
+    void heapStaysFlatWhileTheCatalogStreams() throws IOException {
+        HeapSamplingOutputStream sink = new HeapSamplingOutputStream();
+        
+        long written;
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(sink)) {
+            written = contentService.writeContentList(null, generator);
+        }
+        
+        long peakGrowth = sink.peakUsed - sink.baselineUsed;
+        logger.info("Streamed {} items, {} bytes; retained heap peaked {} KB above the start ({} samples)",
+            written, sink.bytes, peakGrowth / 1024, sink.samples);
+        
+        assertThat(written).isEqualTo(CATALOG_SIZE);
+        assertThat(sink.samples).isGreaterThanOrEqualTo(5);
+        assertThat(peakGrowth).as("peak retained heap growth for %d bytes of output", sink.bytes)
+            .isLessThan(sink.bytes / 8);
+    }
+    
+    /**
+     * Discards what is written, measuring heap used after a full GC at the start and
+     * every SAMPLE_EVERY_BYTES
+     */
+    private static class HeapSamplingOutputStream extends OutputStream {
+        
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final long baselineUsed = retainedHeap();
+        
+        private long bytes;
+        private long nextSample = SAMPLE_EVERY_BYTES;
+        private long peakUsed = baselineUsed;
+        private int samples;
+        
+        @Override
+        public void write(int b) {
+            advance(1);
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+            advance(len);
+        }
+        
+        private void advance(int length) {
+            bytes += length;
+            if (bytes >= nextSample) {
+                peakUsed = Math.max(peakUsed, retainedHeap());
+                samples++;
+                nextSample += SAMPLE_EVERY_BYTES;
+            }
+        }
+        
+        private long retainedHeap() {
+            System.gc();
+            return memory.getHeapMemoryUsage().getUsed();
+        }
+    }
+}
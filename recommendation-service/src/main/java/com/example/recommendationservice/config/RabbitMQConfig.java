@@ -1,5 +1,8 @@
 package com.example.recommendationservice.config;
 
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.context.annotation.Bean;
@@ -20,7 +23,8 @@ public class RabbitMQConfig {
     
     public static final String USER_PREFERENCE_QUEUE = "user.preference.updates";
     public static final String USER_EVENTS_QUEUE = "user.events";
-    public static final String CONTENT_EVENTS_QUEUE = "content.events";
+    public static final String CONTENT_EVENTS_EXCHANGE = "content.events.exchange";
+    public static final String CONTENT_EVENTS_QUEUE = "content.events.recommendation";
     
     /**
      * Create queue for user preference updates.
@@ -39,13 +43,27 @@ public class RabbitMQConfig {
     }
     
     /**
-     * Create queue for content events.
+     * Content Service publishes lifecycle events to a fanout exchange.
+     */
+    @Bean
+    public FanoutExchange contentEventsExchange() {
+        return new FanoutExchange(CONTENT_EVENTS_EXCHANGE, true, false);
+    }
+    
+    /**
+     * Queue owned by this service so it receives every content event
+     * (not a share of them, as it would on a queue shared with other services).
      */
     @Bean
     public Queue contentEventsQueue() {
         return new Queue(CONTENT_EVENTS_QUEUE, true);
     }
     
+    @Bean
+    public Binding contentEventsBinding() {
+        return BindingBuilder.bind(contentEventsQueue()).to(contentEventsExchange());
+    }
+    
     /**
      * JSON message converter for deserializing messages.
      */
@@ -1,15 +1,21 @@
 package com.example.recommendationservice.config;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.client.RestTemplate;
 
+import java.lang.reflect.Type;
 import java.time.Duration;
 
 /**
  * Configuration for RestTemplate used for inter-service communication.
+ * Prefers CBOR responses (see ContentController content negotiation) over JSON.
  * Configures timeouts for HTTP calls to Content Service.
  */
 @Configuration
@@ -29,10 +35,32 @@ public class RestTemplateConfig {
      * @return Configured RestTemplate instance
      */
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder
+    public RestTemplate restTemplate(RestTemplateBuilder builder, Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        RestTemplate restTemplate = builder
                 .setConnectTimeout(Duration.ofMillis(connectionTimeout))
                 .setReadTimeout(Duration.ofMillis(readTimeout))
                 .build();
+        // First converter: "Accept: application/cbor, application/json, ..." so Content Service
+        // answers in compact CBOR, while services without CBOR support still reply in JSON
+        restTemplate.getMessageConverters().add(0, cborResponseConverter(objectMapperBuilder));
+        return restTemplate;
+    }
+    
+    /**
+     * CBOR converter for responses only; request bodies keep going out as JSON,
+     * since not every service we POST to understands CBOR.
+     */
+    private static MappingJackson2CborHttpMessageConverter cborResponseConverter(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapperBuilder.factory(new CBORFactory()).build()) {
+            @Override
+            public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+                return false;
+            }
+            
+            @Override
+            public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+                return false;
+            }
+        };
     }
 }
@@ -18,6 +18,7 @@ public class ContentResponseDTO {
     private String title;
     private String description;
     private String genre;
+    private Integer genreId; // genre dictionary ID, stable across spellings
     private Integer releaseYear;
     private Double rating;
     private Long viewCount;
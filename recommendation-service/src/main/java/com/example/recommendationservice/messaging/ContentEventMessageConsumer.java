@@ -1,5 +1,6 @@
 package com.example.recommendationservice.messaging;
 
+import com.example.recommendationservice.config.RabbitMQConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -7,14 +8,14 @@ import org.springframework.stereotype.Component;
 
 /**
  * Consumer for content events from RabbitMQ.
- * Recommendation Service reacts to new content creation.
+ * Recommendation Service reacts to content creation, updates and deletions.
  */
 @Component
 public class ContentEventMessageConsumer {
     
     private static final Logger logger = LoggerFactory.getLogger(ContentEventMessageConsumer.class);
     
-    @RabbitListener(queues = "content.events")
+    @RabbitListener(queues = RabbitMQConfig.CONTENT_EVENTS_QUEUE)
     public void handleContentEvent(ContentEventMessage message) {
         try {
             logger.info("=== Received content event from queue ===");
@@ -26,6 +27,13 @@ public class ContentEventMessageConsumer {
                 logger.info("New content created: {} ({}) - {}", 
                            message.getTitle(), message.getType(), message.getGenre());
                 // Could update trending content or refresh recommendations
+            } else if ("CONTENT_UPDATED".equals(message.getEventType())) {
+                logger.info("Content {} updated at version {}, changed fields: {}", 
+                           message.getContentId(), message.getVersion(), message.getChangedFields());
+                // Cached content details for this ID are stale from here on
+            } else if ("CONTENT_DELETED".equals(message.getEventType())) {
+                logger.info("Content {} deleted at version {} - should no longer be recommended", 
+                           message.getContentId(), message.getVersion());
             }
             
             logger.info("=== Successfully processed content event for content {} ===", 
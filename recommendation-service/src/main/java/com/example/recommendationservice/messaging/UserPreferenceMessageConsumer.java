@@ -60,15 +60,9 @@ public class UserPreferenceMessageConsumer {
                 preference.setWatchCount(preference.getWatchCount() + 
                     (message.getWatchCount() != null ? message.getWatchCount() : 1));
                 
-                // Update preferred genres
-                if (message.getGenre() != null && !message.getGenre().isEmpty()) {
-                    String currentGenres = preference.getPreferredGenres();
-                    if (currentGenres == null || currentGenres.isEmpty()) {
-                        preference.setPreferredGenres(message.getGenre());
-                    } else if (!currentGenres.contains(message.getGenre())) {
-                        preference.setPreferredGenres(currentGenres + "," + message.getGenre());
-                    }
-                }
+                // Update preferred genres (a batch message lists several in preferredGenres)
+                mergeGenres(preference, message.getPreferredGenres() != null && !message.getPreferredGenres().isEmpty()
+                    ? message.getPreferredGenres() : message.getGenre());
                 
                 logger.info("Updated watch count for user {}: {}", 
                            message.getUserId(), preference.getWatchCount());
@@ -106,5 +100,22 @@ public class UserPreferenceMessageConsumer {
             throw e; // Re-throw to trigger retry mechanism
         }
     }
+    
+    /**
+     * Append each genre of a comma-separated list the user does not have yet.
+     */
+    private void mergeGenres(UserPreference preference, String genres) {
+        if (genres == null || genres.isEmpty()) {
+            return;
+        }
+        for (String genre : genres.split(",")) {
+            String currentGenres = preference.getPreferredGenres();
+            if (currentGenres == null || currentGenres.isEmpty()) {
+                preference.setPreferredGenres(genre);
+            } else if (!currentGenres.contains(genre)) {
+                preference.setPreferredGenres(currentGenres + "," + genre);
+            }
+        }
+    }
 }
 
@@ -1,5 +1,8 @@
 package com.example.userservice.config;
 
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -15,18 +18,29 @@ import org.springframework.context.annotation.Configuration;
 public class RabbitMQConfig {
     
     public static final String USER_EVENTS_QUEUE = "user.events";
-    public static final String CONTENT_EVENTS_QUEUE = "content.events";
+    public static final String CONTENT_EVENTS_EXCHANGE = "content.events.exchange";
+    public static final String CONTENT_EVENTS_QUEUE = "content.events.user";
     
     @Bean
     public Queue userEventsQueue() {
         return new Queue(USER_EVENTS_QUEUE, true);
     }
     
+    @Bean
+    public FanoutExchange contentEventsExchange() {
+        return new FanoutExchange(CONTENT_EVENTS_EXCHANGE, true, false);
+    }
+    
     @Bean
     public Queue contentEventsQueue() {
         return new Queue(CONTENT_EVENTS_QUEUE, true);
     }
     
+    @Bean
+    public Binding contentEventsBinding() {
+        return BindingBuilder.bind(contentEventsQueue()).to(contentEventsExchange());
+    }
+    
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
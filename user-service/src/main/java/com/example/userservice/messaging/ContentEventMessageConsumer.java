@@ -1,5 +1,6 @@
 package com.example.userservice.messaging;
 
+import com.example.userservice.config.RabbitMQConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -7,14 +8,14 @@ import org.springframework.stereotype.Component;
 
 /**
  * Consumer for content events from RabbitMQ.
- * User Service reacts to new content creation (could send notifications).
+ * User Service reacts to content lifecycle events (could send notifications).
  */
 @Component
 public class ContentEventMessageConsumer {
     
     private static final Logger logger = LoggerFactory.getLogger(ContentEventMessageConsumer.class);
     
-    @RabbitListener(queues = "content.events")
+    @RabbitListener(queues = RabbitMQConfig.CONTENT_EVENTS_QUEUE)
     public void handleContentEvent(ContentEventMessage message) {
         try {
             logger.info("=== Received content event from queue ===");
@@ -24,6 +25,12 @@ public class ContentEventMessageConsumer {
             if ("CONTENT_CREATED".equals(message.getEventType())) {
                 logger.info("New content available: {} - could notify users", message.getTitle());
                 // Could send notifications to users about new content
+            } else if ("CONTENT_UPDATED".equals(message.getEventType())) {
+                logger.info("Content {} updated (version {}): fields {}", 
+                           message.getContentId(), message.getVersion(), message.getChangedFields());
+            } else if ("CONTENT_DELETED".equals(message.getEventType())) {
+                logger.info("Content {} removed from catalog (version {})", 
+                           message.getContentId(), message.getVersion());
             }
             
             logger.info("=== Successfully processed content event for content {} ===", 
@@ -1,7 +1,10 @@
 package com.example.videoservice;
 
+import com.example.videoservice.config.ObserverDispatchProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for Video Service.
@@ -31,6 +34,8 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * Database: PostgreSQL on port 5434 (videodb)
  */
 @SpringBootApplication
+@EnableScheduling
+@EnableConfigurationProperties(ObserverDispatchProperties.class)
 public class VideoServiceApplication {
     
     public static void main(String[] args) {
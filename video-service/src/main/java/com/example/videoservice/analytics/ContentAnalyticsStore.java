@@ -0,0 +1,136 @@
+package com.example.videoservice.analytics;
+
+import com.example.videoservice.model.ContentAnalytics;
+import com.example.videoservice.repository.ContentAnalyticsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-content engagement analytics, shared across Video Service instances.
+ *
+ * Each instance records watch events into small per-title sketches for the current
+ * interval. Every flush-interval-ms the interval's sketches are merged into the
+ * content_analytics rows, one locked row per title in one transaction (titles in ID order
+ * so concurrent instances cannot deadlock). HyperLogLog merges are unions and t-digest
+ * merges re-cluster, so the rows describe every instance's events, and a viewer seen by
+ * several instances or in several intervals is still counted once. A failed flush is
+ * rolled back and its interval put back for the next one.
+ *
+ * Reads merge the title's row with this instance's unflushed interval.
+ *
+ * Metrics: video.analytics.events-recorded, video.analytics.titles-flushed,
+ * video.analytics.flush-failures and the video.analytics.pending-titles gauge.
+ */
+@Component
+public class ContentAnalyticsStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ContentAnalyticsStore.class);
+    
+    private final Map<Long, ContentEngagement> pending = new ConcurrentHashMap<>();
+    
+    private final ContentAnalyticsRepository analyticsRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    private final Counter recorded;
+    private final Counter flushed;
+    private final Counter failures;
+    
+    public ContentAnalyticsStore(ContentAnalyticsRepository analyticsRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.analyticsRepository = analyticsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recorded = Counter.builder("video.analytics.events-recorded").register(meterRegistry);
+        this.flushed = Counter.builder("video.analytics.titles-flushed").register(meterRegistry);
+        this.failures = Counter.builder("video.analytics.flush-failures").register(meterRegistry);
+        meterRegistry.gauge("video.analytics.pending-titles", pending, Map::size);
+    }
+    
+    public void record(Long contentId, Long userId, Integer progress, Boolean completed) {
+        // Recorded inside compute, so a concurrent drain takes the interval either before or after this event
+        pending.compute(contentId, (id, engagement) -> {
+            ContentEngagement interval = engagement != null ? engagement : new ContentEngagement();
+            interval.record(userId, progress != null ? progress : 0, Boolean.TRUE.equals(completed));
+            return interval;
+        });
+        recorded.increment();
+    }
+    
+    /**
+     * Everything known about a title: the shared row plus this instance's unflushed events
+     */
+    public ContentEngagement engagement(Long contentId) {
+        ContentEngagement engagement = analyticsRepository.findById(contentId)
+            .map(ContentEngagement::fromRow)
+            .orElseGet(ContentEngagement::new);
+        ContentEngagement unflushed = pending.get(contentId);
+        if (unflushed != null) {
+            engagement.merge(unflushed);
+        }
+        return engagement;
+    }
+    
+    @Scheduled(fixedDelayString = "${video.analytics.flush-interval-ms:10000}")
+    public void flush() {
+        Map<Long, ContentEngagement> batch = drain();
+        if (batch.isEmpty()) {
+            return;
+        }
+        
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(this::mergeIntoRow));
+            flushed.increment(batch.size());
+            logger.debug("ContentAnalyticsStore: merged {} titles into content_analytics", batch.size());
+        } catch (RuntimeException e) {
+            failures.increment();
+            batch.forEach((id, engagement) -> pending.merge(id, engagement, ContentEngagement::plus));
+            logger.warn("ContentAnalyticsStore: flush of {} titles failed, will retry: {}", batch.size(), e.getMessage());
+        }
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+    
+    private void mergeIntoRow(Long contentId, ContentEngagement interval) {
+        ContentAnalytics row = analyticsRepository.findForUpdate(contentId).orElse(null);
+        ContentEngagement merged;
+        if (row == null) {
+            row = new ContentAnalytics();
+            row.setContentId(contentId);
+            merged = interval;
+        } else {
+            merged = ContentEngagement.fromRow(row);
+            merged.merge(interval);
+        }
+        merged.writeTo(row);
+        analyticsRepository.save(row);
+    }
+    
+    // Sorted, so every instance locks rows in the same order
+    private Map<Long, ContentEngagement> drain() {
+        Map<Long, ContentEngagement> batch = new TreeMap<>();
+        List<Long> ids = new ArrayList<>(pending.keySet());
+        for (Long id : ids) {
+            ContentEngagement engagement = pending.remove(id);
+            if (engagement != null) {
+                batch.put(id, engagement);
+            }
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.videoservice.analytics;
+
+import com.example.videoservice.model.ContentAnalytics;
+
+import java.time.LocalDateTime;
+
+/**
+ * Engagement sketches for one content item: unique viewers and unique completers
+ * (HyperLogLog), the distribution of reported progress (TDigest), and plain event
+ * counters. Fixed size per title whatever its audience.
+ *
+ * Thread-safe; every method locks the instance.
+ */
+public final class ContentEngagement {
+    
+    private final HyperLogLog viewers;
+    private final HyperLogLog completers;
+    private final TDigest progress;
+    private long watchEvents;
+    private long completedEvents;
+    
+    public ContentEngagement() {
+        this(new HyperLogLog(), new HyperLogLog(), new TDigest(), 0, 0);
+    }
+    
+    private ContentEngagement(HyperLogLog viewers, HyperLogLog completers, TDigest progress,
+                              long watchEvents, long completedEvents) {
+        this.viewers = viewers;
+        this.completers = completers;
+        this.progress = progress;
+        this.watchEvents = watchEvents;
+        this.completedEvents = completedEvents;
+    }
+    
+    public static ContentEngagement fromRow(ContentAnalytics row) {
+        return new ContentEngagement(
+            HyperLogLog.fromBytes(row.getViewersSketch()),
+            HyperLogLog.fromBytes(row.getCompletersSketch()),
+            TDigest.fromBytes(row.getProgressDigest()),
+            row.getWatchEvents(),
+            row.getCompletedEvents());
+    }
+    
+    public synchronized void record(long userId, int progressSeconds, boolean completed) {
+        viewers.add(userId);
+        progress.add(progressSeconds);
+        watchEvents++;
+        if (completed) {
+            completers.add(userId);
+            completedEvents++;
+        }
+    }
+    
+    /**
+     * Fold another engagement (another interval or instance) into this one
+     */
+    public void merge(ContentEngagement other) {
+        ContentEngagement snapshot = other.copy();
+        synchronized (this) {
+            viewers.merge(snapshot.viewers);
+            completers.merge(snapshot.completers);
+            progress.merge(snapshot.progress);
+            watchEvents += snapshot.watchEvents;
+            completedEvents += snapshot.completedEvents;
+        }
+    }
+    
+    /**
+     * Combine two engagements into this one; usable as a Map.merge function
+     */
+    public ContentEngagement plus(ContentEngagement other) {
+        merge(other);
+        return this;
+    }
+    
+    public synchronized void writeTo(ContentAnalytics row) {
+        row.setViewersSketch(viewers.toBytes());
+        row.setCompletersSketch(completers.toBytes());
+        row.setProgressDigest(progress.toBytes());
+        row.setWatchEvents(watchEvents);
+        row.setCompletedEvents(completedEvents);
+        row.setUpdatedAt(LocalDateTime.now());
+    }
+    
+    public synchronized ContentEngagement copy() {
+        return new ContentEngagement(viewers.copy(), completers.copy(),
+            TDigest.fromBytes(progress.toBytes()), watchEvents, completedEvents);
+    }
+    
+    public synchronized long uniqueViewers() {
+        return viewers.estimate();
+    }
+    
+    public synchronized long uniqueCompleters() {
+        return completers.estimate();
+    }
+    
+    /**
+     * Share of unique viewers who completed the title, or null before anyone watched it
+     */
+    public synchronized Double completionRate() {
+        long viewerCount = viewers.estimate();
+        if (viewerCount == 0) {
+            return null;
+        }
+        // Both counts are estimates; keep the ratio a valid rate
+        return Math.min(1.0, (double) completers.estimate() / viewerCount);
+    }
+    
+    /**
+     * Progress (seconds) at quantile q, or null before anyone watched
+     */
+    public synchronized Double progressQuantile(double q) {
+        double value = progress.quantile(q);
+        return Double.isNaN(value) ? null : value;
+    }
+    
+    public synchronized long getWatchEvents() {
+        return watchEvents;
+    }
+    
+    public synchronized long getCompletedEvents() {
+        return completedEvents;
+    }
+    
+    public synchronized byte[] viewersSketch() {
+        return viewers.toBytes();
+    }
+    
+    public synchronized byte[] completersSketch() {
+        return completers.toBytes();
+    }
+    
+    public synchronized byte[] progressDigest() {
+        return progress.toBytes();
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.videoservice.analytics;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Merging t-digest for quantiles of a value distribution (here: watch progress in seconds).
+ *
+ * Values are buffered and periodically merged into at most about `compression` weighted
+ * centroids. The arcsine scale function keeps centroids small near the tails, so
+ * extreme quantiles (p1, p99) stay accurate while the middle is summarized more
+ * coarsely. Memory is bounded by the compression (roughly 100 centroids and a
+ * 500-value buffer at the default), not by the number of values added.
+ *
+ * Digests merge by re-clustering the union of their centroids, which is how
+ * per-interval and per-instance digests are combined.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+public final class TDigest {
+    
+    public static final double DEFAULT_COMPRESSION = 100;
+    
+    private final double compression;
+    
+    private double[] means = new double[0];
+    private double[] weights = new double[0];
+    private double mergedWeight;
+    
+    private final double[] bufferValues;
+    private final double[] bufferWeights;
+    private int buffered;
+    
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+    
+    public TDigest(double compression) {
+        if (compression < 10) {
+            throw new IllegalArgumentException("t-digest compression must be at least 10: " + compression);
+        }
+        this.compression = compression;
+        int bufferSize = (int) (5 * compression);
+        this.bufferValues = new double[bufferSize];
+        this.bufferWeights = new double[bufferSize];
+    }
+    
+    public void add(double value) {
+        add(value, 1);
+    }
+    
+    public void add(double value, double weight) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (buffered == bufferValues.length) {
+            compress();
+        }
+        bufferValues[buffered] = value;
+        bufferWeights[buffered] = weight;
+        buffered++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+    
+    public void merge(TDigest other) {
+        other.compress();
+        for (int i = 0; i < other.means.length; i++) {
+            add(other.means[i], other.weights[i]);
+        }
+        if (other.count() > 0) {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+    }
+    
+    /**
+     * Total weight added (the number of values, for unit weights)
+     */
+    public double count() {
+        double pending = 0;
+        for (int i = 0; i < buffered; i++) {
+            pending += bufferWeights[i];
+        }
+        return mergedWeight + pending;
+    }
+    
+    /**
+     * Estimated value at quantile q (0..1), or NaN for an empty digest
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+        }
+        compress();
+        int n = means.length;
+        if (n == 0) {
+            return Double.NaN;
+        }
+        if (n == 1) {
+            return means[0];
+        }
+        
+        double index = q * mergedWeight;
+        // Before the first centroid's center: interpolate from the exact minimum
+        if (index < weights[0] / 2) {
+            return min + (means[0] - min) * index / (weights[0] / 2);
+        }
+        double cumulative = weights[0] / 2;
+        for (int i = 0; i < n - 1; i++) {
+            double step = (weights[i] + weights[i + 1]) / 2;
+            if (cumulative + step > index) {
+                return means[i] + (means[i + 1] - means[i]) * (index - cumulative) / step;
+            }
+            cumulative += step;
+        }
+        // After the last centroid's center: interpolate towards the exact maximum
+        double remaining = weights[n - 1] / 2;
+        double fraction = remaining > 0 ? Math.min(1, (index - cumulative) / remaining) : 1;
+        return means[n - 1] + (max - means[n - 1]) * fraction;
+    }
+    
+    public double min() {
+        return count() > 0 ? min : Double.NaN;
+    }
+    
+    public double max() {
+        return count() > 0 ? max : Double.NaN;
+    }
+    
+    /**
+     * Serialized form: compression, min, max, centroid count, then (mean, weight) pairs
+     */
+    public byte[] toBytes() {
+        compress();
+        ByteBuffer buffer = ByteBuffer.allocate(8 * 3 + 4 + 16 * means.length);
+        buffer.putDouble(compression).putDouble(min).putDouble(max).putInt(means.length);
+        for (int i = 0; i < means.length; i++) {
+            buffer.putDouble(means[i]).putDouble(weights[i]);
+        }
+        return buffer.array();
+    }
+    
+    public static TDigest fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        TDigest digest = new TDigest(buffer.getDouble());
+        digest.min = buffer.getDouble();
+        digest.max = buffer.getDouble();
+        int n = buffer.getInt();
+        digest.means = new double[n];
+        digest.weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            digest.means[i] = buffer.getDouble();
+            digest.weights[i] = buffer.getDouble();
+            digest.mergedWeight += digest.weights[i];
+        }
+        return digest;
+    }
+    
+    /**
+     * Merge the buffer into the centroids
+     */
+    private void compress() {
+        if (buffered == 0) {
+            return;
+        }
+        int total = means.length + buffered;
+        double[] values = Arrays.copyOf(means, total);
+        double[] valueWeights = Arrays.copyOf(weights, total);
+        System.arraycopy(bufferValues, 0, values, means.length, buffered);
+        System.arraycopy(bufferWeights, 0, valueWeights, means.length, buffered);
+        buffered = 0;
+        
+        Integer[] order = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+        
+        double totalWeight = 0;
+        for (double w : valueWeights) {
+            totalWeight += w;
+        }
+        
+        double[] newMeans = new double[total];
+        double[] newWeights = new double[total];
+        int count = 0;
+        double currentMean = values[order[0]];
+        double currentWeight = valueWeights[order[0]];
+        double weightSoFar = 0;
+        double kLeft = scale(0);
+        for (int i = 1; i < total; i++) {
+            double value = values[order[i]];
+            double weight = valueWeights[order[i]];
+            double proposed = currentWeight + weight;
+            if (scale((weightSoFar + proposed) / totalWeight) - kLeft <= 1) {
+                currentMean += (value - currentMean) * weight / proposed;
+                currentWeight = proposed;
+            } else {
+                newMeans[count] = currentMean;
+                newWeights[count] = currentWeight;
+                count++;
+                weightSoFar += currentWeight;
+                kLeft = scale(weightSoFar / totalWeight);
+                currentMean = value;
+                currentWeight = weight;
+            }
+        }
+        newMeans[count] = currentMean;
+        newWeights[count] = currentWeight;
+        count++;
+        
+        means = Arrays.copyOf(newMeans, count);
+        weights = Arrays.copyOf(newWeights, count);
+        mergedWeight = totalWeight;
+    }
+    
+    // k1 scale function: centroid size limit shrinks towards q = 0 and q = 1
+    private double scale(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * Math.min(1, Math.max(0, q)) - 1);
+    }
+}
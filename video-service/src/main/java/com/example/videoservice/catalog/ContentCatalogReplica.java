@@ -0,0 +1,212 @@
+package com.example.videoservice.catalog;
+
+import com.example.videoservice.dto.ContentChangeDTO;
+import com.example.videoservice.dto.ContentChangeFeedDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local copy of the catalog facts Video Service needs: which content IDs exist and their genre.
+ *
+ * Lets watch / rating requests validate content with a memory lookup instead of a
+ * blocking call to Content Service:
+ * - bootstrapped at startup from Content Service's change feed (GET /api/content/changes)
+ * - kept current by content events (ContentEventMessageConsumer)
+ * - re-synced from the feed periodically, which also repairs missed events
+ *
+ * Every entry carries the catalog version it was written at, and older updates are
+ * ignored, so feed pages and events can be applied in any order. Deleted content is
+ * kept as a tombstone so a late or re-delivered create cannot resurrect it.
+ *
+ * An ID the replica has not seen (or whose genre it does not know yet) is a miss;
+ * callers then fall back to REST and remember() the answer.
+ */
+@Component
+public class ContentCatalogReplica {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ContentCatalogReplica.class);
+    
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    
+    // Genre names are shared by many titles; keep one String instance per genre
+    private final Map<String, String> genres = new ConcurrentHashMap<>();
+    
+    private final RestTemplate restTemplate;
+    private final String changesUrl;
+    private final int pageSize;
+    
+    private final Counter hits;
+    private final Counter misses;
+    
+    private volatile long syncedVersion;
+    
+    public ContentCatalogReplica(RestTemplate restTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${content.service.url}") String contentServiceUrl,
+                                 @Value("${content.replica.page-size:1000}") int pageSize) {
+        this.restTemplate = restTemplate;
+        this.changesUrl = contentServiceUrl + "/api/content/changes";
+        this.pageSize = pageSize;
+        this.hits = Counter.builder("video.content-replica.hits").register(meterRegistry);
+        this.misses = Counter.builder("video.content-replica.misses").register(meterRegistry);
+        meterRegistry.gauge("video.content-replica.size", entries, Map::size);
+    }
+    
+    /**
+     * Genre of existing content, if known locally
+     */
+    public Optional<String> findGenre(Long contentId) {
+        Entry entry = entries.get(contentId);
+        if (entry != null && !entry.deleted && entry.genre != null) {
+            hits.increment();
+            return Optional.of(entry.genre);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+    
+    /**
+     * Genres of the given content IDs known locally; IDs missing from the result are misses
+     */
+    public Map<Long, String> findGenres(Collection<Long> contentIds) {
+        Map<Long, String> found = new HashMap<>();
+        for (Long contentId : contentIds) {
+            Entry entry = entries.get(contentId);
+            if (entry != null && !entry.deleted && entry.genre != null) {
+                found.put(contentId, entry.genre);
+            }
+        }
+        hits.increment(found.size());
+        misses.increment(contentIds.size() - found.size());
+        return found;
+    }
+    
+    /**
+     * Whether the catalog has told us this content was deleted
+     */
+    public boolean isKnownDeleted(Long contentId) {
+        Entry entry = entries.get(contentId);
+        return entry != null && entry.deleted;
+    }
+    
+    /**
+     * Record a genre looked up over REST after a miss (never overrides newer replica state)
+     */
+    public void remember(Long contentId, String genre) {
+        entries.compute(contentId, (id, existing) -> {
+            if (existing == null) {
+                return new Entry(-1, intern(genre), false);
+            }
+            if (!existing.deleted && existing.genre == null) {
+                return new Entry(existing.version, intern(genre), false);
+            }
+            return existing;
+        });
+    }
+    
+    /**
+     * Content created or updated at a catalog version (genre may be null if unknown)
+     */
+    public void applyUpsert(Long contentId, long version, String genre) {
+        entries.compute(contentId, (id, existing) -> {
+            if (existing != null && existing.version > version) {
+                return existing;
+            }
+            if (genre == null && existing != null && !existing.deleted) {
+                return new Entry(version, existing.genre, false);
+            }
+            return new Entry(version, intern(genre), false);
+        });
+    }
+    
+    /**
+     * Content deleted at a catalog version
+     */
+    public void applyDelete(Long contentId, long version) {
+        entries.compute(contentId, (id, existing) ->
+            existing != null && existing.version > version ? existing : new Entry(version, null, true));
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        sync();
+    }
+    
+    @Scheduled(fixedDelayString = "${content.replica.resync-interval-ms:300000}",
+               initialDelayString = "${content.replica.resync-interval-ms:300000}")
+    public void scheduledSync() {
+        sync();
+    }
+    
+    /**
+     * Pull the change feed from the last synced version until it is exhausted
+     */
+    public synchronized void sync() {
+        long start = System.currentTimeMillis();
+        long from = syncedVersion;
+        int applied = 0;
+        try {
+            boolean hasMore = true;
+            while (hasMore) {
+                ContentChangeFeedDTO page = restTemplate.getForObject(
+                    changesUrl + "?since={since}&limit={limit}", ContentChangeFeedDTO.class, syncedVersion, pageSize);
+                if (page == null) {
+                    break;
+                }
+                for (ContentChangeDTO change : page.getChanges()) {
+                    apply(change);
+                    applied++;
+                }
+                syncedVersion = page.getNextSince();
+                hasMore = page.isHasMore();
+            }
+            logger.info("ContentCatalogReplica: synced versions {}..{} ({} changes, {} entries) in {} ms",
+                from, syncedVersion, applied, entries.size(), System.currentTimeMillis() - start);
+        } catch (RestClientException e) {
+            logger.warn("ContentCatalogReplica: sync from version {} failed, lookups fall back to REST: {}",
+                syncedVersion, e.getMessage());
+        }
+    }
+    
+    private void apply(ContentChangeDTO change) {
+        long version = change.getVersion() != null ? change.getVersion() : 0L;
+        if ("DELETED".equals(change.getChangeType())) {
+            applyDelete(change.getContentId(), version);
+        } else {
+            // Every non-deleted entry carries the current content, views included
+            String genre = change.getContent() != null ? change.getContent().getGenre() : null;
+            applyUpsert(change.getContentId(), version, genre);
+        }
+    }
+    
+    private String intern(String genre) {
+        return genre == null ? null : genres.computeIfAbsent(genre, g -> g);
+    }
+    
+    private static final class Entry {
+        private final long version;
+        private final String genre;
+        private final boolean deleted;
+        
+        private Entry(long version, String genre, boolean deleted) {
+            this.version = version;
+            this.genre = genre;
+            this.deleted = deleted;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.videoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * video.observers.* settings: how VideoEventPublisher runs each observer, keyed by
+ * EventObserver.getObserverName(). Observers without an entry use the Dispatch defaults.
+ */
+@Data
+@ConfigurationProperties(prefix = "video")
+public class ObserverDispatchProperties {
+    
+    private Map<String, Dispatch> observers = new HashMap<>();
+    
+    /**
+     * Settings for one observer; observer names are matched case-insensitively
+     */
+    public Dispatch forObserver(String observerName) {
+        return observers.entrySet().stream()
+            .filter(e -> e.getKey().equalsIgnoreCase(observerName))
+            .map(Map.Entry::getValue)
+            .findFirst()
+            .orElseGet(Dispatch::new);
+    }
+    
+    @Data
+    public static class Dispatch {
+        
+        /**
+         * Run on the observer's own executor; false runs it inline on the publishing thread
+         */
+        private boolean async = true;
+        
+        private int threads = 1;
+        
+        /**
+         * Events waiting for the observer beyond this are dropped (and counted)
+         */
+        private int queueCapacity = 1000;
+    }
+}
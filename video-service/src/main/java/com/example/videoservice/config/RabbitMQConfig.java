@@ -1,5 +1,8 @@
 package com.example.videoservice.config;
 
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -22,7 +25,9 @@ import org.springframework.context.annotation.Configuration;
 public class RabbitMQConfig {
     
     public static final String USER_PREFERENCE_QUEUE = "user.preference.updates";
-    public static final String CONTENT_EVENTS_QUEUE = "content.events";
+    public static final String CONTENT_EVENTS_EXCHANGE = "content.events.exchange";
+    public static final String CONTENT_EVENTS_QUEUE = "content.events.video";
+    public static final String CONTENT_RATINGS_QUEUE = "content.ratings";
     
     /**
      * Create queue for user preference updates.
@@ -33,13 +38,35 @@ public class RabbitMQConfig {
     }
     
     /**
-     * Create queue for content events (consumes from Content Service).
+     * Rating deltas consumed by Content Service (rating aggregates per content).
+     */
+    @Bean
+    public Queue contentRatingsQueue() {
+        return new Queue(CONTENT_RATINGS_QUEUE, true);
+    }
+    
+    /**
+     * Content Service publishes lifecycle events to a fanout exchange.
+     */
+    @Bean
+    public FanoutExchange contentEventsExchange() {
+        return new FanoutExchange(CONTENT_EVENTS_EXCHANGE, true, false);
+    }
+    
+    /**
+     * Queue owned by this service so it receives every content event
+     * (not a share of them, as it would on a queue shared with other services).
      */
     @Bean
     public Queue contentEventsQueue() {
         return new Queue(CONTENT_EVENTS_QUEUE, true);
     }
     
+    @Bean
+    public Binding contentEventsBinding() {
+        return BindingBuilder.bind(contentEventsQueue()).to(contentEventsExchange());
+    }
+    
     /**
      * Configure RabbitTemplate with JSON message converter.
      * This allows sending Java objects as JSON messages.
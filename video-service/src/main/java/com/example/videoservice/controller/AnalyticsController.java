@@ -0,0 +1,110 @@
+package com.example.videoservice.controller;
+
+import com.example.videoservice.analytics.ContentAnalyticsStore;
+import com.example.videoservice.analytics.ContentEngagement;
+import com.example.videoservice.dto.ContentAnalyticsDTO;
+import com.example.videoservice.dto.ContentAnalyticsSketchDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST Controller for content engagement analytics.
+ * Serves the sketches maintained by ContentAnalyticsStore (fed by AnalyticsObserver).
+ */
+@RestController
+@RequestMapping("/api/videos/analytics")
+public class AnalyticsController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsController.class);
+    
+    private static final List<Double> SUMMARY_PERCENTILES = List.of(0.25, 0.5, 0.75, 0.9, 0.99);
+    
+    @Autowired
+    private ContentAnalyticsStore analyticsStore;
+    
+    /**
+     * Get a content's engagement summary.
+     * 
+     * @param contentId Content ID
+     * @return Unique viewers, completion rate, event counts and progress percentiles
+     */
+    @GetMapping("/content/{contentId}")
+    public ResponseEntity<ContentAnalyticsDTO> getContentAnalytics(@PathVariable Long contentId) {
+        logger.debug("GET /api/videos/analytics/content/{}", contentId);
+        
+        ContentEngagement engagement = analyticsStore.engagement(contentId);
+        
+        return ResponseEntity.ok(new ContentAnalyticsDTO(
+            contentId,
+            engagement.uniqueViewers(),
+            engagement.uniqueCompleters(),
+            engagement.completionRate(),
+            engagement.getWatchEvents(),
+            engagement.getCompletedEvents(),
+            percentiles(engagement, SUMMARY_PERCENTILES)
+        ));
+    }
+    
+    /**
+     * Get arbitrary percentiles of a content's watch progress.
+     * 
+     * @param contentId Content ID
+     * @param quantiles Quantiles between 0 and 1, e.g. ?q=0.5&q=0.95
+     * @return Progress in seconds by percentile
+     */
+    @GetMapping("/content/{contentId}/progress")
+    public ResponseEntity<Map<String, Double>> getProgressDistribution(
+            @PathVariable Long contentId,
+            @RequestParam(name = "q", defaultValue = "0.5") List<Double> quantiles) {
+        logger.debug("GET /api/videos/analytics/content/{}/progress?q={}", contentId, quantiles);
+        
+        if (quantiles.stream().anyMatch(q -> q < 0 || q > 1)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        return ResponseEntity.ok(percentiles(analyticsStore.engagement(contentId), quantiles));
+    }
+    
+    /**
+     * Get a content's serialized sketches, for merging with sketches kept elsewhere.
+     * 
+     * @param contentId Content ID
+     * @return Viewer / completer HyperLogLogs, progress t-digest and counters
+     */
+    @GetMapping("/content/{contentId}/sketch")
+    public ResponseEntity<ContentAnalyticsSketchDTO> getContentSketch(@PathVariable Long contentId) {
+        logger.debug("GET /api/videos/analytics/content/{}/sketch", contentId);
+        
+        ContentEngagement engagement = analyticsStore.engagement(contentId);
+        
+        return ResponseEntity.ok(new ContentAnalyticsSketchDTO(
+            contentId,
+            engagement.viewersSketch(),
+            engagement.completersSketch(),
+            engagement.progressDigest(),
+            engagement.getWatchEvents(),
+            engagement.getCompletedEvents()
+        ));
+    }
+    
+    private static Map<String, Double> percentiles(ContentEngagement engagement, List<Double> quantiles) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (Double q : quantiles) {
+            result.put("p" + formatPercentile(q), engagement.progressQuantile(q));
+        }
+        return result;
+    }
+    
+    // 0.5 -> "50", 0.999 -> "99.9"
+    private static String formatPercentile(double q) {
+        return BigDecimal.valueOf(q).movePointRight(2).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.videoservice.controller;
+
+import com.example.videoservice.dto.ExportManifestDTO;
+import com.example.videoservice.export.HistoryExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * REST Controller for exporting viewing history (watch events and ratings) as columnar
+ * files for offline model training; see HistoryExporter and ColumnarFileReader.
+ */
+@RestController
+@RequestMapping("/api/videos/export")
+public class ExportController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+    
+    @Autowired
+    private HistoryExporter historyExporter;
+    
+    /**
+     * Export the history between two dates to the service's export directory.
+     * Runs until every file is written; 409 if an export is already running.
+     * 
+     * @param from First day included (ISO date)
+     * @param to First day excluded (ISO date)
+     * @return The files written, one per table and month
+     */
+    @PostMapping
+    public ResponseEntity<ExportManifestDTO> exportHistory(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        logger.info("POST /api/videos/export?from={}&to={}", from, to);
+        
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        return ResponseEntity.ok(historyExporter.export(from, to));
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.videoservice.controller;
 
 import com.example.videoservice.dto.*;
+import com.example.videoservice.model.RatingTotals;
 import com.example.videoservice.service.VideoService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -20,6 +21,7 @@ import java.util.Map;
  * - Recording watch events
  * - Submitting ratings
  * - Retrieving watch history and ratings
+ * - Continue-watching rows and resume positions
  * - Health check
  */
 @RestController
@@ -33,10 +35,11 @@ public class VideoController {
     
     /**
      * Record a watch event.
-     * Triggers Observer Pattern notification to Recommendation Service and Analytics.
+     * Heartbeats are coalesced per title and saved shortly after; Observer Pattern
+     * notification to Recommendation Service and Analytics follows the save.
      * 
      * @param createDTO Watch event data
-     * @return Watch event response with ID
+     * @return 202 with the accepted watch event (no ID yet), or 503 with Retry-After when the buffer is full
      */
     @PostMapping("/watch")
     public ResponseEntity<WatchEventResponseDTO> recordWatchEvent(
@@ -48,7 +51,26 @@ public class VideoController {
         
         WatchEventResponseDTO response = videoService.recordWatchEvent(createDTO);
         
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+    
+    /**
+     * Record a batch of watch events, e.g. uploaded by a mobile client after being offline.
+     * Validated and stored together, with one observer notification for the batch and one
+     * preference update per user.
+     * 
+     * @param batchDTO Up to 1000 watch events, each with the time it was recorded
+     * @return Counts of events received, archived and positions saved
+     */
+    @PostMapping("/watch/batch")
+    public ResponseEntity<WatchEventBatchResponseDTO> recordWatchEventBatch(
+            @Valid @RequestBody WatchEventBatchDTO batchDTO) {
+        
+        logger.info("POST /api/videos/watch/batch - {} events", batchDTO.getEvents().size());
+        
+        WatchEventBatchResponseDTO response = videoService.recordWatchEventBatch(batchDTO);
+        
+        return ResponseEntity.ok(response);
     }
     
     /**
@@ -74,7 +96,7 @@ public class VideoController {
      * Get watch history for a user.
      * 
      * @param userId User ID
-     * @return List of watch events
+     * @return Latest watch progress per title, most recent first
      */
     @GetMapping("/watch/user/{userId}")
     public ResponseEntity<List<WatchEventResponseDTO>> getUserWatchHistory(@PathVariable Long userId) {
@@ -85,6 +107,39 @@ public class VideoController {
         return ResponseEntity.ok(history);
     }
     
+    /**
+     * Get a user's continue-watching row.
+     * 
+     * @param userId User ID
+     * @param limit Maximum number of titles (capped at video.resume.max-titles-per-user)
+     * @return Unfinished titles with their last position, most recent first
+     */
+    @GetMapping("/resume/{userId}")
+    public ResponseEntity<List<ResumePositionDTO>> getContinueWatching(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "20") int limit) {
+        logger.debug("GET /api/videos/resume/{}?limit={}", userId, limit);
+        
+        List<ResumePositionDTO> titles = videoService.getContinueWatching(userId, Math.max(0, limit));
+        
+        return ResponseEntity.ok(titles);
+    }
+    
+    /**
+     * Get the resume position for player start-up.
+     * 
+     * @param userId User ID
+     * @param contentId Content ID
+     * @return Last position, or 404 if the user has not watched the title
+     */
+    @GetMapping("/resume/{userId}/{contentId}")
+    public ResponseEntity<ResumePositionDTO> getResumePosition(@PathVariable Long userId,
+                                                               @PathVariable Long contentId) {
+        logger.debug("GET /api/videos/resume/{}/{}", userId, contentId);
+        
+        return ResponseEntity.of(videoService.getResumePosition(userId, contentId));
+    }
+    
     /**
      * Get all ratings by a user.
      * 
@@ -104,17 +159,19 @@ public class VideoController {
      * Get user's average rating.
      * 
      * @param userId User ID
-     * @return Average rating
+     * @return Average rating, rating count and standard deviation
      */
     @GetMapping("/rate/user/{userId}/average")
     public ResponseEntity<Map<String, Object>> getUserAverageRating(@PathVariable Long userId) {
         logger.info("GET /api/videos/rate/user/{}/average", userId);
         
-        Double average = videoService.getUserAverageRating(userId);
+        RatingTotals totals = videoService.getUserRatingTotals(userId);
         
         Map<String, Object> response = new HashMap<>();
         response.put("userId", userId);
-        response.put("averageRating", average);
+        response.put("averageRating", totals.average());
+        response.put("ratingCount", totals.getCount());
+        response.put("ratingStdDev", totals.standardDeviation());
         
         return ResponseEntity.ok(response);
     }
@@ -123,17 +180,19 @@ public class VideoController {
      * Get content's average rating.
      * 
      * @param contentId Content ID
-     * @return Average rating
+     * @return Average rating, rating count and standard deviation
      */
     @GetMapping("/rate/content/{contentId}/average")
     public ResponseEntity<Map<String, Object>> getContentAverageRating(@PathVariable Long contentId) {
         logger.info("GET /api/videos/rate/content/{}/average", contentId);
         
-        Double average = videoService.getContentAverageRating(contentId);
+        RatingTotals totals = videoService.getContentRatingTotals(contentId);
         
         Map<String, Object> response = new HashMap<>();
         response.put("contentId", contentId);
-        response.put("averageRating", average);
+        response.put("averageRating", totals.average());
+        response.put("ratingCount", totals.getCount());
+        response.put("ratingStdDev", totals.standardDeviation());
         
         return ResponseEntity.ok(response);
     }
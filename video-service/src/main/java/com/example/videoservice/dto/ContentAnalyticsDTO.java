@@ -0,0 +1,33 @@
+package com.example.videoservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * DTO for a content's engagement summary. Viewer counts and quantiles are
+ * sketch estimates (about 1.6% error for the counts).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentAnalyticsDTO {
+    
+    private Long contentId;
+    private Long uniqueViewers;
+    private Long uniqueCompleters;
+    
+    /**
+     * uniqueCompleters / uniqueViewers, null if nobody watched
+     */
+    private Double completionRate;
+    private Long watchEvents;
+    private Long completedEvents;
+    
+    /**
+     * Reported watch progress in seconds by percentile, e.g. "p50"
+     */
+    private Map<String, Double> progressPercentiles;
+}
@@ -0,0 +1,22 @@
+package com.example.videoservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO exposing a content's raw engagement sketches (base64 in JSON), for merging
+ * with sketches kept elsewhere; see HyperLogLog.fromBytes and TDigest.fromBytes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentAnalyticsSketchDTO {
+    
+    private Long contentId;
+    private byte[] viewers;
+    private byte[] completers;
+    private byte[] progress;
+    private Long watchEvents;
+    private Long completedEvents;
+}
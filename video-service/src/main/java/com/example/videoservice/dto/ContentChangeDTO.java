@@ -0,0 +1,20 @@
+package com.example.videoservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one change feed entry; content is set for every change except DELETED.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentChangeDTO {
+    
+    private Long version;
+    private Long contentId;
+    private String changeType; // "CREATED", "UPDATED", "VIEWED" or "DELETED"
+    private Long viewCount;
+    private ContentResponseDTO content;
+}
@@ -0,0 +1,21 @@
+package com.example.videoservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a page of Content Service's change feed (GET /api/content/changes).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentChangeFeedDTO {
+    
+    private long since;
+    private long nextSince;
+    private boolean hasMore;
+    private List<ContentChangeDTO> changes;
+}
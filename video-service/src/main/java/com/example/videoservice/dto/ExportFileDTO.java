@@ -0,0 +1,23 @@
+package com.example.videoservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO describing one file of a history export: which table and time range it holds.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportFileDTO {
+    
+    private String table;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private String path;
+    private Long rows;
+    private Long bytes;
+}
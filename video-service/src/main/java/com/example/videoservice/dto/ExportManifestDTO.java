@@ -0,0 +1,25 @@
+package com.example.videoservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO returned by a history export: the directory written and its files, one per table and month.
+ * The files are read with ColumnarFileReader.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportManifestDTO {
+    
+    private String directory;
+    private LocalDate from;
+    private LocalDate to;
+    private List<ExportFileDTO> files;
+    private Long totalRows;
+    private Long elapsedMs;
+}
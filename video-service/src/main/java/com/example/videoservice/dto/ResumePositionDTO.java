@@ -0,0 +1,26 @@
+package com.example.videoservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for continue-watching entries and player resume positions.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumePositionDTO {
+    
+    private Long userId;
+    private Long contentId;
+    
+    /**
+     * Seconds into the title where playback should resume
+     */
+    private Integer progress;
+    private Boolean completed;
+    private LocalDateTime lastWatchedAt;
+}
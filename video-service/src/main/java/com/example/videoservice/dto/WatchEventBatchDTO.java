@@ -0,0 +1,25 @@
+package com.example.videoservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for uploading watch events recorded offline, all in one request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WatchEventBatchDTO {
+    
+    public static final int MAX_EVENTS = 1000;
+    
+    @NotEmpty(message = "At least one event is required")
+    @Size(max = MAX_EVENTS, message = "At most " + MAX_EVENTS + " events per batch")
+    private List<@Valid WatchEventBatchItemDTO> events;
+}
@@ -0,0 +1,38 @@
+package com.example.videoservice.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one watch event in an uploaded batch; like WatchEventCreateDTO plus the time
+ * the client recorded it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WatchEventBatchItemDTO {
+    
+    @NotNull(message = "User ID is required")
+    private Long userId;
+    
+    @NotNull(message = "Content ID is required")
+    private Long contentId;
+    
+    @NotNull(message = "Progress is required")
+    @Min(value = 0, message = "Progress must be non-negative")
+    private Integer progress;
+    
+    @NotNull(message = "Completed status is required")
+    private Boolean completed;
+    
+    /**
+     * When the client recorded the event (UTC); defaults to the upload time, and a time
+     * ahead of the server's clock is treated as the upload time
+     */
+    private LocalDateTime watchedAt;
+}
@@ -0,0 +1,34 @@
+package com.example.videoservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO acknowledging a stored watch event batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WatchEventBatchResponseDTO {
+    
+    /**
+     * Events in the batch
+     */
+    private Integer received;
+    
+    /**
+     * Events appended to the raw archive (0 when archiving is off; older events are skipped)
+     */
+    private Integer archived;
+    
+    /**
+     * Watch positions saved: the latest event per user and title
+     */
+    private Integer positions;
+    
+    /**
+     * Users in the batch, each sent one preference update
+     */
+    private Integer users;
+}
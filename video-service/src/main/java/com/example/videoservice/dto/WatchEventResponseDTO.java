@@ -14,6 +14,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class WatchEventResponseDTO {
     
+    /**
+     * Null when returned from POST /watch: the event is accepted before it is saved
+     */
     private Long id;
     private Long userId;
     private Long contentId;
@@ -0,0 +1,11 @@
+package com.example.videoservice.exception;
+
+/**
+ * Exception thrown when a history export is requested while another one is still running.
+ */
+public class ExportInProgressException extends RuntimeException {
+    
+    public ExportInProgressException() {
+        super("A history export is already running on this instance");
+    }
+}
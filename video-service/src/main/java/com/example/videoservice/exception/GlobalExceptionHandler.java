@@ -1,5 +1,6 @@
 package com.example.videoservice.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -45,6 +46,34 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
     }
     
+    /**
+     * Handle a full watch event buffer: tell the client when to retry.
+     */
+    @ExceptionHandler(WatchIngestionBackpressureException.class)
+    public ResponseEntity<ErrorResponse> handleWatchIngestionBackpressure(WatchIngestionBackpressureException ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(error);
+    }
+    
+    /**
+     * Handle a second export request while one is running.
+     */
+    @ExceptionHandler(ExportInProgressException.class)
+    public ResponseEntity<ErrorResponse> handleExportInProgress(ExportInProgressException ex) {
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.CONFLICT.value(),
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+    
     /**
      * Handle validation errors.
      */
@@ -0,0 +1,19 @@
+package com.example.videoservice.exception;
+
+/**
+ * Exception thrown when the watch event buffer is full (or draining for shutdown)
+ * and a watch event cannot be accepted right now.
+ */
+public class WatchIngestionBackpressureException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public WatchIngestionBackpressureException(long retryAfterSeconds) {
+        super("Watch event ingestion is saturated, retry in " + retryAfterSeconds + " s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.videoservice.export;
+
+import com.example.videoservice.export.ColumnarFormat.Column;
+import com.example.videoservice.export.ColumnarFormat.Encoding;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads a columnar export file (layout in ColumnarFormat) through memory-mapped column sections.
+ *
+ * open() reads the header and the ID dictionaries and maps every column section read-only;
+ * the operating system pages the data in as it is scanned, and concurrent readers of the same
+ * file share those pages. Rows are scanned with a Cursor, which decodes every column of the
+ * next row into primitives without allocating per row. Each thread uses its own Cursor; the
+ * reader itself is immutable and can be shared. Mappings are released when the reader is
+ * garbage collected.
+ *
+ * Usage:
+ * <pre>
+ *   ColumnarFileReader file = ColumnarFileReader.open(path);
+ *   int user = file.columnIndex("user_id");
+ *   ColumnarFileReader.Cursor rows = file.cursor();
+ *   while (rows.next()) {
+ *       train(rows.getCode(user), ...);
+ *   }
+ * </pre>
+ */
+public final class ColumnarFileReader {
+    
+    private final long rows;
+    private final List<Column> columns;
+    private final ByteBuffer[] sections;
+    private final long[][] dictionaries;
+    
+    private ColumnarFileReader(long rows, List<Column> columns, ByteBuffer[] sections, long[][] dictionaries) {
+        this.rows = rows;
+        this.columns = columns;
+        this.sections = sections;
+        this.dictionaries = dictionaries;
+    }
+    
+    public static ColumnarFileReader open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            DataInputStream header = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            byte[] magic = new byte[ColumnarFormat.MAGIC.length];
+            header.readFully(magic);
+            if (!Arrays.equals(magic, ColumnarFormat.MAGIC)) {
+                throw new IOException(file + " is not a columnar export file");
+            }
+            byte version = header.readByte();
+            if (version != ColumnarFormat.VERSION) {
+                throw new IOException(file + " has unsupported format version " + version);
+            }
+            
+            long rows = header.readLong();
+            int count = header.readInt();
+            List<Column> columns = new ArrayList<>(count);
+            ByteBuffer[] sections = new ByteBuffer[count];
+            long[][] dictionaries = new long[count][];
+            for (int i = 0; i < count; i++) {
+                Column column = new Column(header.readUTF(), Encoding.values()[header.readByte()]);
+                long offset = header.readLong();
+                long length = header.readLong();
+                if (length > Integer.MAX_VALUE) {
+                    throw new IOException("Column " + column + " of " + file + " is too large to map (" + length + " bytes)");
+                }
+                columns.add(column);
+                
+                ByteBuffer section = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                if (column.getEncoding() == Encoding.ID_DICTIONARY) {
+                    long[] dictionary = new long[section.getInt()];
+                    section.asLongBuffer().get(dictionary);
+                    section.position(4 + 8 * dictionary.length);
+                    dictionaries[i] = dictionary;
+                }
+                sections[i] = section.slice();
+            }
+            // Mappings stay valid after the channel is closed
+            return new ColumnarFileReader(rows, Collections.unmodifiableList(columns), sections, dictionaries);
+        }
+    }
+    
+    public long getRowCount() {
+        return rows;
+    }
+    
+    public List<Column> getColumns() {
+        return columns;
+    }
+    
+    public int columnIndex(String name) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).getName().equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No column " + name + " in " + columns);
+    }
+    
+    /**
+     * Distinct IDs of an ID column, indexed by the codes Cursor.getCode returns
+     */
+    public long[] dictionary(int column) {
+        expect(column, Encoding.ID_DICTIONARY);
+        return dictionaries[column].clone();
+    }
+    
+    public Cursor cursor() {
+        return new Cursor();
+    }
+    
+    private void expect(int column, Encoding encoding) {
+        if (columns.get(column).getEncoding() != encoding) {
+            throw new IllegalArgumentException("Column " + columns.get(column) + " is not " + encoding);
+        }
+    }
+    
+    /**
+     * Forward-only scan over the rows; next() must return true before the getters are used
+     */
+    public final class Cursor {
+        
+        private final ByteBuffer[] in = new ByteBuffer[sections.length];
+        private final Encoding[] encodings = new Encoding[sections.length];
+        // Current row: code, timestamp micros, int, bit or double bits, by column
+        private final long[] values = new long[sections.length];
+        private long position;
+        
+        private Cursor() {
+            for (int i = 0; i < in.length; i++) {
+                in[i] = sections[i].duplicate();
+                encodings[i] = columns.get(i).getEncoding();
+            }
+        }
+        
+        public boolean next() {
+            if (position == rows) {
+                return false;
+            }
+            for (int i = 0; i < in.length; i++) {
+                switch (encodings[i]) {
+                    case ID_DICTIONARY -> values[i] = ColumnarFormat.readVarLong(in[i]);
+                    case TIMESTAMP_DELTA -> values[i] += ColumnarFormat.unZigZag(ColumnarFormat.readVarLong(in[i]));
+                    case INT_VARINT -> values[i] = ColumnarFormat.unZigZag(ColumnarFormat.readVarLong(in[i]));
+                    case BOOLEAN_BITS -> values[i] = (in[i].get((int) (position >>> 3)) >>> (position & 7)) & 1;
+                    case DOUBLE -> values[i] = in[i].getLong();
+                }
+            }
+            position++;
+            return true;
+        }
+        
+        /**
+         * Dense code of the current row's ID (0 .. dictionary size - 1)
+         */
+        public int getCode(int column) {
+            expect(column, Encoding.ID_DICTIONARY);
+            return (int) values[column];
+        }
+        
+        public long getId(int column) {
+            return dictionaries[column][getCode(column)];
+        }
+        
+        public long getTimestampMicros(int column) {
+            expect(column, Encoding.TIMESTAMP_DELTA);
+            return values[column];
+        }
+        
+        public LocalDateTime getTimestamp(int column) {
+            return ColumnarFormat.fromEpochMicros(getTimestampMicros(column));
+        }
+        
+        public int getInt(int column) {
+            expect(column, Encoding.INT_VARINT);
+            return (int) values[column];
+        }
+        
+        public boolean getBoolean(int column) {
+            expect(column, Encoding.BOOLEAN_BITS);
+            return values[column] != 0;
+        }
+        
+        public double getDouble(int column) {
+            expect(column, Encoding.DOUBLE);
+            return Double.longBitsToDouble(values[column]);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.videoservice.export;
+
+import com.example.videoservice.export.ColumnarFormat.Column;
+import com.example.videoservice.export.ColumnarFormat.Encoding;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams rows into a columnar export file (layout in ColumnarFormat).
+ *
+ * Each column is encoded into its own temporary part file as rows arrive, so memory use
+ * does not grow with the row count (only the ID dictionaries are held, one entry per
+ * distinct ID). close() assembles the header and the parts into the target file through a
+ * temporary name and a rename, so the target either does not exist or is complete.
+ *
+ * Rows are written value by value, one call per column, then endRow(). Not thread-safe.
+ */
+public final class ColumnarFileWriter implements Closeable {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final Path target;
+    private final Sink[] sinks;
+    private long rows;
+    private boolean closed;
+    
+    public ColumnarFileWriter(Path target, List<Column> columns) throws IOException {
+        this.target = target;
+        this.sinks = new Sink[columns.size()];
+        try {
+            for (int i = 0; i < sinks.length; i++) {
+                Path part = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName() + "." + i + ".", ".part");
+                sinks[i] = new Sink(columns.get(i), part);
+            }
+        } catch (IOException e) {
+            abort();
+            throw e;
+        }
+    }
+    
+    public ColumnarFileWriter writeId(int column, long id) throws IOException {
+        sink(column, Encoding.ID_DICTIONARY).writeId(id);
+        return this;
+    }
+    
+    public ColumnarFileWriter writeTimestamp(int column, LocalDateTime time) throws IOException {
+        sink(column, Encoding.TIMESTAMP_DELTA).writeTimestamp(ColumnarFormat.toEpochMicros(time));
+        return this;
+    }
+    
+    public ColumnarFileWriter writeInt(int column, int value) throws IOException {
+        sink(column, Encoding.INT_VARINT).writeVarLong(ColumnarFormat.zigZag(value));
+        return this;
+    }
+    
+    public ColumnarFileWriter writeBoolean(int column, boolean value) throws IOException {
+        sink(column, Encoding.BOOLEAN_BITS).writeBit(value);
+        return this;
+    }
+    
+    public ColumnarFileWriter writeDouble(int column, double value) throws IOException {
+        sink(column, Encoding.DOUBLE).writeDouble(value);
+        return this;
+    }
+    
+    /**
+     * Complete the current row; every column must have received exactly one value
+     */
+    public void endRow() {
+        rows++;
+        for (Sink sink : sinks) {
+            if (sink.values != rows) {
+                throw new IllegalStateException("Column " + sink.column + " has " + sink.values + " values in row " + rows);
+            }
+        }
+    }
+    
+    public long getRows() {
+        return rows;
+    }
+    
+    /**
+     * Write the complete file to the target path
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            byte[][] prefixes = new byte[sinks.length][];
+            long[] lengths = new long[sinks.length];
+            for (int i = 0; i < sinks.length; i++) {
+                sinks[i].finish();
+                prefixes[i] = sinks[i].prefix();
+                lengths[i] = prefixes[i].length + Files.size(sinks[i].part);
+            }
+            // The header's size does not depend on the offsets in it, so one dry run gives the first section's offset
+            byte[] header = header(lengths, header(lengths, 0).length);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE)) {
+                out.write(header);
+                for (int i = 0; i < sinks.length; i++) {
+                    out.write(prefixes[i]);
+                    Files.copy(sinks[i].part, out);
+                }
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        } finally {
+            deleteParts();
+        }
+    }
+    
+    /**
+     * Discard everything written; the target is not created
+     */
+    public void abort() {
+        closed = true;
+        for (Sink sink : sinks) {
+            if (sink != null) {
+                try {
+                    sink.out.close();
+                } catch (IOException ignored) {
+                    // The part is deleted next anyway
+                }
+            }
+        }
+        deleteParts();
+    }
+    
+    private byte[] header(long[] lengths, long firstOffset) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(ColumnarFormat.MAGIC);
+        out.writeByte(ColumnarFormat.VERSION);
+        out.writeLong(rows);
+        out.writeInt(sinks.length);
+        long offset = firstOffset;
+        for (int i = 0; i < sinks.length; i++) {
+            out.writeUTF(sinks[i].column.getName());
+            out.writeByte(sinks[i].column.getEncoding().ordinal());
+            out.writeLong(offset);
+            out.writeLong(lengths[i]);
+            offset += lengths[i];
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+    
+    private Sink sink(int column, Encoding expected) {
+        Sink sink = sinks[column];
+        if (sink.column.getEncoding() != expected) {
+            throw new IllegalArgumentException("Column " + sink.column + " cannot take a " + expected + " value");
+        }
+        return sink;
+    }
+    
+    private void deleteParts() {
+        for (Sink sink : sinks) {
+            if (sink != null) {
+                try {
+                    Files.deleteIfExists(sink.part);
+                } catch (IOException ignored) {
+                    // Left in the export directory, named *.part
+                }
+            }
+        }
+    }
+    
+    /**
+     * One column's part file and encoder state
+     */
+    private static final class Sink {
+        
+        private final Column column;
+        private final Path part;
+        private final DataOutputStream out;
+        private long values;
+        
+        // ID_DICTIONARY: ID -> code, and the IDs by code
+        private Map<Long, Integer> codes;
+        private long[] dictionary;
+        
+        // TIMESTAMP_DELTA
+        private long previous;
+        
+        // BOOLEAN_BITS: bits of the byte being filled
+        private int bits;
+        private int bitCount;
+        
+        private Sink(Column column, Path part) throws IOException {
+            this.column = column;
+            this.part = part;
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(part), BUFFER_SIZE));
+            if (column.getEncoding() == Encoding.ID_DICTIONARY) {
+                codes = new HashMap<>();
+                dictionary = new long[1024];
+            }
+        }
+        
+        private void writeId(long id) throws IOException {
+            Integer code = codes.get(id);
+            if (code == null) {
+                code = codes.size();
+                if (code == dictionary.length) {
+                    dictionary = Arrays.copyOf(dictionary, code * 2);
+                }
+                dictionary[code] = id;
+                codes.put(id, code);
+            }
+            writeVarLong(code);
+        }
+        
+        private void writeTimestamp(long micros) throws IOException {
+            writeVarLong(ColumnarFormat.zigZag(micros - previous));
+            previous = micros;
+        }
+        
+        private void writeVarLong(long value) throws IOException {
+            ColumnarFormat.writeVarLong(out, value);
+            values++;
+        }
+        
+        private void writeBit(boolean value) throws IOException {
+            if (value) {
+                bits |= 1 << bitCount;
+            }
+            if (++bitCount == 8) {
+                out.write(bits);
+                bits = 0;
+                bitCount = 0;
+            }
+            values++;
+        }
+        
+        private void writeDouble(double value) throws IOException {
+            out.writeDouble(value);
+            values++;
+        }
+        
+        private void finish() throws IOException {
+            if (bitCount > 0) {
+                out.write(bits);
+            }
+            out.close();
+        }
+        
+        // Written before the part file in the column's section
+        private byte[] prefix() {
+            if (codes == null) {
+                return new byte[0];
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(4 + 8 * codes.size());
+            buffer.putInt(codes.size());
+            for (int code = 0; code < codes.size(); code++) {
+                buffer.putLong(dictionary[code]);
+            }
+            return buffer.array();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.videoservice.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Layout of the history export files (*.col) written by ColumnarFileWriter and read by
+ * ColumnarFileReader.
+ *
+ *   header    magic "SFCOL", version byte, row count (long), column count (int), then per
+ *             column: name (modified UTF-8), encoding (byte), section offset and length (longs)
+ *   sections  one per column, in header order, each holding every row's value for that column
+ *
+ * Encodings:
+ *   ID_DICTIONARY    distinct count (int) and the distinct IDs (longs) in first-seen order, then
+ *                    one varint code per row indexing into them. Codes are dense (0..count-1),
+ *                    so readers can use them directly as array or embedding indices.
+ *   TIMESTAMP_DELTA  one zigzag varint per row: microseconds since the previous row's value
+ *                    (since the epoch for the first row). Rows come out of the database close
+ *                    to time order, so most values take one to three bytes.
+ *   INT_VARINT       one zigzag varint per row
+ *   BOOLEAN_BITS     one bit per row, least significant bit first
+ *   DOUBLE           eight bytes per row
+ *
+ * Timestamps are the database's timestamp-without-time-zone values taken as UTC. Multi-byte
+ * values are big-endian.
+ */
+public final class ColumnarFormat {
+    
+    static final byte[] MAGIC = {'S', 'F', 'C', 'O', 'L'};
+    static final byte VERSION = 1;
+    
+    public enum Encoding {
+        ID_DICTIONARY,
+        TIMESTAMP_DELTA,
+        INT_VARINT,
+        BOOLEAN_BITS,
+        DOUBLE
+    }
+    
+    /**
+     * A named column and its encoding
+     */
+    public static final class Column {
+        
+        private final String name;
+        private final Encoding encoding;
+        
+        public Column(String name, Encoding encoding) {
+            this.name = name;
+            this.encoding = encoding;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public Encoding getEncoding() {
+            return encoding;
+        }
+        
+        @Override
+        public String toString() {
+            return name + " (" + encoding + ")";
+        }
+    }
+    
+    private ColumnarFormat() {
+    }
+    
+    static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+    
+    static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+    
+    // Small negative numbers become small varints: 0, -1, 1, -2, ... -> 0, 1, 2, 3, ...
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+    
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    static long toEpochMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+    
+    static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+            (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.videoservice.export;
+
+import com.example.videoservice.dto.ExportFileDTO;
+import com.example.videoservice.dto.ExportManifestDTO;
+import com.example.videoservice.exception.ExportInProgressException;
+import com.example.videoservice.export.ColumnarFormat.Column;
+import com.example.videoservice.export.ColumnarFormat.Encoding;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exports watch_events and ratings to columnar files for offline model training.
+ *
+ * The requested date range is cut into calendar months (for watch_events, one partition
+ * each), and each table-month becomes one file, written by a pool of `threads` workers.
+ * Every worker streams its rows through a PostgreSQL server-side cursor (read-only
+ * transaction, fetch-size rows per round trip) straight into a ColumnarFileWriter, so
+ * neither the JVM nor the database materializes a whole month. Rows are exported in
+ * storage order; timestamps are delta-encoded, which stays compact as long as rows are
+ * roughly chronological, as these append-mostly tables are.
+ *
+ * Each run writes to a new directory under video.export.directory. One run at a time per
+ * instance; a file only appears once complete.
+ */
+@Component
+public class HistoryExporter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HistoryExporter.class);
+    
+    private static final DateTimeFormatter RUN_NAME = DateTimeFormatter.ofPattern("'export-'yyyyMMdd-HHmmss");
+    
+    private static final Dataset WATCH_EVENTS = new Dataset("watch_events",
+        "SELECT user_id, content_id, timestamp, progress, completed FROM watch_events WHERE timestamp >= ? AND timestamp < ?",
+        List.of(
+            new Column("user_id", Encoding.ID_DICTIONARY),
+            new Column("content_id", Encoding.ID_DICTIONARY),
+            new Column("timestamp", Encoding.TIMESTAMP_DELTA),
+            new Column("progress", Encoding.INT_VARINT),
+            new Column("completed", Encoding.BOOLEAN_BITS)),
+        (rs, out) -> out
+            .writeId(0, rs.getLong(1))
+            .writeId(1, rs.getLong(2))
+            .writeTimestamp(2, rs.getTimestamp(3).toLocalDateTime())
+            .writeInt(3, rs.getInt(4))
+            .writeBoolean(4, rs.getBoolean(5)));
+    
+    private static final Dataset RATINGS = new Dataset("ratings",
+        "SELECT user_id, content_id, timestamp, score FROM ratings WHERE timestamp >= ? AND timestamp < ?",
+        List.of(
+            new Column("user_id", Encoding.ID_DICTIONARY),
+            new Column("content_id", Encoding.ID_DICTIONARY),
+            new Column("timestamp", Encoding.TIMESTAMP_DELTA),
+            new Column("score", Encoding.DOUBLE)),
+        (rs, out) -> out
+            .writeId(0, rs.getLong(1))
+            .writeId(1, rs.getLong(2))
+            .writeTimestamp(2, rs.getTimestamp(3).toLocalDateTime())
+            .writeDouble(3, rs.getDouble(4)));
+    
+    private final JdbcTemplate cursorTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Path directory;
+    private final int threads;
+    
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    public HistoryExporter(DataSource dataSource,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${video.export.directory:/tmp/video-export}") String directory,
+                           @Value("${video.export.threads:3}") int threads,
+                           @Value("${video.export.fetch-size:10000}") int fetchSize) {
+        // The PostgreSQL driver only uses a cursor with a fetch size inside a transaction
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.directory = Paths.get(directory);
+        this.threads = threads;
+    }
+    
+    /**
+     * Export both tables for [from, to)
+     */
+    public ExportManifestDTO export(LocalDate from, LocalDate to) {
+        if (!running.compareAndSet(false, true)) {
+            throw new ExportInProgressException();
+        }
+        long started = System.nanoTime();
+        AtomicInteger workers = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "history-export-" + workers.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Path runDirectory = Files.createDirectories(directory.resolve(LocalDateTime.now().format(RUN_NAME)));
+            
+            List<Future<ExportFileDTO>> slices = new ArrayList<>();
+            for (LocalDate month = from; month.isBefore(to); month = month.withDayOfMonth(1).plusMonths(1)) {
+                LocalDateTime sliceFrom = month.atStartOfDay();
+                LocalDateTime sliceTo = min(month.withDayOfMonth(1).plusMonths(1), to).atStartOfDay();
+                for (Dataset dataset : List.of(WATCH_EVENTS, RATINGS)) {
+                    slices.add(pool.submit(() -> exportSlice(dataset, sliceFrom, sliceTo, runDirectory)));
+                }
+            }
+            
+            List<ExportFileDTO> files = new ArrayList<>(slices.size());
+            for (Future<ExportFileDTO> slice : slices) {
+                files.add(slice.get());
+            }
+            long totalRows = files.stream().mapToLong(ExportFileDTO::getRows).sum();
+            long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+            logger.info("HistoryExporter: exported {} rows in {} files to {} in {} ms",
+                totalRows, files.size(), runDirectory, elapsedMs);
+            return new ExportManifestDTO(runDirectory.toString(), from, to, files, totalRows, elapsedMs);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("History export failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("History export interrupted", e);
+        } finally {
+            pool.shutdownNow();
+            running.set(false);
+        }
+    }
+    
+    private ExportFileDTO exportSlice(Dataset dataset, LocalDateTime from, LocalDateTime to, Path runDirectory)
+            throws IOException {
+        Path file = runDirectory.resolve(dataset.table + "-" + from.toLocalDate() + "_" + to.toLocalDate() + ".col");
+        ColumnarFileWriter writer = new ColumnarFileWriter(file, dataset.columns);
+        try {
+            readOnlyTransaction.executeWithoutResult(status ->
+                cursorTemplate.query(dataset.sql, rs -> {
+                    try {
+                        dataset.rowWriter.write(rs, writer);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    writer.endRow();
+                }, Timestamp.valueOf(from), Timestamp.valueOf(to)));
+            writer.close();
+        } catch (UncheckedIOException e) {
+            writer.abort();
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            writer.abort();
+            throw e;
+        }
+        logger.debug("HistoryExporter: {} [{}, {}) -> {} ({} rows)", dataset.table, from, to, file, writer.getRows());
+        return new ExportFileDTO(dataset.table, from, to, file.toString(), writer.getRows(), Files.size(file));
+    }
+    
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+    
+    /**
+     * Writes one result row's columns
+     */
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs, ColumnarFileWriter out) throws SQLException, IOException;
+    }
+    
+    /**
+     * An exported table: its cursor query (bounded by [from, to) on timestamp) and file columns
+     */
+    private static final class Dataset {
+        
+        private final String table;
+        private final String sql;
+        private final List<Column> columns;
+        private final RowWriter rowWriter;
+        
+        private Dataset(String table, String sql, List<Column> columns, RowWriter rowWriter) {
+            this.table = table;
+            this.sql = sql;
+            this.columns = columns;
+            this.rowWriter = rowWriter;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.videoservice.ingest;
+
+import com.example.videoservice.model.WatchEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind buffer for the raw watch event archive (watch_events).
+ *
+ * POST /api/videos/watch offers every heartbeat here (when video.watch.archive-raw-events
+ * is on) besides merging it into WatchProgressStore; a single background writer drains
+ * the buffer and appends the events in JDBC batches (one multi-row INSERT per batch with
+ * reWriteBatchedInserts). Notifications are sent by WatchProgressStore, not from here.
+ * Uploaded batches (POST /api/videos/watch/batch) skip the buffer through insertNow().
+ *
+ * The buffer is a ConcurrentLinkedQueue bounded by a reserved-slot counter, so request
+ * threads never block on each other. The caller checks hasCapacity() before it accepts a
+ * heartbeat anywhere else and answers 503 with Retry-After (backpressure) when the buffer
+ * is full, instead of queueing without limit. offer() can still return false if other
+ * requests fill the last slots in between; by then the heartbeat has been accepted, so
+ * the caller only logs it and the event goes unarchived (counted as rejected).
+ *
+ * The writer flushes when batch-size events are waiting or flush-interval-ms after the
+ * previous flush, whichever comes first. A failed batch is retried max-attempts times
+ * (the buffer absorbs new events meanwhile) before it is dropped and counted. On
+ * shutdown, new events are refused and everything already accepted is written.
+ *
+ * There is only one writer, so no failure of a batch may end it: if it died, the buffer
+ * would fill and every heartbeat be answered 503. Any exception is caught and counted
+ * per batch; should the thread still die (an Error), the "watchEventIngestor" health
+ * indicator turns DOWN, which the liveness group reports, so the instance is restarted.
+ *
+ * Metrics: video.watch.ingest.{accepted,rejected,persisted,dropped} (counters),
+ * video.watch.ingest.queue.depth and video.watch.ingest.writer.alive (gauges),
+ * video.watch.ingest.batch.size and video.watch.ingest.flush (batch size and insert time).
+ */
+@Component
+public class WatchEventIngestor implements SmartLifecycle, HealthIndicator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WatchEventIngestor.class);
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO watch_events (user_id, content_id, progress, completed, timestamp) VALUES (?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final WatchEventPartitions partitions;
+    
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final int maxAttempts;
+    
+    private final Queue<WatchEvent> buffer = new ConcurrentLinkedQueue<>();
+    
+    // Slots reserved in the buffer; incremented before an event is added, so it bounds the queue
+    private final AtomicInteger depth = new AtomicInteger();
+    
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter persisted;
+    private final Counter dropped;
+    private final DistributionSummary batchSizes;
+    private final Timer flushTimer;
+    
+    private volatile boolean accepting;
+    private volatile Thread writer;
+    
+    public WatchEventIngestor(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              WatchEventPartitions partitions,
+                              MeterRegistry meterRegistry,
+                              @Value("${video.watch.ingest.capacity:10000}") int capacity,
+                              @Value("${video.watch.ingest.batch-size:500}") int batchSize,
+                              @Value("${video.watch.ingest.flush-interval-ms:50}") long flushIntervalMs,
+                              @Value("${video.watch.ingest.max-attempts:3}") int maxAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitions = partitions;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.maxAttempts = maxAttempts;
+        
+        this.accepted = Counter.builder("video.watch.ingest.accepted").register(meterRegistry);
+        this.rejected = Counter.builder("video.watch.ingest.rejected").register(meterRegistry);
+        this.persisted = Counter.builder("video.watch.ingest.persisted").register(meterRegistry);
+        this.dropped = Counter.builder("video.watch.ingest.dropped").register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("video.watch.ingest.batch.size").register(meterRegistry);
+        this.flushTimer = Timer.builder("video.watch.ingest.flush").register(meterRegistry);
+        Gauge.builder("video.watch.ingest.queue.depth", depth, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("video.watch.ingest.writer.alive", this, ingestor -> ingestor.isWriterAlive() ? 1 : 0)
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Whether offer() would currently accept an event; a hint, since concurrent offers
+     * may take the remaining slots
+     */
+    public boolean hasCapacity() {
+        return accepting && depth.get() < capacity;
+    }
+    
+    /**
+     * Buffer a validated watch event for the writer
+     *
+     * @return false if the buffer is full or the service is shutting down
+     */
+    public boolean offer(WatchEvent event) {
+        int reserved = depth.incrementAndGet();
+        // Checked after reserving, so the writer cannot see an empty buffer, stop, and miss this event
+        if (!accepting || reserved > capacity) {
+            depth.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        buffer.offer(event);
+        accepted.increment();
+        if (reserved == batchSize) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+    
+    /**
+     * Archive events right away, bypassing the buffer: one JDBC batch in the caller's
+     * transaction (used for uploaded batches, which are acknowledged only once stored).
+     * Events older than the oldest partition (WatchEventPartitions.writableSince) are skipped.
+     *
+     * @return the number of events archived
+     */
+    public int insertNow(List<WatchEvent> events) {
+        LocalDateTime writableSince = partitions.writableSince();
+        List<WatchEvent> writable = events.stream()
+            .filter(event -> !event.getTimestamp().isBefore(writableSince))
+            .toList();
+        if (writable.size() < events.size()) {
+            logger.info("WatchEventIngestor: {} uploaded events predate {} and are not archived",
+                events.size() - writable.size(), writableSince);
+        }
+        if (!writable.isEmpty()) {
+            flushTimer.record(() -> batchInsert(writable));
+            persisted.increment(writable.size());
+            batchSizes.record(writable.size());
+        }
+        return writable.size();
+    }
+    
+    /**
+     * Events accepted but not yet written
+     */
+    public int getDepth() {
+        return depth.get();
+    }
+    
+    /**
+     * Seconds a rejected client should wait: roughly how long the writer needs to work through the buffer
+     */
+    public long retryAfterSeconds() {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(flushIntervalNanos * (capacity / Math.max(1, batchSize))));
+    }
+    
+    /**
+     * DOWN while events are accepted but the writer thread is gone
+     */
+    @Override
+    public Health health() {
+        boolean writerAlive = isWriterAlive();
+        Health.Builder builder = !accepting || writerAlive ? Health.up() : Health.down();
+        return builder
+            .withDetail("writerAlive", writerAlive)
+            .withDetail("queueDepth", depth.get())
+            .withDetail("capacity", capacity)
+            .build();
+    }
+    
+    private boolean isWriterAlive() {
+        Thread thread = writer;
+        return thread != null && thread.isAlive();
+    }
+    
+    @Override
+    public void start() {
+        accepting = true;
+        Thread thread = new Thread(this::runWriter, "watch-event-writer");
+        thread.setDaemon(true);
+        thread.setUncaughtExceptionHandler((t, e) ->
+            logger.error("WatchEventIngestor: writer thread died, buffered events are no longer written", e));
+        writer = thread;
+        thread.start();
+        logger.info("WatchEventIngestor: started (capacity {}, batch size {}, flush every {} ms)",
+            capacity, batchSize, TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos));
+    }
+    
+    /**
+     * Refuse new events and wait for the writer to persist the ones already accepted
+     */
+    @Override
+    public void stop() {
+        Thread thread = writer;
+        if (!accepting || thread == null) {
+            return;
+        }
+        accepting = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (depth.get() > 0) {
+            logger.warn("WatchEventIngestor: stopped with {} events still buffered", depth.get());
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return accepting;
+    }
+    
+    /**
+     * Stop after the web server (which stops accepting requests first) and before the data source closes
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+    
+    private void runWriter() {
+        long lastFlush = System.nanoTime();
+        while (true) {
+            try {
+                boolean stopping = !accepting;
+                int pending = depth.get();
+                if (stopping && pending == 0) {
+                    return;
+                }
+                long sinceFlush = System.nanoTime() - lastFlush;
+                if (!stopping && pending < batchSize && sinceFlush < flushIntervalNanos) {
+                    LockSupport.parkNanos(this, flushIntervalNanos - sinceFlush);
+                    continue;
+                }
+                List<WatchEvent> batch = drain();
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                } else if (stopping) {
+                    // A slot is reserved but its event is not in the queue yet
+                    Thread.onSpinWait();
+                }
+            } catch (RuntimeException e) {
+                logger.error("WatchEventIngestor: writer iteration failed, continuing", e);
+            }
+            lastFlush = System.nanoTime();
+        }
+    }
+    
+    private List<WatchEvent> drain() {
+        List<WatchEvent> batch = new ArrayList<>(batchSize);
+        WatchEvent next;
+        while (batch.size() < batchSize && (next = buffer.poll()) != null) {
+            batch.add(next);
+        }
+        depth.addAndGet(-batch.size());
+        return batch;
+    }
+    
+    private void flush(List<WatchEvent> batch) {
+        if (!insert(batch)) {
+            dropped.increment(batch.size());
+            logger.error("WatchEventIngestor: dropped {} watch events after {} failed attempts", batch.size(), maxAttempts);
+            return;
+        }
+        persisted.increment(batch.size());
+        batchSizes.record(batch.size());
+    }
+    
+    private boolean insert(List<WatchEvent> batch) {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> batchInsert(batch)));
+                return true;
+            } catch (RuntimeException e) {
+                // Not only DataAccessException: a transaction or mapping failure must not escape either
+                logger.warn("WatchEventIngestor: batch of {} failed (attempt {}/{}): {}",
+                    batch.size(), attempt, maxAttempts, e.getMessage());
+                if (attempt < maxAttempts) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200L * attempt));
+                }
+            }
+        }
+        return false;
+    }
+    
+    private void batchInsert(List<WatchEvent> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+            ps.setLong(1, event.getUserId());
+            ps.setLong(2, event.getContentId());
+            ps.setInt(3, event.getProgress());
+            ps.setBoolean(4, Boolean.TRUE.equals(event.getCompleted()));
+            ps.setTimestamp(5, Timestamp.valueOf(event.getTimestamp()));
+        });
+    }
+}
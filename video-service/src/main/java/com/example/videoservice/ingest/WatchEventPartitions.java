@@ -0,0 +1,217 @@
+package com.example.videoservice.ingest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps watch_events range-partitioned by month on the event timestamp.
+ *
+ * Each month is its own table (watch_events_y2026m01, ...) attached to the watch_events
+ * parent, with the (user_id, timestamp DESC) and (content_id, timestamp) indexes declared
+ * on the parent and so created on every partition. A query that bounds the timestamp
+ * only touches the partitions in range, and retention is a DROP TABLE per expired month
+ * instead of a bulk DELETE.
+ *
+ * On startup, before WatchEventIngestor starts writing, a plain watch_events table (as
+ * created by Hibernate's ddl-auto) is converted: its rows within the retention period are
+ * copied into a new partitioned table, which then replaces it. After that, and every
+ * maintenance-interval-ms, partitions are created for every month from the oldest retained
+ * one (12 months back when retention is off) to premake-months ahead, so late uploads of
+ * older events (see writableSince) find their partition, and partitions older than
+ * retention-months are dropped (0 keeps every month). All of it runs under a
+ * transaction-scoped advisory lock, so instances starting together take turns.
+ */
+@Component
+public class WatchEventPartitions implements SmartLifecycle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WatchEventPartitions.class);
+    
+    private static final String TABLE = "watch_events";
+    // How far back partitions are kept ready for late events when retention is off
+    private static final int UNRETAINED_WRITABLE_MONTHS = 12;
+    
+    private static final Pattern PARTITION_NAME = Pattern.compile(TABLE + "_y(\\d{4})m(\\d{2})");
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int premakeMonths;
+    private final int retentionMonths;
+    
+    private volatile boolean running;
+    
+    public WatchEventPartitions(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${video.watch.partitions.premake-months:3}") int premakeMonths,
+                                @Value("${video.watch.partitions.retention-months:13}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.premakeMonths = premakeMonths;
+        this.retentionMonths = retentionMonths;
+    }
+    
+    @Override
+    public void start() {
+        transactionTemplate.executeWithoutResult(status -> {
+            lock();
+            String kind = jdbcTemplate.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)", String.class, TABLE)
+                .stream().findFirst().orElse(null);
+            if (!"p".equals(kind)) {
+                partitionTable(kind != null);
+            }
+            createWritable();
+            dropExpired();
+        });
+        running = true;
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    /**
+     * Start before WatchEventIngestor, which needs the partitions to insert into
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 8192;
+    }
+    
+    @Scheduled(fixedDelayString = "${video.watch.partitions.maintenance-interval-ms:3600000}",
+               initialDelayString = "${video.watch.partitions.maintenance-interval-ms:3600000}")
+    public void maintain() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                lock();
+                createWritable();
+                dropExpired();
+            });
+        } catch (RuntimeException e) {
+            logger.error("WatchEventPartitions: maintenance failed, will retry: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Oldest event time kept, or null when retention is off
+     */
+    public LocalDateTime retainedSince() {
+        return retentionMonths > 0 ? oldestRetainedMonth().atDay(1).atStartOfDay() : null;
+    }
+    
+    /**
+     * Oldest event time that has a partition to insert into; older events cannot be archived
+     */
+    public LocalDateTime writableSince() {
+        return oldestWritableMonth().atDay(1).atStartOfDay();
+    }
+    
+    private void partitionTable(boolean copyExisting) {
+        String staging = TABLE + "_partitioned";
+        jdbcTemplate.execute("CREATE TABLE " + staging + " (" +
+            "id BIGSERIAL NOT NULL, " +
+            "user_id BIGINT NOT NULL, " +
+            "content_id BIGINT NOT NULL, " +
+            "progress INTEGER NOT NULL, " +
+            "completed BOOLEAN NOT NULL, " +
+            "timestamp TIMESTAMP(6) NOT NULL, " +
+            "PRIMARY KEY (id, timestamp)" +
+            ") PARTITION BY RANGE (timestamp)");
+        
+        long copied = 0;
+        if (copyExisting) {
+            LocalDateTime since = retainedSince();
+            Timestamp from = Timestamp.valueOf(since != null ? since : LocalDateTime.of(1970, 1, 1, 0, 0));
+            Map<String, Object> range = jdbcTemplate.queryForMap(
+                "SELECT MIN(timestamp) AS first_at, MAX(timestamp) AS last_at FROM " + TABLE + " WHERE timestamp >= ?", from);
+            if (range.get("first_at") != null) {
+                // Months holding existing rows; later months are added by createWritable
+                YearMonth first = YearMonth.from(((Timestamp) range.get("first_at")).toLocalDateTime());
+                YearMonth last = YearMonth.from(((Timestamp) range.get("last_at")).toLocalDateTime());
+                for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+                    createPartition(staging, month);
+                }
+                copied = jdbcTemplate.update(
+                    "INSERT INTO " + staging + " (id, user_id, content_id, progress, completed, timestamp) " +
+                    "SELECT id, user_id, content_id, progress, completed, timestamp FROM " + TABLE + " WHERE timestamp >= ?",
+                    from);
+            }
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + TABLE, Long.class);
+            // New IDs continue after the old table's
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, 'id'), ?, false)",
+                Long.class, staging, maxId + 1);
+            jdbcTemplate.execute("DROP TABLE " + TABLE);
+        }
+        
+        jdbcTemplate.execute("ALTER TABLE " + staging + " RENAME TO " + TABLE);
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_watch_events_user_time ON " + TABLE + " (user_id, timestamp DESC)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_watch_events_content_time ON " + TABLE + " (content_id, timestamp)");
+        logger.info("WatchEventPartitions: partitioned {} by month ({} rows carried over)", TABLE, copied);
+    }
+    
+    private void createWritable() {
+        YearMonth last = YearMonth.now().plusMonths(premakeMonths);
+        for (YearMonth month = oldestWritableMonth(); !month.isAfter(last); month = month.plusMonths(1)) {
+            createPartition(TABLE, month);
+        }
+    }
+    
+    private void dropExpired() {
+        if (retentionMonths <= 0) {
+            return;
+        }
+        YearMonth oldest = oldestRetainedMonth();
+        List<String> partitions = jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = to_regclass(?)", String.class, TABLE);
+        for (String partition : partitions) {
+            Matcher name = PARTITION_NAME.matcher(partition);
+            if (name.matches()
+                && YearMonth.of(Integer.parseInt(name.group(1)), Integer.parseInt(name.group(2))).isBefore(oldest)) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                logger.info("WatchEventPartitions: dropped expired partition {}", partition);
+            }
+        }
+    }
+    
+    private void createPartition(String parent, YearMonth month) {
+        jdbcTemplate.execute(String.format(
+            "CREATE TABLE IF NOT EXISTS %s_y%04dm%02d PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+            TABLE, month.getYear(), month.getMonthValue(), parent,
+            Timestamp.valueOf(month.atDay(1).atStartOfDay()),
+            Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay())));
+    }
+    
+    private YearMonth oldestWritableMonth() {
+        return retentionMonths > 0 ? oldestRetainedMonth() : YearMonth.now().minusMonths(UNRETAINED_WRITABLE_MONTHS);
+    }
+    
+    private YearMonth oldestRetainedMonth() {
+        return YearMonth.now().minusMonths(retentionMonths);
+    }
+    
+    // Held until the surrounding transaction ends
+    private void lock() {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(hashtext(?))", TABLE + "_partitions");
+    }
+}
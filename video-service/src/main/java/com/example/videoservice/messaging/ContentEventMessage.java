@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
+import java.util.Map;
 
 /**
  * Message DTO for content events received from RabbitMQ.
@@ -20,5 +21,7 @@ public class ContentEventMessage implements Serializable {
     private String type;
     private String genre;
     private Integer releaseYear;
+    private Long version;
+    private Map<String, Object> changedFields;
 }
 
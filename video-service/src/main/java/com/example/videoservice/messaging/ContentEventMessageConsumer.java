@@ -1,30 +1,46 @@
 package com.example.videoservice.messaging;
 
+import com.example.videoservice.catalog.ContentCatalogReplica;
+import com.example.videoservice.config.RabbitMQConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
  * Consumer for content events from RabbitMQ.
- * Video Service reacts to new content creation for validation purposes.
+ * Video Service tracks content lifecycle (created/updated/deleted) in ContentCatalogReplica,
+ * so watch events and ratings are validated without a REST call.
  */
 @Component
 public class ContentEventMessageConsumer {
     
     private static final Logger logger = LoggerFactory.getLogger(ContentEventMessageConsumer.class);
     
-    @RabbitListener(queues = "content.events")
+    @Autowired
+    private ContentCatalogReplica contentCatalog;
+    
+    @RabbitListener(queues = RabbitMQConfig.CONTENT_EVENTS_QUEUE)
     public void handleContentEvent(ContentEventMessage message) {
         try {
             logger.info("=== Received content event from queue ===");
             logger.info("Event: contentId={}, eventType={}, title={}", 
                        message.getContentId(), message.getEventType(), message.getTitle());
             
+            long version = message.getVersion() != null ? message.getVersion() : 0L;
             if ("CONTENT_CREATED".equals(message.getEventType())) {
                 logger.info("New content available for watch events: {} (ID: {})", 
                            message.getTitle(), message.getContentId());
-                // Video Service now knows about new content without REST call
+                contentCatalog.applyUpsert(message.getContentId(), version, message.getGenre());
+            } else if ("CONTENT_UPDATED".equals(message.getEventType())) {
+                logger.info("Content {} updated at version {}: {}", 
+                           message.getContentId(), message.getVersion(), message.getChangedFields());
+                contentCatalog.applyUpsert(message.getContentId(), version, message.getGenre());
+            } else if ("CONTENT_DELETED".equals(message.getEventType())) {
+                logger.info("Content {} deleted at version {} - no longer valid for watch events", 
+                           message.getContentId(), message.getVersion());
+                contentCatalog.applyDelete(message.getContentId(), version);
             }
             
             logger.info("=== Successfully processed content event for content {} ===", 
@@ -0,0 +1,34 @@
+package com.example.videoservice.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Message DTO for rating changes sent to Content Service via RabbitMQ.
+ * 
+ * Carries the delta of a single rating rather than an aggregate, so Content Service
+ * can keep rating_sum / rating_count per content with in-place additions:
+ * - new rating: previousScore is null (sum += score, count += 1)
+ * - changed rating: previousScore is the old score (sum += score - previousScore)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentRatingMessage implements Serializable {
+    
+    private Long contentId;
+    private Long userId;
+    private Double score;
+    private Double previousScore;
+    
+    public static ContentRatingMessage forNewRating(Long contentId, Long userId, Double score) {
+        return new ContentRatingMessage(contentId, userId, score, null);
+    }
+    
+    public static ContentRatingMessage forChangedRating(Long contentId, Long userId, Double score, Double previousScore) {
+        return new ContentRatingMessage(contentId, userId, score, previousScore);
+    }
+}
@@ -52,5 +52,25 @@ public class MessageQueuePublisher {
                         message.getUserId(), e.getMessage(), e);
         }
     }
+    
+    /**
+     * Publish a rating delta for Content Service's per-content rating aggregate.
+     * 
+     * @param message Rating change (new score and, for a re-rating, the previous one)
+     */
+    public void publishContentRating(ContentRatingMessage message) {
+        try {
+            rabbitTemplate.convertAndSend(
+                RabbitMQConfig.CONTENT_RATINGS_QUEUE,
+                message
+            );
+            logger.info("Published rating delta for content {}: score={}, previousScore={}", 
+                       message.getContentId(), message.getScore(), message.getPreviousScore());
+            
+        } catch (Exception e) {
+            // Same policy as preference updates: the rating itself is already saved
+            logger.error("Failed to publish rating delta for content {}: {}", 
+                        message.getContentId(), e.getMessage(), e);
+        }
+    }
 }
-
@@ -5,6 +5,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Message DTO for user preference updates sent via RabbitMQ.
@@ -37,6 +39,23 @@ public class UserPreferenceMessage implements Serializable {
         );
     }
     
+    /**
+     * One message for all the titles a user watched in an uploaded batch:
+     * watchCount is the number of titles, preferredGenres their distinct genres, comma-separated
+     */
+    public static UserPreferenceMessage forWatchBatch(Long userId, int titles, List<String> genres) {
+        List<String> distinct = genres.stream().filter(Objects::nonNull).distinct().toList();
+        return new UserPreferenceMessage(
+            userId,
+            "WATCH",
+            null,
+            distinct.isEmpty() ? null : distinct.get(0),
+            titles,
+            null,
+            distinct.isEmpty() ? null : String.join(",", distinct)
+        );
+    }
+    
     public static UserPreferenceMessage forRatingEvent(Long userId, Long contentId, String genre, Double score) {
         return new UserPreferenceMessage(
             userId,
@@ -0,0 +1,55 @@
+package com.example.videoservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity holding the merged engagement sketches of one content item, shared by all
+ * Video Service instances (see ContentAnalyticsStore). Sketch columns hold the
+ * serialized HyperLogLog / TDigest forms.
+ */
+@Entity
+@Table(name = "content_analytics")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentAnalytics {
+    
+    /**
+     * Reference to the content from Content Service
+     */
+    @Id
+    @Column(name = "content_id")
+    private Long contentId;
+    
+    /**
+     * HyperLogLog of the users who watched the content
+     */
+    @Column(name = "viewers_sketch", nullable = false)
+    private byte[] viewersSketch;
+    
+    /**
+     * HyperLogLog of the users who completed the content
+     */
+    @Column(name = "completers_sketch", nullable = false)
+    private byte[] completersSketch;
+    
+    /**
+     * TDigest of reported watch progress (seconds)
+     */
+    @Column(name = "progress_digest", nullable = false)
+    private byte[] progressDigest;
+    
+    @Column(name = "watch_events", nullable = false)
+    private long watchEvents;
+    
+    @Column(name = "completed_events", nullable = false)
+    private long completedEvents;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
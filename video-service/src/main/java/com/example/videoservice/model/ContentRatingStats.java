@@ -0,0 +1,28 @@
+package com.example.videoservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity holding the totals of all ratings one content has received
+ * (the per-content counterpart of UserRatingStats).
+ */
+@Entity
+@Table(name = "content_rating_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentRatingStats {
+    
+    /**
+     * Reference to the content from Content Service
+     */
+    @Id
+    @Column(name = "content_id")
+    private Long contentId;
+    
+    @Embedded
+    private RatingTotals totals;
+}
@@ -14,6 +14,9 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "ratings", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"user_id", "content_id"})
+}, indexes = {
+    // Time-range scans of the history export
+    @Index(name = "idx_ratings_timestamp", columnList = "timestamp")
 })
 @Data
 @NoArgsConstructor
@@ -0,0 +1,53 @@
+package com.example.videoservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running totals over a set of rating scores, enough to derive the average and
+ * standard deviation without reading the ratings themselves.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingTotals {
+    
+    @Column(name = "rating_sum", nullable = false)
+    private double sum;
+    
+    @Column(name = "rating_count", nullable = false)
+    private long count;
+    
+    @Column(name = "rating_sum_squares", nullable = false)
+    private double sumSquares;
+    
+    /**
+     * Totals of no ratings
+     */
+    public static RatingTotals empty() {
+        return new RatingTotals(0.0, 0L, 0.0);
+    }
+    
+    /**
+     * Mean score, or null if there are no ratings
+     */
+    public Double average() {
+        return count > 0 ? sum / count : null;
+    }
+    
+    /**
+     * Population standard deviation of the scores, or null if there are no ratings
+     */
+    public Double standardDeviation() {
+        if (count == 0) {
+            return null;
+        }
+        double mean = sum / count;
+        // Clamped: rounding can leave a tiny negative variance when all scores are equal
+        return Math.sqrt(Math.max(0.0, sumSquares / count - mean * mean));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.videoservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity holding the totals of all ratings a user has given.
+ * Maintained by UserRatingStatsRepository.addRating in the same transaction as each
+ * rating insert or score change, so the user's average is a single-row read.
+ */
+@Entity
+@Table(name = "user_rating_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRatingStats {
+    
+    /**
+     * Reference to the user from User Service
+     */
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Embedded
+    private RatingTotals totals;
+}
@@ -10,9 +10,15 @@ import java.time.LocalDateTime;
 /**
  * Entity representing a video watch event.
  * Tracks when users watch content, their progress, and completion status.
+ *
+ * The table is partitioned by month on timestamp (WatchEventPartitions), so reads
+ * should bound the timestamp to stay within recent partitions.
  */
 @Entity
-@Table(name = "watch_events")
+@Table(name = "watch_events", indexes = {
+    @Index(name = "idx_watch_events_user_time", columnList = "user_id, timestamp DESC"),
+    @Index(name = "idx_watch_events_content_time", columnList = "content_id, timestamp")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
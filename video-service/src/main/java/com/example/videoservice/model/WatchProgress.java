@@ -0,0 +1,57 @@
+package com.example.videoservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity holding a user's current position in one title.
+ * One row per (user, content), overwritten as progress heartbeats arrive;
+ * the raw heartbeats themselves go to watch_events.
+ */
+@Entity
+@Table(name = "watch_progress", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "content_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WatchProgress {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    /**
+     * Reference to the user from User Service
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    /**
+     * Reference to the content from Content Service
+     */
+    @Column(name = "content_id", nullable = false)
+    private Long contentId;
+    
+    /**
+     * Latest watch progress in seconds
+     */
+    @Column(nullable = false)
+    private Integer progress;
+    
+    /**
+     * Whether the latest heartbeat marked the content as completed
+     */
+    @Column(nullable = false)
+    private Boolean completed = false;
+    
+    /**
+     * Timestamp of the latest heartbeat
+     */
+    @Column(name = "last_watched_at", nullable = false)
+    private LocalDateTime lastWatchedAt;
+}
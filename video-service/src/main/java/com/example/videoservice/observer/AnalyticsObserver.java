@@ -1,7 +1,9 @@
 package com.example.videoservice.observer;
 
+import com.example.videoservice.analytics.ContentAnalyticsStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
@@ -11,9 +13,10 @@ import org.springframework.stereotype.Component;
  * Processes events locally for analytics purposes without external service calls.
  * 
  * Key Responsibilities:
+ * - Records watch events into per-content engagement sketches (ContentAnalyticsStore):
+ *   unique viewers, completion rate and progress distribution
  * - Logs analytics data for watch events and ratings
- * - Can be extended to store aggregated metrics in a local database
- * - Provides insights into user behavior
+ * - Provides insights into user behavior (GET /api/videos/analytics/content/{id})
  * 
  * This demonstrates the flexibility of the Observer pattern:
  * - Some observers make REST calls (RecommendationUpdateObserver)
@@ -24,6 +27,9 @@ public class AnalyticsObserver implements EventObserver {
     
     private static final Logger logger = LoggerFactory.getLogger(AnalyticsObserver.class);
     
+    @Autowired
+    private ContentAnalyticsStore analyticsStore;
+    
     @Override
     public void update(VideoEvent event) {
         logger.info("AnalyticsObserver: Processing {} event", event.getEventType());
@@ -39,17 +45,30 @@ public class AnalyticsObserver implements EventObserver {
                            watchEvent.getCompleted(),
                            watchEvent.getGenre());
                 
-                // In a real system, this would:
-                // 1. Store metrics in a time-series database
-                // 2. Update real-time dashboards
-                // 3. Trigger alerts for unusual patterns
-                // 4. Calculate engagement metrics
+                analyticsStore.record(
+                    watchEvent.getContentId(),
+                    watchEvent.getUserId(),
+                    watchEvent.getProgress(),
+                    watchEvent.getCompleted());
                 
-                if (watchEvent.getCompleted()) {
+                if (Boolean.TRUE.equals(watchEvent.getCompleted())) {
                     logger.info("ANALYTICS: Content {} completion by user {} - positive engagement signal", 
                                watchEvent.getContentId(), watchEvent.getUserId());
                 }
                 
+            } else if (event instanceof VideoWatchBatchEvent) {
+                VideoWatchBatchEvent batchEvent = (VideoWatchBatchEvent) event;
+                
+                logger.info("ANALYTICS: Batch of {} watched titles uploaded", batchEvent.getWatches().size());
+                
+                for (VideoWatchedEvent watchEvent : batchEvent.getWatches()) {
+                    analyticsStore.record(
+                        watchEvent.getContentId(),
+                        watchEvent.getUserId(),
+                        watchEvent.getProgress(),
+                        watchEvent.getCompleted());
+                }
+                
             } else if (event instanceof ContentRatedEvent) {
                 ContentRatedEvent ratedEvent = (ContentRatedEvent) event;
                 
@@ -37,6 +37,13 @@ public class RecommendationUpdateObserver implements EventObserver {
     
     @Override
     public void update(VideoEvent event) {
+        if (event instanceof VideoWatchBatchEvent) {
+            // The REST update overwrites watchCount/preferredGenres; batches reach the
+            // Recommendation Service only as the additive UserPreferenceMessage per user
+            // that VideoService publishes over RabbitMQ
+            return;
+        }
+        
         logger.info("RecommendationUpdateObserver: Processing {} event for user {} and content {}", 
                    event.getEventType(), event.getUserId(), event.getContentId());
         
@@ -1,5 +1,11 @@
 package com.example.videoservice.observer;
 
+import com.example.videoservice.config.ObserverDispatchProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,6 +13,11 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * VideoEventPublisher - Subject/Publisher in the Observer Pattern.
@@ -21,9 +32,16 @@ import java.util.List;
  * 
  * Design Notes:
  * - Uses Spring's dependency injection to automatically discover all EventObserver beans
- * - Observers are executed synchronously in order
+ * - Each observer is dispatched asynchronously on its own bounded executor by default,
+ *   so a slow observer (e.g. a REST call) delays neither the publisher nor the others;
+ *   video.observers.<name>.async=false runs an observer inline instead (ObserverDispatchProperties)
+ * - Events for one observer run in publish order when it has a single thread
+ * - A full observer queue drops the event for that observer only
  * - Each observer is isolated with try-catch to prevent cascade failures
  * - Logs all notifications for debugging and monitoring
+ * 
+ * Metrics, tagged by observer: video.observer.latency (update() time, tagged with outcome),
+ * video.observer.queue.wait, video.observer.queue.depth and video.observer.dropped.
  */
 @Component
 public class VideoEventPublisher {
@@ -31,64 +49,61 @@ public class VideoEventPublisher {
     private static final Logger logger = LoggerFactory.getLogger(VideoEventPublisher.class);
     
     private final List<EventObserver> observers;
+    private final List<Dispatcher> dispatchers = new ArrayList<>();
     
     /**
      * Constructor with automatic observer discovery via Spring dependency injection.
      * All beans implementing EventObserver will be automatically injected.
      * 
      * @param observers List of all EventObserver beans in the application context
+     * @param dispatchProperties Per-observer sync/async and executor settings
+     * @param meterRegistry Registry for the per-observer metrics
      */
     @Autowired
-    public VideoEventPublisher(List<EventObserver> observers) {
+    public VideoEventPublisher(List<EventObserver> observers,
+                               ObserverDispatchProperties dispatchProperties,
+                               MeterRegistry meterRegistry) {
         this.observers = new ArrayList<>(observers);
+        for (EventObserver observer : observers) {
+            dispatchers.add(new Dispatcher(observer,
+                dispatchProperties.forObserver(observer.getObserverName()), meterRegistry));
+        }
         logger.info("VideoEventPublisher initialized with {} observers: {}", 
                    observers.size(),
-                   observers.stream().map(EventObserver::getObserverName).toList());
+                   dispatchers.stream().map(Dispatcher::describe).toList());
     }
     
     /**
      * Notify all observers about an event.
      * 
      * This is the core of the Observer Pattern implementation.
-     * Each observer is notified in sequence, with error isolation.
+     * Synchronous observers run here in sequence; asynchronous ones are queued and
+     * this returns without waiting for them. Every observer is isolated from the others.
      * 
      * @param event The video event to publish
      */
     public void notifyObservers(VideoEvent event) {
-        logger.info("=== VideoEventPublisher: Publishing {} event for user {} and content {} ===", 
+        logger.debug("VideoEventPublisher: Publishing {} event for user {} and content {}", 
                    event.getEventType(), event.getUserId(), event.getContentId());
         
-        if (observers.isEmpty()) {
+        if (dispatchers.isEmpty()) {
             logger.warn("VideoEventPublisher: No observers registered!");
             return;
         }
         
-        int successCount = 0;
-        int failureCount = 0;
-        
-        // Notify each observer
-        for (EventObserver observer : observers) {
-            try {
-                logger.debug("VideoEventPublisher: Notifying observer '{}'", observer.getObserverName());
-                
-                observer.update(event);
-                
-                successCount++;
-                logger.debug("VideoEventPublisher: Observer '{}' completed successfully", 
-                           observer.getObserverName());
-                
-            } catch (Exception e) {
-                failureCount++;
-                logger.error("VideoEventPublisher: Observer '{}' failed: {}", 
-                           observer.getObserverName(), e.getMessage());
-                logger.debug("VideoEventPublisher: Full error from observer '{}':", 
-                           observer.getObserverName(), e);
-                // Continue with other observers despite this failure
-            }
+        for (Dispatcher dispatcher : dispatchers) {
+            dispatcher.dispatch(event);
+        }
+    }
+    
+    /**
+     * Stop the observer executors, giving queued notifications a few seconds to finish
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (Dispatcher dispatcher : dispatchers) {
+            dispatcher.shutdown();
         }
-        
-        logger.info("VideoEventPublisher: Notification complete - {} observers notified ({} succeeded, {} failed)", 
-                   observers.size(), successCount, failureCount);
     }
     
     /**
@@ -108,4 +123,105 @@ public class VideoEventPublisher {
     public int getObserverCount() {
         return observers.size();
     }
+    
+    /**
+     * Runs one observer, inline or on its own executor, and records its metrics
+     */
+    private static final class Dispatcher {
+        
+        private final EventObserver observer;
+        private final ThreadPoolExecutor executor;
+        private final Timer succeeded;
+        private final Timer failed;
+        private final Timer queueWait;
+        private final Counter dropped;
+        
+        private Dispatcher(EventObserver observer, ObserverDispatchProperties.Dispatch settings, MeterRegistry meterRegistry) {
+            this.observer = observer;
+            String name = observer.getObserverName();
+            this.executor = settings.isAsync() ? newExecutor(name, settings) : null;
+            this.succeeded = Timer.builder("video.observer.latency").tag("observer", name).tag("outcome", "success")
+                .register(meterRegistry);
+            this.failed = Timer.builder("video.observer.latency").tag("observer", name).tag("outcome", "failure")
+                .register(meterRegistry);
+            this.queueWait = Timer.builder("video.observer.queue.wait").tag("observer", name).register(meterRegistry);
+            this.dropped = Counter.builder("video.observer.dropped").tag("observer", name).register(meterRegistry);
+            if (executor != null) {
+                Gauge.builder("video.observer.queue.depth", executor, e -> e.getQueue().size())
+                    .tag("observer", name)
+                    .register(meterRegistry);
+            }
+        }
+        
+        private static ThreadPoolExecutor newExecutor(String name, ObserverDispatchProperties.Dispatch settings) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            int threads = Math.max(1, settings.getThreads());
+            return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, settings.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "observer-" + name + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        }
+        
+        private void dispatch(VideoEvent event) {
+            if (executor == null) {
+                run(event);
+                return;
+            }
+            long queuedAt = System.nanoTime();
+            try {
+                executor.execute(() -> {
+                    queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                    run(event);
+                });
+            } catch (RejectedExecutionException e) {
+                dropped.increment();
+                logger.warn("VideoEventPublisher: Observer '{}' queue is full, dropping {} event for user {}",
+                           observer.getObserverName(), event.getEventType(), event.getUserId());
+            }
+        }
+        
+        private void run(VideoEvent event) {
+            long start = System.nanoTime();
+            try {
+                logger.debug("VideoEventPublisher: Notifying observer '{}'", observer.getObserverName());
+                
+                observer.update(event);
+                
+                succeeded.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                logger.debug("VideoEventPublisher: Observer '{}' completed successfully", 
+                           observer.getObserverName());
+                
+            } catch (Exception e) {
+                failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                logger.error("VideoEventPublisher: Observer '{}' failed: {}", 
+                           observer.getObserverName(), e.getMessage());
+                logger.debug("VideoEventPublisher: Full error from observer '{}':", 
+                           observer.getObserverName(), e);
+                // Other observers are unaffected by this failure
+            }
+        }
+        
+        private void shutdown() {
+            if (executor == null) {
+                return;
+            }
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    logger.warn("VideoEventPublisher: Observer '{}' stopped with {} notifications still queued",
+                               observer.getObserverName(), executor.shutdownNow().size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        private String describe() {
+            return observer.getObserverName() + (executor == null ? " (sync)"
+                : " (async, " + executor.getMaximumPoolSize() + " threads, queue " + executor.getQueue().remainingCapacity() + ")");
+        }
+    }
 }
@@ -0,0 +1,58 @@
+package com.example.videoservice.observer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * VideoWatchBatchEvent - Concrete event for an uploaded batch of watch events.
+ * 
+ * Published once per POST /api/videos/watch/batch instead of one VideoWatchedEvent per
+ * title, so observers can handle the batch as a whole (e.g. one call per user).
+ * Holds the latest position per (user, content) in the batch.
+ */
+@Data
+@AllArgsConstructor
+public class VideoWatchBatchEvent implements VideoEvent {
+    
+    private List<VideoWatchedEvent> watches;
+    private LocalDateTime timestamp;
+    
+    @Override
+    public String getEventType() {
+        return "VIDEO_WATCH_BATCH";
+    }
+    
+    /**
+     * The batch's user, or null if it spans several users
+     */
+    @Override
+    public Long getUserId() {
+        Map<Long, List<VideoWatchedEvent>> byUser = getWatchesByUser();
+        return byUser.size() == 1 ? byUser.keySet().iterator().next() : null;
+    }
+    
+    /**
+     * A batch covers several titles; see getWatches
+     */
+    @Override
+    public Long getContentId() {
+        return null;
+    }
+    
+    /**
+     * The watches grouped by user, in batch order
+     */
+    public Map<Long, List<VideoWatchedEvent>> getWatchesByUser() {
+        Map<Long, List<VideoWatchedEvent>> byUser = new LinkedHashMap<>();
+        for (VideoWatchedEvent watch : watches) {
+            byUser.computeIfAbsent(watch.getUserId(), id -> new ArrayList<>()).add(watch);
+        }
+        return byUser;
+    }
+}
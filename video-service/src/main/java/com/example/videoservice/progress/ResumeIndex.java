@@ -0,0 +1,201 @@
+package com.example.videoservice.progress;
+
+import com.example.videoservice.catalog.ContentCatalogReplica;
+import com.example.videoservice.model.WatchEvent;
+import com.example.videoservice.model.WatchProgress;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory continue-watching index: per user, the most recently watched titles and
+ * their latest position.
+ *
+ * Updated on every accepted heartbeat (VideoService.recordWatchEvent), so resume reads
+ * never touch the database for active users. A user the index has not loaded yet (cold
+ * after a restart, evicted, or older than reload-after-ms) is loaded once from
+ * WatchProgressStore, i.e. watch_progress plus unflushed heartbeats, and merged with
+ * whatever heartbeats arrived meanwhile. The periodic reload also picks up progress
+ * recorded by other instances.
+ *
+ * Bounded in two ways: max-titles-per-user keeps only the newest titles for a user
+ * (older ones are still found through the single-title fallback), and max-users evicts
+ * the users idle longest once the index grows past it.
+ *
+ * Metrics: video.resume.hits / video.resume.loads and the video.resume.users gauge.
+ */
+@Component
+public class ResumeIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ResumeIndex.class);
+    
+    // Newest first
+    private static final Comparator<Position> BY_RECENCY =
+        Comparator.comparing((Position p) -> p.lastWatchedAt).reversed();
+    
+    private final Map<Long, UserTitles> users = new ConcurrentHashMap<>();
+    
+    private final WatchProgressStore watchProgressStore;
+    private final ContentCatalogReplica contentCatalog;
+    private final int maxTitlesPerUser;
+    private final int maxUsers;
+    private final long reloadAfterMs;
+    
+    private final Counter hits;
+    private final Counter loads;
+    
+    public ResumeIndex(WatchProgressStore watchProgressStore,
+                       ContentCatalogReplica contentCatalog,
+                       MeterRegistry meterRegistry,
+                       @Value("${video.resume.max-titles-per-user:50}") int maxTitlesPerUser,
+                       @Value("${video.resume.max-users:100000}") int maxUsers,
+                       @Value("${video.resume.reload-after-ms:600000}") long reloadAfterMs) {
+        this.watchProgressStore = watchProgressStore;
+        this.contentCatalog = contentCatalog;
+        this.maxTitlesPerUser = maxTitlesPerUser;
+        this.maxUsers = maxUsers;
+        this.reloadAfterMs = reloadAfterMs;
+        this.hits = Counter.builder("video.resume.hits").register(meterRegistry);
+        this.loads = Counter.builder("video.resume.loads").register(meterRegistry);
+        meterRegistry.gauge("video.resume.users", users, Map::size);
+    }
+    
+    /**
+     * Record a heartbeat as its user's latest position in the title
+     */
+    public void record(WatchEvent event) {
+        users.computeIfAbsent(event.getUserId(), id -> new UserTitles())
+            .put(new Position(event.getContentId(), event.getProgress(),
+                Boolean.TRUE.equals(event.getCompleted()), event.getTimestamp()), maxTitlesPerUser);
+    }
+    
+    /**
+     * Titles the user started but did not finish, most recently watched first
+     */
+    public List<WatchProgress> continueWatching(Long userId, int limit) {
+        List<WatchProgress> result = new ArrayList<>();
+        for (Position position : titlesOf(userId).newestFirst()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (!position.completed && !contentCatalog.isKnownDeleted(position.contentId)) {
+                result.add(position.toProgress(userId));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Where the player should start a title; falls back to the store for titles outside the index
+     */
+    public Optional<WatchProgress> position(Long userId, Long contentId) {
+        Position position = titlesOf(userId).get(contentId);
+        if (position != null) {
+            return Optional.of(position.toProgress(userId));
+        }
+        return watchProgressStore.find(userId, contentId);
+    }
+    
+    /**
+     * Drop the users idle longest when the index holds more than max-users
+     */
+    @Scheduled(fixedDelayString = "${video.resume.trim-interval-ms:60000}")
+    public void trim() {
+        int excess = users.size() - maxUsers;
+        if (excess <= 0) {
+            return;
+        }
+        List<Map.Entry<Long, UserTitles>> idlest = new ArrayList<>(users.entrySet());
+        idlest.sort(Comparator.comparingLong(e -> e.getValue().lastTouchedMs));
+        for (int i = 0; i < excess && i < idlest.size(); i++) {
+            users.remove(idlest.get(i).getKey(), idlest.get(i).getValue());
+        }
+        logger.debug("ResumeIndex: evicted {} idle users", excess);
+    }
+    
+    private UserTitles titlesOf(Long userId) {
+        UserTitles titles = users.computeIfAbsent(userId, id -> new UserTitles());
+        long now = System.currentTimeMillis();
+        titles.lastTouchedMs = now;
+        if (titles.loadedAtMs >= 0 && now - titles.loadedAtMs < reloadAfterMs) {
+            hits.increment();
+            return titles;
+        }
+        
+        loads.increment();
+        List<WatchProgress> stored = watchProgressStore.findByUser(userId);
+        for (WatchProgress p : stored.subList(0, Math.min(stored.size(), maxTitlesPerUser))) {
+            titles.put(new Position(p.getContentId(), p.getProgress(),
+                Boolean.TRUE.equals(p.getCompleted()), p.getLastWatchedAt()), maxTitlesPerUser);
+        }
+        titles.loadedAtMs = now;
+        return titles;
+    }
+    
+    /**
+     * One user's newest titles (at most maxTitles); writers and readers lock on the instance
+     */
+    private static final class UserTitles {
+        
+        private final Map<Long, Position> byContent = new HashMap<>();
+        
+        private volatile long loadedAtMs = -1;
+        private volatile long lastTouchedMs = System.currentTimeMillis();
+        
+        private synchronized void put(Position position, int maxTitles) {
+            Position current = byContent.get(position.contentId);
+            if (current != null && current.lastWatchedAt.isAfter(position.lastWatchedAt)) {
+                return;
+            }
+            byContent.put(position.contentId, position);
+            if (byContent.size() > maxTitles) {
+                Position oldest = Collections.min(byContent.values(), BY_RECENCY.reversed());
+                byContent.remove(oldest.contentId);
+            }
+            lastTouchedMs = System.currentTimeMillis();
+        }
+        
+        private synchronized Position get(Long contentId) {
+            return byContent.get(contentId);
+        }
+        
+        private synchronized List<Position> newestFirst() {
+            List<Position> positions = new ArrayList<>(byContent.values());
+            positions.sort(BY_RECENCY);
+            return positions;
+        }
+    }
+    
+    private static final class Position {
+        
+        private final Long contentId;
+        private final Integer progress;
+        private final boolean completed;
+        private final LocalDateTime lastWatchedAt;
+        
+        private Position(Long contentId, Integer progress, boolean completed, LocalDateTime lastWatchedAt) {
+            this.contentId = contentId;
+            this.progress = progress;
+            this.completed = completed;
+            this.lastWatchedAt = lastWatchedAt;
+        }
+        
+        private WatchProgress toProgress(Long userId) {
+            return new WatchProgress(null, userId, contentId, progress, completed, lastWatchedAt);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.videoservice.progress;
+
+import com.example.videoservice.messaging.MessageQueuePublisher;
+import com.example.videoservice.messaging.UserPreferenceMessage;
+import com.example.videoservice.model.WatchEvent;
+import com.example.videoservice.model.WatchProgress;
+import com.example.videoservice.observer.VideoEventPublisher;
+import com.example.videoservice.observer.VideoWatchedEvent;
+import com.example.videoservice.repository.WatchProgressRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current watch position per (user, content), kept in watch_progress.
+ *
+ * Players send a heartbeat every few seconds, but only the latest one matters for
+ * history and resume. Heartbeats are merged per (user, content) in memory, and each
+ * flush writes just the surviving state:
+ * 1. Upsert every pending position in one JDBC batch (INSERT ... ON CONFLICT), in one transaction
+ * 2. After commit, publish one VideoWatchedEvent and preference update per position
+ *
+ * The upsert only overwrites a row with a newer heartbeat, so flushes from several
+ * instances (or a retried flush) cannot move a position backwards. A failed flush puts
+ * its positions back unless a newer heartbeat arrived meanwhile.
+ *
+ * Uploaded batches are written through instead (upsertNow): upserted in the caller's
+ * transaction and announced by the caller, once per batch, rather than by the flush.
+ *
+ * Reads overlay the pending positions on the table, so a heartbeat is visible as soon
+ * as it is accepted. Pending (user, content) keys are capped at max-pending; past that,
+ * heartbeats for new keys are refused until the next flush (updates to pending keys
+ * are always merged).
+ *
+ * Metrics: video.watch.progress.{received,upserted,flush-failures,rejected} and the
+ * video.watch.progress.pending gauge; received / upserted is the coalescing ratio.
+ */
+@Component
+public class WatchProgressStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WatchProgressStore.class);
+    
+    private static final String UPSERT_SQL =
+        "INSERT INTO watch_progress (user_id, content_id, progress, completed, last_watched_at) " +
+        "VALUES (?, ?, ?, ?, ?) " +
+        "ON CONFLICT (user_id, content_id) DO UPDATE SET " +
+        "progress = EXCLUDED.progress, " +
+        "completed = EXCLUDED.completed, " +
+        "last_watched_at = EXCLUDED.last_watched_at " +
+        "WHERE watch_progress.last_watched_at <= EXCLUDED.last_watched_at";
+    
+    private final Map<Key, PendingProgress> pending = new ConcurrentHashMap<>();
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final WatchProgressRepository watchProgressRepository;
+    private final VideoEventPublisher eventPublisher;
+    private final MessageQueuePublisher messageQueuePublisher;
+    private final int maxPending;
+    private final long flushIntervalMs;
+    
+    private final Counter received;
+    private final Counter upserted;
+    private final Counter failures;
+    private final Counter rejected;
+    
+    public WatchProgressStore(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              WatchProgressRepository watchProgressRepository,
+                              VideoEventPublisher eventPublisher,
+                              MessageQueuePublisher messageQueuePublisher,
+                              MeterRegistry meterRegistry,
+                              @Value("${video.watch.progress.max-pending:50000}") int maxPending,
+                              @Value("${video.watch.progress.flush-interval-ms:1000}") long flushIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.watchProgressRepository = watchProgressRepository;
+        this.eventPublisher = eventPublisher;
+        this.messageQueuePublisher = messageQueuePublisher;
+        this.maxPending = maxPending;
+        this.flushIntervalMs = flushIntervalMs;
+        this.received = Counter.builder("video.watch.progress.received").register(meterRegistry);
+        this.upserted = Counter.builder("video.watch.progress.upserted").register(meterRegistry);
+        this.failures = Counter.builder("video.watch.progress.flush-failures").register(meterRegistry);
+        this.rejected = Counter.builder("video.watch.progress.rejected").register(meterRegistry);
+        meterRegistry.gauge("video.watch.progress.pending", pending, Map::size);
+    }
+    
+    /**
+     * Merge a heartbeat into the pending position for its (user, content)
+     *
+     * @param genre Content genre, passed on to observers and the preference update
+     * @return false if too many positions are pending and this heartbeat would add one
+     */
+    public boolean record(WatchEvent event, String genre) {
+        Key key = new Key(event.getUserId(), event.getContentId());
+        if (pending.size() >= maxPending && !pending.containsKey(key)) {
+            rejected.increment();
+            return false;
+        }
+        pending.merge(key, new PendingProgress(event, genre), PendingProgress::latest);
+        received.increment();
+        return true;
+    }
+    
+    /**
+     * Seconds until the next flush frees pending slots
+     */
+    public long retryAfterSeconds() {
+        return Math.max(1, (flushIntervalMs + 999) / 1000);
+    }
+    
+    /**
+     * A user's position in one title, including a heartbeat not flushed yet (returned without an ID)
+     */
+    public Optional<WatchProgress> find(Long userId, Long contentId) {
+        PendingProgress latest = pending.get(new Key(userId, contentId));
+        if (latest != null) {
+            return Optional.of(latest.toProgress(null));
+        }
+        return watchProgressRepository.findByUserIdAndContentId(userId, contentId);
+    }
+    
+    /**
+     * All of a user's positions, most recently watched first, including pending heartbeats
+     */
+    public List<WatchProgress> findByUser(Long userId) {
+        Map<Long, WatchProgress> byContent = new HashMap<>();
+        for (WatchProgress stored : watchProgressRepository.findByUserIdOrderByLastWatchedAtDesc(userId)) {
+            byContent.put(stored.getContentId(), stored);
+        }
+        pending.forEach((key, latest) -> {
+            if (key.userId == userId) {
+                WatchProgress stored = byContent.get(key.contentId);
+                if (stored == null || !latest.event.getTimestamp().isBefore(stored.getLastWatchedAt())) {
+                    byContent.put(key.contentId, latest.toProgress(stored != null ? stored.getId() : null));
+                }
+            }
+        });
+        
+        List<WatchProgress> positions = new ArrayList<>(byContent.values());
+        positions.sort(Comparator.comparing(WatchProgress::getLastWatchedAt).reversed());
+        return positions;
+    }
+    
+    /**
+     * Upsert positions right away in one JDBC batch, in the caller's transaction, without
+     * notifications. Once it commits, pending heartbeats older than these positions are
+     * discarded, so they can neither be read over them nor announced by a later flush.
+     *
+     * @param positions At most one per (user, content)
+     */
+    public void upsertNow(List<WatchEvent> positions) {
+        batchUpsert(positions);
+        upserted.increment(positions.size());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (WatchEvent position : positions) {
+                    pending.computeIfPresent(new Key(position.getUserId(), position.getContentId()),
+                        (key, latest) -> latest.event.getTimestamp().isAfter(position.getTimestamp()) ? latest : null);
+                }
+            }
+        });
+    }
+    
+    @Scheduled(fixedDelayString = "${video.watch.progress.flush-interval-ms:1000}")
+    public void flush() {
+        List<PendingProgress> batch = drain();
+        if (batch.isEmpty()) {
+            return;
+        }
+        
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                batchUpsert(batch.stream().map(latest -> latest.event).toList()));
+            upserted.increment(batch.size());
+            logger.debug("WatchProgressStore: upserted {} positions", batch.size());
+        } catch (RuntimeException e) {
+            failures.increment();
+            for (PendingProgress latest : batch) {
+                pending.merge(latest.key(), latest, PendingProgress::latest);
+            }
+            logger.warn("WatchProgressStore: flush of {} positions failed, will retry: {}", batch.size(), e.getMessage());
+            return;
+        }
+        
+        for (PendingProgress latest : batch) {
+            publish(latest);
+        }
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+    
+    private void batchUpsert(List<WatchEvent> positions) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, positions, positions.size(), (ps, event) -> {
+            ps.setLong(1, event.getUserId());
+            ps.setLong(2, event.getContentId());
+            ps.setInt(3, event.getProgress());
+            ps.setBoolean(4, Boolean.TRUE.equals(event.getCompleted()));
+            ps.setTimestamp(5, Timestamp.valueOf(event.getTimestamp()));
+        });
+    }
+    
+    private List<PendingProgress> drain() {
+        List<PendingProgress> batch = new ArrayList<>();
+        for (Key key : pending.keySet()) {
+            PendingProgress latest = pending.remove(key);
+            if (latest != null) {
+                batch.add(latest);
+            }
+        }
+        return batch;
+    }
+    
+    private void publish(PendingProgress latest) {
+        WatchEvent event = latest.event;
+        try {
+            eventPublisher.notifyObservers(new VideoWatchedEvent(
+                event.getUserId(),
+                event.getContentId(),
+                event.getProgress(),
+                event.getCompleted(),
+                event.getTimestamp(),
+                latest.genre
+            ));
+            messageQueuePublisher.publishUserPreferenceUpdate(
+                UserPreferenceMessage.forWatchEvent(event.getUserId(), event.getContentId(), latest.genre));
+        } catch (RuntimeException e) {
+            logger.warn("WatchProgressStore: notifications for user {} / content {} failed: {}",
+                event.getUserId(), event.getContentId(), e.getMessage());
+        }
+    }
+    
+    private static final class Key {
+        
+        private final long userId;
+        private final long contentId;
+        
+        private Key(long userId, long contentId) {
+            this.userId = userId;
+            this.contentId = contentId;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && userId == other.userId && contentId == other.contentId;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Long.hashCode(userId) * 31 + Long.hashCode(contentId);
+        }
+    }
+    
+    private static final class PendingProgress {
+        
+        private final WatchEvent event;
+        private final String genre;
+        
+        private PendingProgress(WatchEvent event, String genre) {
+            this.event = event;
+            this.genre = genre;
+        }
+        
+        private Key key() {
+            return new Key(event.getUserId(), event.getContentId());
+        }
+        
+        // Requests for the same title can race; keep the later heartbeat
+        private PendingProgress latest(PendingProgress other) {
+            return other.event.getTimestamp().isBefore(event.getTimestamp()) ? this : other;
+        }
+        
+        private WatchProgress toProgress(Long id) {
+            return new WatchProgress(id, event.getUserId(), event.getContentId(),
+                event.getProgress(), Boolean.TRUE.equals(event.getCompleted()), event.getTimestamp());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.videoservice.repository;
+
+import com.example.videoservice.model.ContentAnalytics;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for ContentAnalytics entity.
+ */
+@Repository
+public interface ContentAnalyticsRepository extends JpaRepository<ContentAnalytics, Long> {
+    
+    /**
+     * Load a content's sketches and lock the row, so an instance merging its
+     * interval into them cannot overwrite another instance's merge.
+     * 
+     * @param contentId Content ID
+     * @return Optional containing the locked row if the content has analytics
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM ContentAnalytics a WHERE a.contentId = :contentId")
+    Optional<ContentAnalytics> findForUpdate(@Param("contentId") Long contentId);
+}
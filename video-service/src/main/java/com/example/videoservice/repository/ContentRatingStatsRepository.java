@@ -0,0 +1,38 @@
+package com.example.videoservice.repository;
+
+import com.example.videoservice.model.ContentRatingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for ContentRatingStats entity.
+ */
+@Repository
+public interface ContentRatingStatsRepository extends JpaRepository<ContentRatingStats, Long> {
+    
+    /**
+     * Add a rating delta to a content's totals, creating the row on the first rating
+     * (see UserRatingStatsRepository.addRating for the delta values).
+     * 
+     * @param contentId Content ID
+     * @param sum Score delta
+     * @param count Rating count delta
+     * @param sumSquares Squared score delta
+     * @return Rows written
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO content_rating_stats (content_id, rating_sum, rating_count, rating_sum_squares) " +
+                   "VALUES (:contentId, :sum, :count, :sumSquares) " +
+                   "ON CONFLICT (content_id) DO UPDATE SET " +
+                   "rating_sum = content_rating_stats.rating_sum + EXCLUDED.rating_sum, " +
+                   "rating_count = content_rating_stats.rating_count + EXCLUDED.rating_count, " +
+                   "rating_sum_squares = content_rating_stats.rating_sum_squares + EXCLUDED.rating_sum_squares",
+           nativeQuery = true)
+    int addRating(@Param("contentId") Long contentId,
+                  @Param("sum") double sum,
+                  @Param("count") long count,
+                  @Param("sumSquares") double sumSquares);
+}
@@ -1,7 +1,9 @@
 package com.example.videoservice.repository;
 
 import com.example.videoservice.model.Rating;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -41,6 +43,18 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
      */
     Optional<Rating> findByUserIdAndContentId(Long userId, Long contentId);
     
+    /**
+     * Find a rating by user and content and lock it until the transaction ends,
+     * so concurrent re-rates see each other's score when computing aggregate deltas.
+     * 
+     * @param userId User ID
+     * @param contentId Content ID
+     * @return Optional containing the locked rating if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Rating r WHERE r.userId = :userId AND r.contentId = :contentId")
+    Optional<Rating> findForUpdate(@Param("userId") Long userId, @Param("contentId") Long contentId);
+    
     /**
      * Calculate average rating given by a user.
      * 
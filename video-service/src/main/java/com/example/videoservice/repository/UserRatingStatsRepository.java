@@ -0,0 +1,38 @@
+package com.example.videoservice.repository;
+
+import com.example.videoservice.model.UserRatingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for UserRatingStats entity.
+ */
+@Repository
+public interface UserRatingStatsRepository extends JpaRepository<UserRatingStats, Long> {
+    
+    /**
+     * Add a rating delta to a user's totals, creating the row on the first rating.
+     * The increment happens in the database, so concurrent ratings cannot overwrite each other.
+     * 
+     * @param userId User ID
+     * @param sum Score delta (the score for a new rating, new - previous for a changed one)
+     * @param count 1 for a new rating, 0 for a changed one
+     * @param sumSquares Squared score delta (score² or new² - previous²)
+     * @return Rows written
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO user_rating_stats (user_id, rating_sum, rating_count, rating_sum_squares) " +
+                   "VALUES (:userId, :sum, :count, :sumSquares) " +
+                   "ON CONFLICT (user_id) DO UPDATE SET " +
+                   "rating_sum = user_rating_stats.rating_sum + EXCLUDED.rating_sum, " +
+                   "rating_count = user_rating_stats.rating_count + EXCLUDED.rating_count, " +
+                   "rating_sum_squares = user_rating_stats.rating_sum_squares + EXCLUDED.rating_sum_squares",
+           nativeQuery = true)
+    int addRating(@Param("userId") Long userId,
+                  @Param("sum") double sum,
+                  @Param("count") long count,
+                  @Param("sumSquares") double sumSquares);
+}
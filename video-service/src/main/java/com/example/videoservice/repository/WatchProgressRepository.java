@@ -0,0 +1,41 @@
+package com.example.videoservice.repository;
+
+import com.example.videoservice.model.WatchProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for WatchProgress entity.
+ * Rows are written by WatchProgressStore's upserts; JPA is used for reads.
+ */
+@Repository
+public interface WatchProgressRepository extends JpaRepository<WatchProgress, Long> {
+    
+    /**
+     * Find a user's titles, most recently watched first.
+     * 
+     * @param userId User ID
+     * @return One entry per title the user has watched
+     */
+    List<WatchProgress> findByUserIdOrderByLastWatchedAtDesc(Long userId);
+    
+    /**
+     * Find a user's position in one title.
+     * 
+     * @param userId User ID
+     * @param contentId Content ID
+     * @return Progress if the user has watched the title
+     */
+    Optional<WatchProgress> findByUserIdAndContentId(Long userId, Long contentId);
+    
+    /**
+     * Count titles a user has watched.
+     * 
+     * @param userId User ID
+     * @return Number of distinct titles
+     */
+    long countByUserId(Long userId);
+}
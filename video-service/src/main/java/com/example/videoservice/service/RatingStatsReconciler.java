@@ -0,0 +1,65 @@
+package com.example.videoservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Rebuilds user_rating_stats / content_rating_stats from the ratings table when they
+ * disagree with it, e.g. on the first start after the totals were introduced.
+ *
+ * Runs once at startup, holding a SHARE lock on ratings: rating writes (which update the
+ * totals in the same transaction) wait until the check or rebuild commits, so no rating
+ * is counted twice or missed, however many instances start at once. The check compares
+ * the rating count only; sums cannot drift on their own because they change together
+ * with the count.
+ */
+@Component
+public class RatingStatsReconciler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RatingStatsReconciler.class);
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    
+    public RatingStatsReconciler(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${video.ratings.reconcile-on-startup:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+    
+    @EventListener(ApplicationStartedEvent.class)
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("LOCK TABLE ratings IN SHARE MODE");
+            long ratings = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ratings", Long.class);
+            rebuildIfStale("user_rating_stats", "user_id", ratings);
+            rebuildIfStale("content_rating_stats", "content_id", ratings);
+        });
+    }
+    
+    private void rebuildIfStale(String table, String keyColumn, long ratings) {
+        long counted = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(rating_count), 0) FROM " + table, Long.class);
+        if (counted == ratings) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM " + table);
+        int rows = jdbcTemplate.update(
+            "INSERT INTO " + table + " (" + keyColumn + ", rating_sum, rating_count, rating_sum_squares) " +
+            "SELECT " + keyColumn + ", SUM(score), COUNT(*), SUM(score * score) FROM ratings GROUP BY " + keyColumn);
+        logger.info("RatingStatsReconciler: rebuilt {} ({} rows) - it covered {} of {} ratings",
+            table, rows, counted, ratings);
+    }
+}
@@ -1,33 +1,55 @@
 package com.example.videoservice.service;
 
+import com.example.videoservice.catalog.ContentCatalogReplica;
 import com.example.videoservice.dto.*;
 import com.example.videoservice.exception.ContentNotFoundException;
+import com.example.videoservice.exception.WatchIngestionBackpressureException;
+import com.example.videoservice.ingest.WatchEventIngestor;
+import com.example.videoservice.messaging.ContentRatingMessage;
 import com.example.videoservice.messaging.MessageQueuePublisher;
 import com.example.videoservice.messaging.UserPreferenceMessage;
+import com.example.videoservice.model.ContentRatingStats;
 import com.example.videoservice.model.Rating;
+import com.example.videoservice.model.RatingTotals;
+import com.example.videoservice.model.UserRatingStats;
 import com.example.videoservice.model.WatchEvent;
+import com.example.videoservice.model.WatchProgress;
 import com.example.videoservice.observer.*;
+import com.example.videoservice.progress.ResumeIndex;
+import com.example.videoservice.progress.WatchProgressStore;
+import com.example.videoservice.repository.ContentRatingStatsRepository;
 import com.example.videoservice.repository.RatingRepository;
-import com.example.videoservice.repository.WatchEventRepository;
+import com.example.videoservice.repository.UserRatingStatsRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * VideoService - Main business logic for watch events and ratings.
  * 
  * This service demonstrates the OBSERVER PATTERN in a microservices architecture:
- * 1. Validates content exists (calls Content Service)
- * 2. Saves watch event or rating to database
+ * 1. Validates content exists (local catalog replica, Content Service on a miss)
+ * 2. Saves watch progress (coalesced by WatchProgressStore) or rating to database
  * 3. Publishes event to observers via VideoEventPublisher
  * 4. Observers handle their own logic (REST calls, analytics, etc.)
  * 
@@ -43,10 +65,13 @@ public class VideoService {
     private static final Logger logger = LoggerFactory.getLogger(VideoService.class);
     
     @Autowired
-    private WatchEventRepository watchEventRepository;
+    private RatingRepository ratingRepository;
     
     @Autowired
-    private RatingRepository ratingRepository;
+    private UserRatingStatsRepository userRatingStatsRepository;
+    
+    @Autowired
+    private ContentRatingStatsRepository contentRatingStatsRepository;
     
     @Autowired
     private VideoEventPublisher eventPublisher;
@@ -57,6 +82,24 @@ public class VideoService {
     @Autowired
     private MessageQueuePublisher messageQueuePublisher;
     
+    @Autowired
+    private ContentCatalogReplica contentCatalog;
+    
+    @Autowired
+    private WatchEventIngestor watchEventIngestor;
+    
+    @Autowired
+    private WatchProgressStore watchProgressStore;
+    
+    @Autowired
+    private ResumeIndex resumeIndex;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${video.watch.archive-raw-events:true}")
+    private boolean archiveRawEvents;
+    
     @Value("${content.service.url}")
     private String contentServiceUrl;
     
@@ -64,23 +107,40 @@ public class VideoService {
      * Record a watch event.
      * 
      * Flow:
-     * 1. Validate content exists (call Content Service)
-     * 2. Save watch event to database
-     * 3. Publish VideoWatchedEvent to observers
-     * 4. Return response
+     * 1. Validate content exists (ContentCatalogReplica; Content Service only on a miss)
+     * 2. Merge it into the user's current position (WatchProgressStore), which upserts
+     *    watch_progress and publishes VideoWatchedEvent to observers on its next flush
+     * 3. Append the raw event to watch_events through WatchEventIngestor, if archiving is on
+     * 4. Return response (no ID yet: the event is acknowledged, not persisted)
+     * 
+     * Both buffers are checked before anything is recorded, so a 503 means the heartbeat
+     * was not taken at all. If the archive buffer fills between the check and the offer,
+     * the heartbeat is still accepted and only its raw event is lost (logged and counted
+     * by WatchEventIngestor); failing the request then would have the client resend an
+     * event that observers and the preference queue already see.
+     * 
+     * Runs outside a transaction: nothing here touches the database, and a transaction
+     * would still check out a connection for every heartbeat.
      * 
      * @param createDTO Watch event creation data
      * @return WatchEventResponseDTO
+     * @throws WatchIngestionBackpressureException if the progress store or archive buffer is full
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public WatchEventResponseDTO recordWatchEvent(WatchEventCreateDTO createDTO) {
-        logger.info("=== Recording watch event for user {} and content {} ===", 
-                   createDTO.getUserId(), createDTO.getContentId());
+        logger.debug("Recording watch event for user {} and content {}",
+                    createDTO.getUserId(), createDTO.getContentId());
         
-        // Step 1: Validate content exists by calling Content Service
-        ContentResponseDTO content = validateContentExists(createDTO.getContentId());
-        logger.info("Content validated: {} ({})", content.getTitle(), content.getGenre());
+        // Step 1: Validate content exists (local catalog replica, Content Service on a miss)
+        String genre = resolveContentGenre(createDTO.getContentId());
         
-        // Step 2: Save watch event to database
+        if (archiveRawEvents && !watchEventIngestor.hasCapacity()) {
+            logger.warn("Watch event buffer full ({} pending), rejecting event for user {}",
+                       watchEventIngestor.getDepth(), createDTO.getUserId());
+            throw new WatchIngestionBackpressureException(watchEventIngestor.retryAfterSeconds());
+        }
+        
+        // Step 2: Record the heartbeat; only the latest one per title is written and published
         WatchEvent watchEvent = new WatchEvent(
             createDTO.getUserId(),
             createDTO.getContentId(),
@@ -89,53 +149,122 @@ public class VideoService {
         );
         watchEvent.setTimestamp(LocalDateTime.now());
         
-        WatchEvent saved = watchEventRepository.save(watchEvent);
-        logger.info("Watch event saved with ID: {}", saved.getId());
+        if (!watchProgressStore.record(watchEvent, genre)) {
+            logger.warn("Too many unflushed watch positions, rejecting event for user {}", createDTO.getUserId());
+            throw new WatchIngestionBackpressureException(watchProgressStore.retryAfterSeconds());
+        }
+        resumeIndex.record(watchEvent);
+        
+        // Step 3: Archive the raw heartbeat (already accepted above, so a full buffer only loses the archive row)
+        if (archiveRawEvents && !watchEventIngestor.offer(watchEvent)) {
+            logger.warn("Watch event buffer filled up ({} pending), event for user {} accepted but not archived",
+                       watchEventIngestor.getDepth(), createDTO.getUserId());
+        }
         
-        // Step 3: Publish event to observers (OBSERVER PATTERN)
-        VideoWatchedEvent event = new VideoWatchedEvent(
-            saved.getUserId(),
-            saved.getContentId(),
-            saved.getProgress(),
-            saved.getCompleted(),
-            saved.getTimestamp(),
-            content.getGenre() // Include genre for preference updates
+        // Step 4: Return response
+        return new WatchEventResponseDTO(
+            null,
+            watchEvent.getUserId(),
+            watchEvent.getContentId(),
+            watchEvent.getProgress(),
+            watchEvent.getCompleted(),
+            watchEvent.getTimestamp()
         );
+    }
+    
+    /**
+     * Record a batch of watch events uploaded at once, e.g. by a mobile client that was offline.
+     * 
+     * Flow:
+     * 1. Validate every content ID in one pass over ContentCatalogReplica (Content Service only
+     *    for misses); an unknown title rejects the whole batch
+     * 2. Keep the latest event per (user, content) as that title's position
+     * 3. In one transaction, upsert the positions into watch_progress and append all events to
+     *    watch_events (one JDBC batch each; the archive only if archiving is on)
+     * 4. After commit, update the resume index, notify observers once with a VideoWatchBatchEvent
+     *    and publish one aggregated preference update per user
+     * 
+     * Unlike single heartbeats, the batch is stored before the response, so the client can
+     * drop its local copy once this returns.
+     * 
+     * @param batchDTO Uploaded events
+     * @return Counts of what was stored
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public WatchEventBatchResponseDTO recordWatchEventBatch(WatchEventBatchDTO batchDTO) {
+        List<WatchEventBatchItemDTO> items = batchDTO.getEvents();
+        logger.info("Recording batch of {} watch events", items.size());
         
-        logger.info("Publishing VideoWatchedEvent to observers...");
-        eventPublisher.notifyObservers(event);
+        // Step 1: Validate all titles at once
+        Map<Long, String> genres = resolveContentGenres(items.stream()
+            .map(WatchEventBatchItemDTO::getContentId)
+            .collect(Collectors.toSet()));
         
-        // Step 3.5: Publish message to RabbitMQ for asynchronous processing
-        UserPreferenceMessage queueMessage = UserPreferenceMessage.forWatchEvent(
-            saved.getUserId(),
-            saved.getContentId(),
-            content.getGenre()
-        );
-        messageQueuePublisher.publishUserPreferenceUpdate(queueMessage);
+        // Step 2: Build the events (client time, but never ahead of ours) and each title's latest position
+        LocalDateTime now = LocalDateTime.now();
+        List<WatchEvent> events = new ArrayList<>(items.size());
+        Map<List<Long>, WatchEvent> latestByTitle = new LinkedHashMap<>();
+        for (WatchEventBatchItemDTO item : items) {
+            WatchEvent watchEvent = new WatchEvent(
+                item.getUserId(),
+                item.getContentId(),
+                item.getProgress(),
+                item.getCompleted()
+            );
+            watchEvent.setTimestamp(item.getWatchedAt() != null && item.getWatchedAt().isBefore(now)
+                ? item.getWatchedAt() : now);
+            events.add(watchEvent);
+            latestByTitle.merge(List.of(item.getUserId(), item.getContentId()), watchEvent,
+                (kept, next) -> next.getTimestamp().isBefore(kept.getTimestamp()) ? kept : next);
+        }
+        List<WatchEvent> positions = new ArrayList<>(latestByTitle.values());
         
-        // Step 4: Return response
-        WatchEventResponseDTO response = new WatchEventResponseDTO(
-            saved.getId(),
-            saved.getUserId(),
-            saved.getContentId(),
-            saved.getProgress(),
-            saved.getCompleted(),
-            saved.getTimestamp()
-        );
+        // Step 3: Store positions and raw events together
+        Integer archived = new TransactionTemplate(transactionManager).execute(status -> {
+            watchProgressStore.upsertNow(positions);
+            return archiveRawEvents ? watchEventIngestor.insertNow(events) : 0;
+        });
         
-        logger.info("=== Watch event recorded successfully: ID {} ===", saved.getId());
-        return response;
+        // Step 4: Notify once for the whole batch
+        List<VideoWatchedEvent> watches = new ArrayList<>(positions.size());
+        for (WatchEvent position : positions) {
+            resumeIndex.record(position);
+            watches.add(new VideoWatchedEvent(
+                position.getUserId(),
+                position.getContentId(),
+                position.getProgress(),
+                position.getCompleted(),
+                position.getTimestamp(),
+                genres.get(position.getContentId())
+            ));
+        }
+        VideoWatchBatchEvent batchEvent = new VideoWatchBatchEvent(watches, now);
+        eventPublisher.notifyObservers(batchEvent);
+        
+        Map<Long, List<VideoWatchedEvent>> watchesByUser = batchEvent.getWatchesByUser();
+        watchesByUser.forEach((userId, userWatches) ->
+            messageQueuePublisher.publishUserPreferenceUpdate(UserPreferenceMessage.forWatchBatch(
+                userId,
+                userWatches.size(),
+                userWatches.stream().map(VideoWatchedEvent::getGenre).toList())));
+        
+        logger.info("Watch batch stored: {} events, {} archived, {} positions, {} users",
+                   items.size(), archived, positions.size(), watchesByUser.size());
+        
+        return new WatchEventBatchResponseDTO(items.size(), archived, positions.size(), watchesByUser.size());
     }
     
     /**
      * Submit a rating for content.
      * 
      * Flow:
-     * 1. Validate content exists (call Content Service)
+     * 1. Validate content exists (ContentCatalogReplica; Content Service only on a miss)
      * 2. Check if rating already exists (update if yes, create if no)
      * 3. Save rating to database
-     * 4. Publish ContentRatedEvent to observers
-     * 5. Return response
+     * 4. Apply the change to the user's and content's rating totals (same transaction)
+     * 5. Publish ContentRatedEvent to observers; after commit, send the preference update
+     *    and the rating delta for Content Service's aggregate over RabbitMQ
+     * 6. Return response
      * 
      * @param createDTO Rating creation data
      * @return RatingResponseDTO
@@ -144,17 +273,18 @@ public class VideoService {
         logger.info("=== Submitting rating for user {} and content {} ===", 
                    createDTO.getUserId(), createDTO.getContentId());
         
-        // Step 1: Validate content exists
-        ContentResponseDTO content = validateContentExists(createDTO.getContentId());
-        logger.info("Content validated: {} ({})", content.getTitle(), content.getGenre());
+        // Step 1: Validate content exists (local catalog replica, Content Service on a miss)
+        String genre = resolveContentGenre(createDTO.getContentId());
+        logger.info("Content {} validated ({})", createDTO.getContentId(), genre);
         
-        // Step 2: Check if rating already exists
-        Rating rating = ratingRepository.findByUserIdAndContentId(
+        // Step 2: Check if rating already exists (locked, so the aggregate delta below is exact)
+        Rating rating = ratingRepository.findForUpdate(
             createDTO.getUserId(), 
             createDTO.getContentId()
         ).orElse(new Rating(createDTO.getUserId(), createDTO.getContentId(), createDTO.getScore()));
         
         // Update score if rating already exists
+        Double previousScore = rating.getId() != null ? rating.getScore() : null;
         if (rating.getId() != null) {
             logger.info("Updating existing rating ID {} from {} to {}", 
                        rating.getId(), rating.getScore(), createDTO.getScore());
@@ -168,8 +298,9 @@ public class VideoService {
         Rating saved = ratingRepository.save(rating);
         logger.info("Rating saved with ID: {}", saved.getId());
         
-        // Step 4: Calculate user's average rating for recommendations
-        Double averageRating = ratingRepository.calculateAverageRatingByUserId(saved.getUserId());
+        // Step 4: Update the user and content rating totals, then read the user's average from them
+        updateRatingTotals(saved, previousScore);
+        Double averageRating = getUserRatingTotals(saved.getUserId()).average();
         logger.info("User {} average rating: {}", saved.getUserId(), averageRating);
         
         // Step 5: Publish event to observers (OBSERVER PATTERN)
@@ -178,20 +309,34 @@ public class VideoService {
             saved.getContentId(),
             saved.getScore(),
             saved.getTimestamp(),
-            content.getGenre() // Include genre for preference updates
+            genre // Include genre for preference updates
         );
         
         logger.info("Publishing ContentRatedEvent to observers...");
         eventPublisher.notifyObservers(event);
         
-        // Step 5.5: Publish message to RabbitMQ for asynchronous processing
+        // Step 5.5: Queue messages go out once the rating has committed; Content Service
+        // adds the delta to its aggregate for good, so a rolled-back rating must never send one
         UserPreferenceMessage queueMessage = UserPreferenceMessage.forRatingEvent(
             saved.getUserId(),
             saved.getContentId(),
-            content.getGenre(),
+            genre,
             averageRating != null ? averageRating : saved.getScore()
         );
-        messageQueuePublisher.publishUserPreferenceUpdate(queueMessage);
+        ContentRatingMessage ratingMessage = null;
+        if (previousScore == null) {
+            ratingMessage = ContentRatingMessage.forNewRating(saved.getContentId(), saved.getUserId(), saved.getScore());
+        } else if (!previousScore.equals(saved.getScore())) {
+            ratingMessage = ContentRatingMessage.forChangedRating(
+                saved.getContentId(), saved.getUserId(), saved.getScore(), previousScore);
+        }
+        ContentRatingMessage ratingDelta = ratingMessage;
+        afterCommit(() -> {
+            messageQueuePublisher.publishUserPreferenceUpdate(queueMessage);
+            if (ratingDelta != null) {
+                messageQueuePublisher.publishContentRating(ratingDelta);
+            }
+        });
         
         // Step 6: Return response
         RatingResponseDTO response = new RatingResponseDTO(
@@ -206,6 +351,47 @@ public class VideoService {
         return response;
     }
     
+    /**
+     * Validate that content exists and return its genre.
+     * 
+     * Answered from the local catalog replica; only content the replica does not
+     * know yet costs a call to Content Service, and the answer is remembered.
+     * 
+     * @throws ContentNotFoundException if content doesn't exist
+     */
+    private String resolveContentGenre(Long contentId) {
+        Optional<String> genre = contentCatalog.findGenre(contentId);
+        if (genre.isPresent()) {
+            return genre.get();
+        }
+        return fetchContentGenre(contentId);
+    }
+    
+    /**
+     * Genres of several content items: one replica lookup for all, Content Service per miss.
+     * 
+     * @throws ContentNotFoundException for the first ID that does not exist
+     */
+    private Map<Long, String> resolveContentGenres(Set<Long> contentIds) {
+        Map<Long, String> genres = new HashMap<>(contentCatalog.findGenres(contentIds));
+        for (Long contentId : contentIds) {
+            if (!genres.containsKey(contentId)) {
+                genres.put(contentId, fetchContentGenre(contentId));
+            }
+        }
+        return genres;
+    }
+    
+    // Replica miss: rule out known deletions, then ask Content Service and remember the answer
+    private String fetchContentGenre(Long contentId) {
+        if (contentCatalog.isKnownDeleted(contentId)) {
+            throw new ContentNotFoundException(contentId);
+        }
+        ContentResponseDTO content = validateContentExists(contentId);
+        contentCatalog.remember(contentId, content.getGenre());
+        return content.getGenre();
+    }
+    
     /**
      * Validate that content exists by calling Content Service.
      * 
@@ -233,7 +419,8 @@ public class VideoService {
     }
     
     /**
-     * Get all watch events for a user.
+     * Get a user's watch history: one entry per title with its latest progress,
+     * most recently watched first (the raw heartbeats stay in watch_events).
      * 
      * @param userId User ID
      * @return List of watch event responses
@@ -241,15 +428,48 @@ public class VideoService {
     public List<WatchEventResponseDTO> getUserWatchHistory(Long userId) {
         logger.info("Fetching watch history for user {}", userId);
         
-        List<WatchEvent> events = watchEventRepository.findByUserIdOrderByTimestampDesc(userId);
+        List<WatchProgress> positions = watchProgressStore.findByUser(userId);
         
-        return events.stream()
-                .map(e -> new WatchEventResponseDTO(
-                    e.getId(), e.getUserId(), e.getContentId(), 
-                    e.getProgress(), e.getCompleted(), e.getTimestamp()))
+        return positions.stream()
+                .map(p -> new WatchEventResponseDTO(
+                    p.getId(), p.getUserId(), p.getContentId(), 
+                    p.getProgress(), p.getCompleted(), p.getLastWatchedAt()))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Get the titles a user can continue watching, most recently watched first.
+     * Served from ResumeIndex; only a user the index has not loaded reads the database.
+     * 
+     * @param userId User ID
+     * @param limit Maximum number of titles
+     * @return In-progress titles with their last position
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ResumePositionDTO> getContinueWatching(Long userId, int limit) {
+        return resumeIndex.continueWatching(userId, limit).stream()
+                .map(this::toResumePosition)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Get where playback of a title should resume for a user.
+     * 
+     * @param userId User ID
+     * @param contentId Content ID
+     * @return Last position, or empty if the user has not watched the title
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<ResumePositionDTO> getResumePosition(Long userId, Long contentId) {
+        return resumeIndex.position(userId, contentId).map(this::toResumePosition);
+    }
+    
+    private ResumePositionDTO toResumePosition(WatchProgress progress) {
+        return new ResumePositionDTO(
+            progress.getUserId(), progress.getContentId(),
+            progress.getProgress(), progress.getCompleted(), progress.getLastWatchedAt());
+    }
+    
     /**
      * Get all ratings by a user.
      * 
@@ -275,7 +495,7 @@ public class VideoService {
      * @return Average rating or null if no ratings
      */
     public Double getUserAverageRating(Long userId) {
-        return ratingRepository.calculateAverageRatingByUserId(userId);
+        return getUserRatingTotals(userId).average();
     }
     
     /**
@@ -285,6 +505,71 @@ public class VideoService {
      * @return Average rating or null if no ratings
      */
     public Double getContentAverageRating(Long contentId) {
-        return ratingRepository.calculateAverageRatingForContent(contentId);
+        return getContentRatingTotals(contentId).average();
+    }
+    
+    /**
+     * Get the totals of a user's ratings (one row read).
+     * 
+     * @param userId User ID
+     * @return Rating totals, empty if the user has not rated anything
+     */
+    public RatingTotals getUserRatingTotals(Long userId) {
+        return userRatingStatsRepository.findById(userId)
+                .map(UserRatingStats::getTotals)
+                .orElseGet(RatingTotals::empty);
+    }
+    
+    /**
+     * Get the totals of a content's ratings (one row read).
+     * 
+     * @param contentId Content ID
+     * @return Rating totals, empty if the content has no ratings
+     */
+    public RatingTotals getContentRatingTotals(Long contentId) {
+        return contentRatingStatsRepository.findById(contentId)
+                .map(ContentRatingStats::getTotals)
+                .orElseGet(RatingTotals::empty);
+    }
+    
+    /**
+     * Add a saved rating to the totals: a new rating adds (score, 1, score²),
+     * a changed score adds the difference with count 0.
+     */
+    private void updateRatingTotals(Rating saved, Double previousScore) {
+        double score = saved.getScore();
+        double sumDelta;
+        long countDelta;
+        double squaresDelta;
+        if (previousScore == null) {
+            sumDelta = score;
+            countDelta = 1;
+            squaresDelta = score * score;
+        } else if (previousScore != score) {
+            sumDelta = score - previousScore;
+            countDelta = 0;
+            squaresDelta = score * score - previousScore * previousScore;
+        } else {
+            return;
+        }
+        userRatingStatsRepository.addRating(saved.getUserId(), sumDelta, countDelta, squaresDelta);
+        contentRatingStatsRepository.addRating(saved.getContentId(), sumDelta, countDelta, squaresDelta);
+    }
+    
+    /**
+     * Run an action once the current transaction commits (never if it rolls back);
+     * right away when there is no transaction
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
@@ -0,0 +1,106 @@
+package com.example.videoservice.analytics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Estimate and merge checks for HyperLogLog at the default precision (12).
+ *
+ * The standard error there is 1.04 / sqrt(4096), about 1.6%; the bound asserted is
+ * four standard errors, so a correct sketch fails it only by a hash accident. IDs are
+ * sequential, which is what the service feeds in (user IDs) and the hardest input for
+ * a weak hash.
+ */
+class HyperLogLogTest {
+    
+    private static final double STANDARD_ERROR = 1.04 / Math.sqrt(1 << HyperLogLog.DEFAULT_PRECISION);
+    private static final double TOLERANCE = 4 * STANDARD_ERROR;
+    
+    @ParameterizedTest(name = "{0} distinct IDs")
+    @ValueSource(ints = {10, 1_000, 10_000, 100_000, 1_000_000})
+    void estimateIsWithinErrorBound(int distinct) {
+        HyperLogLog sketch = sketchOf(1, distinct);
+        
+        assertThat((double) sketch.estimate()).isCloseTo(distinct, within(Math.max(1, distinct * TOLERANCE)));
+    }
+    
+    @Test
+    void addingAnIdAgainChangesNothing() {
+        HyperLogLog once = sketchOf(1, 50_000);
+        HyperLogLog twice = sketchOf(1, 50_000);
+        for (long id = 1; id <= 50_000; id++) {
+            twice.add(id);
+        }
+        
+        assertThat(twice).isEqualTo(once);
+    }
+    
+    @Test
+    void mergeOfOverlappingSketchesIsTheSketchOfTheUnion() {
+        HyperLogLog first = sketchOf(1, 60_000);
+        HyperLogLog second = sketchOf(40_001, 100_000);
+        
+        HyperLogLog merged = first.copy();
+        merged.merge(second);
+        
+        // Register-wise maximum: exactly the sketch that saw every ID once
+        assertThat(merged).isEqualTo(sketchOf(1, 100_000));
+        assertThat((double) merged.estimate()).isCloseTo(100_000, within(100_000 * TOLERANCE));
+        // Merging into a copy leaves the original untouched
+        assertThat(first).isEqualTo(sketchOf(1, 60_000));
+    }
+    
+    @Test
+    void mergeIsCommutativeAndIdempotent() {
+        HyperLogLog a = sketchOf(1, 30_000);
+        HyperLogLog b = sketchOf(20_001, 70_000);
+        
+        HyperLogLog ab = a.copy();
+        ab.merge(b);
+        HyperLogLog ba = b.copy();
+        ba.merge(a);
+        HyperLogLog abb = ab.copy();
+        abb.merge(b);
+        
+        assertThat(ab).isEqualTo(ba).isEqualTo(abb);
+    }
+    
+    @Test
+    void mergeRejectsOtherPrecision() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        
+        assertThatThrownBy(() -> sketch.merge(new HyperLogLog(10)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void bytesRoundTrip() {
+        HyperLogLog sketch = sketchOf(1, 25_000);
+        
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+        
+        assertThat(restored).isEqualTo(sketch);
+        assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+    }
+    
+    @Test
+    void emptySketchEstimatesZero() {
+        HyperLogLog sketch = new HyperLogLog();
+        
+        assertThat(sketch.isEmpty()).isTrue();
+        assertThat(sketch.estimate()).isZero();
+    }
+    
+    private static HyperLogLog sketchOf(long fromId, long toId) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = fromId; id <= toId; id++) {
+            sketch.add(id);
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.videoservice.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Quantile and merge checks for TDigest at the default compression (100).
+ *
+ * Estimates are compared with the exact quantiles of the same values. The error of a
+ * t-digest is bounded in rank, not in value, so each check asserts that the estimate
+ * lies between the exact values at q - epsilon and q + epsilon; epsilon shrinks
+ * towards the tails, as the scale function promises.
+ */
+class TDigestTest {
+    
+    private static final double[] QUANTILES = {0.001, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999};
+    
+    @Test
+    void quantilesOfUniformValues() {
+        double[] values = uniform(100_000, 7);
+        TDigest digest = digestOf(values);
+        
+        assertQuantiles(digest, values);
+    }
+    
+    @Test
+    void quantilesOfSkewedValues() {
+        // Exponential, like watch progress: most sessions short, a long tail
+        Random random = new Random(11);
+        double[] values = new double[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = -600 * Math.log(1 - random.nextDouble());
+        }
+        TDigest digest = digestOf(values);
+        
+        assertQuantiles(digest, values);
+    }
+    
+    @Test
+    void mergedDigestsMatchTheUnion() {
+        double[] values = uniform(100_000, 13);
+        TDigest merged = new TDigest();
+        int parts = 10;
+        int partSize = values.length / parts;
+        for (int part = 0; part < parts; part++) {
+            merged.merge(digestOf(Arrays.copyOfRange(values, part * partSize, (part + 1) * partSize)));
+        }
+        
+        assertThat(merged.count()).isEqualTo(values.length);
+        assertThat(merged.min()).isEqualTo(Arrays.stream(values).min().orElseThrow());
+        assertThat(merged.max()).isEqualTo(Arrays.stream(values).max().orElseThrow());
+        assertQuantiles(merged, values);
+    }
+    
+    @Test
+    void extremeQuantilesAreTheExactMinAndMax() {
+        double[] values = uniform(10_000, 17);
+        TDigest digest = digestOf(values);
+        
+        assertThat(digest.quantile(0)).isEqualTo(digest.min());
+        assertThat(digest.quantile(1)).isEqualTo(digest.max());
+    }
+    
+    @Test
+    void bytesRoundTrip() {
+        double[] values = uniform(20_000, 19);
+        TDigest digest = digestOf(values);
+        
+        TDigest restored = TDigest.fromBytes(digest.toBytes());
+        
+        assertThat(restored.count()).isEqualTo(digest.count());
+        for (double q : QUANTILES) {
+            assertThat(restored.quantile(q)).isEqualTo(digest.quantile(q));
+        }
+    }
+    
+    @Test
+    void emptyDigestHasNoQuantiles() {
+        TDigest digest = new TDigest();
+        
+        assertThat(digest.count()).isZero();
+        assertThat(digest.quantile(0.5)).isNaN();
+        assertThat(digest.min()).isNaN();
+    }
+    
+    @Test
+    void singleValueIsEveryQuantile() {
+        TDigest digest = new TDigest();
+        digest.add(42);
+        
+        assertThat(digest.quantile(0.01)).isCloseTo(42, within(1e-9));
+        assertThat(digest.quantile(0.99)).isCloseTo(42, within(1e-9));
+    }
+    
+    private static void assertQuantiles(TDigest digest, double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double q : QUANTILES) {
+            // Rank error allowed: 0.5% in the middle, down to 0.1% at the tails
+            double epsilon = Math.max(0.001, 0.02 * q * (1 - q));
+            double low = exact(sorted, q - epsilon);
+            double high = exact(sorted, q + epsilon);
+            
+            assertThat(digest.quantile(q))
+                .as("quantile %s", q)
+                .isBetween(low, high);
+        }
+    }
+    
+    private static double exact(double[] sorted, double q) {
+        int index = (int) Math.round(Math.min(1, Math.max(0, q)) * (sorted.length - 1));
+        return sorted[index];
+    }
+    
+    private static double[] uniform(int n, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = random.nextDouble() * 7200;
+        }
+        return values;
+    }
+    
+    private static TDigest digestOf(double[] values) {
+        TDigest digest = new TDigest();
+        for (double value : values) {
+            digest.add(value);
+        }
+        return digest;
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.videoservice.export;
+
+import com.example.videoservice.export.ColumnarFormat.Column;
+import com.example.videoservice.export.ColumnarFormat.Encoding;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Write with ColumnarFileWriter, read back through ColumnarFileReader's memory-mapped
+ * sections, and compare every value of every row.
+ *
+ * The rows cover each encoding's edge cases: dictionary codes in first-seen order,
+ * timestamps that step backwards (negative deltas) and lie before the epoch, negative and
+ * extreme ints, special doubles, and boolean columns whose row count is not a multiple
+ * of 8, so the last byte is only partly filled.
+ */
+class ColumnarFileRoundTripTest {
+    
+    private static final List<Column> COLUMNS = List.of(
+        new Column("user_id", Encoding.ID_DICTIONARY),
+        new Column("content_id", Encoding.ID_DICTIONARY),
+        new Column("watched_at", Encoding.TIMESTAMP_DELTA),
+        new Column("progress", Encoding.INT_VARINT),
+        new Column("completed", Encoding.BOOLEAN_BITS),
+        new Column("rating", Encoding.DOUBLE)
+    );
+    
+    private static final double[] SPECIAL_DOUBLES =
+        {0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MIN_VALUE, 4.5};
+    private static final int[] EXTREME_INTS = {0, -1, 1, Integer.MIN_VALUE, Integer.MAX_VALUE, -128, 300};
+    
+    @TempDir
+    Path directory;
+    
+    @ParameterizedTest(name = "{0} rows")
+    @ValueSource(ints = {0, 1, 7, 8, 9, 13, 64, 1_003})
+    void everyValueRoundTrips(int rowCount) throws IOException {
+        List<Row> rows = rows(rowCount, 42);
+        Path file = directory.resolve("history.col");
+        write(file, rows);
+        
+        ColumnarFileReader reader = ColumnarFileReader.open(file);
+        
+        assertThat(reader.getRowCount()).isEqualTo(rowCount);
+        assertThat(reader.getColumns()).extracting(Column::getName)
+            .containsExactly("user_id", "content_id", "watched_at", "progress", "completed", "rating");
+        assertThat(reader.getColumns()).extracting(Column::getEncoding)
+            .containsExactly(Encoding.ID_DICTIONARY, Encoding.ID_DICTIONARY, Encoding.TIMESTAMP_DELTA,
+                Encoding.INT_VARINT, Encoding.BOOLEAN_BITS, Encoding.DOUBLE);
+        
+        int user = reader.columnIndex("user_id");
+        int content = reader.columnIndex("content_id");
+        int watchedAt = reader.columnIndex("watched_at");
+        int progress = reader.columnIndex("progress");
+        int completed = reader.columnIndex("completed");
+        int rating = reader.columnIndex("rating");
+        
+        // Dictionaries hold the distinct IDs in first-seen order, so codes are dense
+        long[] users = reader.dictionary(user);
+        assertThat(users).containsExactly(distinct(rows.stream().map(Row::userId)));
+        assertThat(reader.dictionary(content)).containsExactly(distinct(rows.stream().map(Row::contentId)));
+        
+        ColumnarFileReader.Cursor cursor = reader.cursor();
+        for (int i = 0; i < rowCount; i++) {
+            Row expected = rows.get(i);
+            assertThat(cursor.next()).as("row %d exists", i).isTrue();
+            assertThat(cursor.getId(user)).as("user of row %d", i).isEqualTo(expected.userId());
+            assertThat(users[cursor.getCode(user)]).isEqualTo(expected.userId());
+            assertThat(cursor.getId(content)).as("content of row %d", i).isEqualTo(expected.contentId());
+            assertThat(cursor.getTimestamp(watchedAt)).as("timestamp of row %d", i).isEqualTo(expected.watchedAt());
+            assertThat(cursor.getInt(progress)).as("progress of row %d", i).isEqualTo(expected.progress());
+            assertThat(cursor.getBoolean(completed)).as("completed of row %d", i).isEqualTo(expected.completed());
+            assertThat(Double.doubleToRawLongBits(cursor.getDouble(rating))).as("rating of row %d", i)
+                .isEqualTo(Double.doubleToRawLongBits(expected.rating()));
+        }
+        assertThat(cursor.next()).isFalse();
+    }
+    
+    @Test
+    void cursorsScanIndependently() throws IOException {
+        List<Row> rows = rows(21, 7);
+        Path file = directory.resolve("history.col");
+        write(file, rows);
+        ColumnarFileReader reader = ColumnarFileReader.open(file);
+        int watchedAt = reader.columnIndex("watched_at");
+        
+        ColumnarFileReader.Cursor first = reader.cursor();
+        first.next();
+        first.next();
+        ColumnarFileReader.Cursor second = reader.cursor();
+        second.next();
+        
+        assertThat(first.getTimestamp(watchedAt)).isEqualTo(rows.get(1).watchedAt());
+        assertThat(second.getTimestamp(watchedAt)).isEqualTo(rows.get(0).watchedAt());
+    }
+    
+    @Test
+    void incompleteRowIsRejected() throws IOException {
+        ColumnarFileWriter writer = new ColumnarFileWriter(directory.resolve("history.col"), COLUMNS);
+        try {
+            writer.writeId(0, 1L).writeId(1, 2L);
+            
+            assertThatThrownBy(writer::endRow).isInstanceOf(IllegalStateException.class);
+        } finally {
+            writer.abort();
+        }
+    }
+    
+    @Test
+    void valueOfTheWrongEncodingIsRejected() throws IOException {
+        ColumnarFileWriter writer = new ColumnarFileWriter(directory.resolve("history.col"), COLUMNS);
+        try {
+            assertThatThrownBy(() -> writer.writeInt(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        } finally {
+            writer.abort();
+        }
+    }
+    
+    @Test
+    void abortLeavesNothingBehind() throws IOException {
+        Path file = directory.resolve("history.col");
+        ColumnarFileWriter writer = new ColumnarFileWriter(file, COLUMNS);
+        writeRow(writer, rows(1, 3).get(0));
+        
+        writer.abort();
+        
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+    
+    @Test
+    void otherFilesAreNotRead() throws IOException {
+        Path file = directory.resolve("not-columnar.col");
+        Files.writeString(file, "user_id,content_id\n1,2\n");
+        
+        assertThatThrownBy(() -> ColumnarFileReader.open(file))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("not a columnar export file");
+    }
+    
+    @ParameterizedTest
+    @ValueSource(longs = {0, 1, -1, 63, -64, 64, Long.MAX_VALUE, Long.MIN_VALUE})
+    void zigZagRoundTrips(long value) {
+        assertThat(ColumnarFormat.unZigZag(ColumnarFormat.zigZag(value))).isEqualTo(value);
+    }
+    
+    /**
+     * Rows close to time order with some steps back; IDs repeat, with a few extreme ones
+     */
+    private static List<Row> rows(int count, long seed) {
+        Random random = new Random(seed);
+        List<Row> rows = new ArrayList<>(count);
+        LocalDateTime time = LocalDateTime.of(1969, 12, 31, 23, 59, 58, 999_999_000);
+        for (int i = 0; i < count; i++) {
+            // Mostly forward by up to a minute, every fifth row back by up to an hour
+            long stepMicros = i % 5 == 4
+                ? -random.nextInt(3_600_000) * 1_000L
+                : random.nextInt(60_000_000);
+            time = time.plusNanos(stepMicros * 1_000);
+            long userId = i % 11 == 10 ? Long.MAX_VALUE - i : 1 + random.nextInt(50);
+            long contentId = i % 17 == 16 ? -i : 1_000 + random.nextInt(200);
+            int progress = i < EXTREME_INTS.length ? EXTREME_INTS[i] : random.nextInt(20_000) - 100;
+            boolean completed = random.nextBoolean();
+            double rating = i < SPECIAL_DOUBLES.length ? SPECIAL_DOUBLES[i] : random.nextDouble() * 5;
+            rows.add(new Row(userId, contentId, time, progress, completed, rating));
+        }
+        return rows;
+    }
+    
+    private static void write(Path file, List<Row> rows) throws IOException {
+        try (ColumnarFileWriter writer = new ColumnarFileWriter(file, COLUMNS)) {
+            for (Row row : rows) {
+                writeRow(writer, row);
+            }
+            assertThat(writer.getRows()).isEqualTo(rows.size());
+        }
+    }
+    
+    private static void writeRow(ColumnarFileWriter writer, Row row) throws IOException {
+        writer.writeId(0, row.userId())
+            .writeId(1, row.contentId())
+            .writeTimestamp(2, row.watchedAt())
+            .writeInt(3, row.progress())
+            .writeBoolean(4, row.completed())
+            .writeDouble(5, row.rating())
+            .endRow();
+    }
+    
+    private static long[] distinct(Stream<Long> ids) {
+        Set<Long> seen = new LinkedHashSet<>();
+        ids.forEach(seen::add);
+        return seen.stream().mapToLong(Long::longValue).toArray();
+    }
+    
+    private record Row(long userId, long contentId, LocalDateTime watchedAt, int progress,
+                       boolean completed, double rating) {
+    }
+}